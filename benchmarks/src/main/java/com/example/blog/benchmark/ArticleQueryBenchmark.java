@@ -0,0 +1,74 @@
+package com.example.blog.benchmark;
+
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.service.ArticleService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 公開記事一覧の取得。全件を返すクエリ (ページングを入れる前の実装。比較用にここにだけ残す) と、
+ * トップページで使うキーセットページングの 1 ページ目を記事数ごとに比べる。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleQueryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ArticleService articleService;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("query");
+        BenchmarkApplication.insertArticles(context, rows);
+        articleService = context.getBean(ArticleService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ArticleSummary> findAllPublishedBaseline() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(ArticleRepository.SUMMARY_SELECT
+                            + " where a.published = true order by a.publishedAt desc, a.id desc", ArticleSummary.class)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public ArticlePage<ArticleSummary> findFirstPublishedPage() {
+        return articleService.findPublishedPage(null, null);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.blog.benchmark;
+
+import com.example.blog.BlogApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ベンチマーク用にアプリケーションを起動し、計測対象の行数だけ記事を投入する。
+ * 試行ごとに別のインメモリ DB を使い、埋め込みサーバーはランダムポートで起動する。
+ */
+final class BenchmarkApplication {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String name) {
+        return start(name, List.of(), List.of());
+    }
+
+    static ConfigurableApplicationContext start(String name, List<Class<?>> extraSources, List<String> extraArgs) {
+        // application.properties より優先させるためコマンドライン引数として渡す
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + name + "-" + System.nanoTime()
+                        + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.h2.console.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        args.addAll(extraArgs);
+        return new SpringApplicationBuilder(BlogApplication.class)
+                .sources(extraSources.toArray(Class<?>[]::new))
+                .run(args.toArray(String[]::new));
+    }
+
+    static void insertArticles(ConfigurableApplicationContext context, int count) {
+        List<String> slugs = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            slugs.add("article-" + i);
+        }
+        insertArticles(context, slugs);
+    }
+
+    static void insertArticles(ConfigurableApplicationContext context, List<String> slugs) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < slugs.size(); i++) {
+            Timestamp publishedAt = Timestamp.valueOf(base.plusMinutes(i));
+            batch.add(new Object[]{"記事 " + i, slugs.get(i), "概要 " + i, "本文 " + i, "<p>本文 " + i + "</p>\n",
+                    true, publishedAt, publishedAt, publishedAt});
+            if (batch.size() == INSERT_BATCH_SIZE || i == slugs.size() - 1) {
+                jdbcTemplate.batchUpdate("insert into articles (title, slug, summary, content, rendered_html,"
+                        + " published, published_at, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.blog.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource をラップし、接続の取得ごとに {@code benchmark.db-latency-ms} だけスレッドをブロックする。
+ * リモートの DB への往復を模したもので、コネクションプールの枠は消費しない。
+ * コンポーネントスキャンの対象にならないよう、アノテーションを付けずに起動時のソースとして登録する。
+ */
+class DatabaseLatencyInjector implements BeanPostProcessor, EnvironmentAware {
+
+    static final String LATENCY_PROPERTY = "benchmark.db-latency-ms";
+
+    private long latencyMillis;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        latencyMillis = environment.getProperty(LATENCY_PROPERTY, Long.class, 0L);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || latencyMillis <= 0) {
+            return bean;
+        }
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("接続の待機中に割り込まれました", ex);
+                }
+                return super.getConnection();
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.blog.benchmark;
+
+import com.example.blog.config.BoundedBCryptPasswordEncoder;
+import com.example.blog.config.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt のコストごとのログイン照合のスループット。blog.security.bcrypt.strength を決める目安にする。
+ * 8 スレッドで同時に照合し、実際に計算するのはハッシュ用スレッド (既定の 4 本) だけになる。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(8)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private PasswordHashingExecutor executor;
+    private BoundedBCryptPasswordEncoder encoder;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        executor = new PasswordHashingExecutor(4, 1024, 5, new SimpleMeterRegistry());
+        encoder = new BoundedBCryptPasswordEncoder(strength, executor);
+        encoded = encoder.encode("benchmark-password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("benchmark-password", encoded);
+    }
+}
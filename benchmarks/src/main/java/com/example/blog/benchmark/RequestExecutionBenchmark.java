@@ -0,0 +1,96 @@
+package com.example.blog.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DB の応答に遅延がある状態で、トップページへの同時リクエストを捌くスループットを
+ * Tomcat の既定のスレッドプール (最大 200) と仮想スレッドで比較する。結果はリクエスト/秒。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    private static final int CONCURRENT_REQUESTS = 1000;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"20", "500"})
+    public int dbLatencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("threads-" + threads,
+                List.of(DatabaseLatencyInjector.class),
+                List.of("--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "--" + DatabaseLatencyInjector.LATENCY_PROPERTY + "=" + dbLatencyMillis,
+                        "--server.tomcat.accept-count=" + CONCURRENT_REQUESTS));
+        BenchmarkApplication.insertArticles(context, 100);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENT_REQUESTS)
+    public int concurrentIndexRequests() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(CONCURRENT_REQUESTS);
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if (ok != CONCURRENT_REQUESTS) {
+            throw new IllegalStateException("失敗したリクエストがあります: " + (CONCURRENT_REQUESTS - ok));
+        }
+        return ok;
+    }
+}
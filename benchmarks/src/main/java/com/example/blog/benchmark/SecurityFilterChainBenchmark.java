@@ -0,0 +1,88 @@
+package com.example.blog.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 公開記事ページへの GET 1 回あたりの Spring Security のフィルター処理だけの時間。
+ * コントローラーは呼ばない。blog.security.stateless-public-reads の true (専用のチェーン) と false (単一のチェーン) を、
+ * 匿名の読者とログイン済みの管理者 (セッションあり) で比べる。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterChainBenchmark {
+
+    @Param({"true", "false"})
+    public boolean statelessPublicReads;
+
+    private ConfigurableApplicationContext context;
+    private FilterChainProxy filterChainProxy;
+    private MockHttpSession adminSession;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("filter-chain-" + statelessPublicReads, List.of(),
+                List.of("--blog.security.stateless-public-reads=" + statelessPublicReads));
+        filterChainProxy = context.getBean(FilterChainProxy.class);
+        adminSession = new MockHttpSession();
+        adminSession.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl(UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                        AuthorityUtils.createAuthorityList("ROLE_ADMIN"))));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymousReader() throws Exception {
+        return filter(request());
+    }
+
+    @Benchmark
+    public MockHttpServletResponse signedInAdmin() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setSession(adminSession);
+        return filter(request);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/posts/hello");
+        request.setServletPath("/posts/hello");
+        return request;
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterChainProxy.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
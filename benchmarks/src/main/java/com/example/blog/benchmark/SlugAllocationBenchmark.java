@@ -0,0 +1,60 @@
+package com.example.blog.benchmark;
+
+import com.example.blog.service.SlugAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同じ基底スラッグ ("news", "news-1", ...) が大量にある状態での新規スラッグの割り当て。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlugAllocationBenchmark {
+
+    @Param({"1", "1000", "10000"})
+    public int sameBaseSlugs;
+
+    private ConfigurableApplicationContext context;
+    private SlugAllocator slugAllocator;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("slug");
+        List<String> slugs = new ArrayList<>(sameBaseSlugs);
+        slugs.add("news");
+        for (int i = 1; i < sameBaseSlugs; i++) {
+            slugs.add("news-" + i);
+        }
+        BenchmarkApplication.insertArticles(context, slugs);
+        slugAllocator = context.getBean(SlugAllocator.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String allocate() {
+        return slugAllocator.allocate("news", null);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.blog.benchmark;
+
+import com.example.blog.service.SlugAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlugNormalizeBenchmark {
+
+    private final String latinTitle = "Café au Lait: Notes on Spring Boot 3.2 & Thymeleaf";
+    private final String japaneseTitle = "ブログシステムの性能改善メモ";
+
+    @Benchmark
+    public String latinTitle() {
+        return SlugAllocator.normalize(latinTitle);
+    }
+
+    // 日本語だけのタイトルは正規化後に空になり UUID へのフォールバックを通る
+    @Benchmark
+    public String japaneseTitle() {
+        return SlugAllocator.normalize(japaneseTitle);
+    }
+}
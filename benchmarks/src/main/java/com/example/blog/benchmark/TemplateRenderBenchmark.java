@@ -0,0 +1,104 @@
+package com.example.blog.benchmark;
+
+import com.example.blog.dto.ArticleCursor;
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.model.Article;
+import com.example.blog.service.ArticleContentRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本番と同じ Thymeleaf のビュー解決・描画経路で {@code blog/index} と {@code blog/article} を描画する。
+ * 描画結果のキャッシュ ({@code CachingView}) は通さず、テンプレートの処理そのものを計測する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private View indexView;
+    private View articleView;
+    private Map<String, Object> indexModel;
+    private Map<String, Object> articleModel;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start("render");
+        ViewResolver viewResolver = context.getBean("thymeleafViewResolver", ViewResolver.class);
+        indexView = viewResolver.resolveViewName("blog/index", Locale.JAPAN);
+        articleView = viewResolver.resolveViewName("blog/article", Locale.JAPAN);
+
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<ArticleSummary> articles = new ArrayList<>();
+        for (long id = 10; id > 0; id--) {
+            articles.add(new ArticleSummary(id, "記事のタイトル " + id, "article-" + id,
+                    "一覧に表示する概要の文章です。".repeat(3), now.plusHours(id), now.plusHours(id), true));
+        }
+        ArticleCursor older = new ArticleCursor(now.plusHours(1), 1L);
+        ArticleCursor newer = new ArticleCursor(now.plusHours(10), 10L);
+        indexModel = Map.of("articles", articles, "page", new ArticlePage<>(articles, older, newer));
+
+        Article article = new Article();
+        article.setId(1L);
+        article.setTitle("記事のタイトル");
+        article.setSlug("article-1");
+        article.setSummary("記事の概要です。");
+        article.setContent("段落の本文です。<b>タグ</b> や & を含みます。\n\n".repeat(50));
+        article.setRenderedHtml(context.getBean(ArticleContentRenderer.class).render(article.getContent()));
+        article.setPublished(true);
+        article.setPublishedAt(now);
+        article.setUpdatedAt(now);
+        articleModel = Map.of("article", article);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] renderIndex() throws Exception {
+        return render(indexView, indexModel, "/");
+    }
+
+    @Benchmark
+    public byte[] renderArticle() throws Exception {
+        return render(articleView, articleModel, "/posts/article-1");
+    }
+
+    private byte[] render(View view, Map<String, ?> model, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        request.addPreferredLocale(Locale.JAPAN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, request, response);
+        return response.getContentAsByteArray();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.Article;
+import com.example.blog.service.ArticleChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class ArticleCache implements MeterBinder {
+
+    private final LruCache<String, Article> cache;
+
+    public ArticleCache(@Value("${blog.cache.articles.max-entries:1000}") int maxEntries) {
+        this.cache = new LruCache<>(maxEntries);
+    }
+
+    public Article get(String slug) {
+        return cache.get(slug);
+    }
+
+    public long generation() {
+        return cache.generation();
+    }
+
+    public void put(String slug, Article article, long expectedGeneration) {
+        cache.putIfNotInvalidated(slug, article, expectedGeneration);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        event.getSlugs().forEach(cache::invalidate);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheMeters.bind(registry, "articles", cache, "記事キャッシュ");
+    }
+}
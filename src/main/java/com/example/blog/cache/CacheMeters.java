@@ -0,0 +1,32 @@
+package com.example.blog.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * {@link LruCache} の統計を {@code blog.cache.<name>.*} のメーターとして登録する。
+ */
+final class CacheMeters {
+
+    private CacheMeters() {
+    }
+
+    static void bind(MeterRegistry registry, String name, LruCache<?, ?> cache, String description) {
+        String prefix = "blog.cache." + name;
+        FunctionCounter.builder(prefix + ".requests", cache, c -> c.stats().getHitCount())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(prefix + ".requests", cache, c -> c.stats().getMissCount())
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(prefix + ".evictions", cache, c -> c.stats().getEvictionCount())
+                .description(description + "から件数上限で追い出されたエントリの数")
+                .register(registry);
+        Gauge.builder(prefix + ".hit.ratio", cache, c -> c.stats().getHitRate())
+                .description(description + "のヒット率")
+                .register(registry);
+        Gauge.builder(prefix + ".size", cache, LruCache::size)
+                .register(registry);
+    }
+}
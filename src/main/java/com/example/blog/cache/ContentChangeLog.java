@@ -0,0 +1,289 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.ContentChange;
+import com.example.blog.repository.ContentChangeRepository;
+import com.example.blog.service.ArticleChangedEvent;
+import com.example.blog.service.ArticlesImportedEvent;
+import com.example.blog.service.UserAccountChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 複数ノードのキャッシュを content_changes テーブル経由で揃える。
+ * <p>
+ * 記事・アカウントの変更イベントを変更と同じトランザクションで content_changes に追記し、
+ * 各ノードは最後に読んだ ID より後の行を定期的に読んで、他のノードの変更だけをイベントとして再発行する。
+ * ID は挿入時に採番されコミット時に見えるため、先に採番されたトランザクションが後からコミットされると ID が飛ぶ。
+ * 飛んだ ID はしばらくの間 (GAP_TIMEOUT) 読み直して取りこぼさないようにする。
+ */
+public class ContentChangeLog implements MeterBinder, AutoCloseable {
+
+    static final int BATCH_SIZE = 500;
+    static final Duration GAP_TIMEOUT = Duration.ofMinutes(1);
+    static final int MAX_GAPS = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(ContentChangeLog.class);
+
+    private final ContentChangeRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Duration retention;
+    private final ScheduledExecutorService executor;
+    // 読み込みは定期実行のほか呼び出し元のスレッドからも走るため、仮想スレッドを固定しないロックで直列化する
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private final Map<Long, Instant> gaps = new LinkedHashMap<>();
+    // ゲージはリクエストのスレッドからも読まれるので、ロックを取らずに読めるよう読み込みのたびに件数を写す
+    private final AtomicInteger gapCount = new AtomicInteger();
+    private final AtomicLong replayed = new AtomicLong();
+    private long lastSeenId;
+
+    public ContentChangeLog(ContentChangeRepository repository, ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager, String nodeId, Duration retention) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId;
+        this.retention = retention;
+        // 起動直後のキャッシュは空なので、それより前の変更は読まなくてよい
+        Long maxId = repository.findMaxId();
+        this.lastSeenId = maxId == null ? 0L : maxId;
+        addStartupGaps();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-change-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(Duration pollInterval, Duration compactInterval) {
+        executor.scheduleWithFixedDelay(this::pollQuietly, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::compactQuietly, compactInterval.toMillis(), compactInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener
+    public void onArticleChanged(ArticleChangedEvent event) {
+        if (!event.isRemote()) {
+            append(ContentChange.Kind.ARTICLE, event.getArticleId(), event.getSlugs());
+        }
+    }
+
+    @EventListener
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        if (!event.isRemote()) {
+            append(ContentChange.Kind.USER_ACCOUNT, event.getAccountId(), event.getUsernames());
+        }
+    }
+
+    @EventListener
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        if (!event.isRemote()) {
+            append(ContentChange.Kind.ARTICLES_IMPORTED, event.getAfterId(), Set.of(String.valueOf(event.getCount())));
+        }
+    }
+
+    /**
+     * 新しい変更を読み、他のノードの変更をまとめて再発行する。再発行した変更の件数を返す。
+     */
+    public int poll() {
+        pollLock.lock();
+        try {
+            return pollLocked();
+        } finally {
+            gapCount.set(gaps.size());
+            pollLock.unlock();
+        }
+    }
+
+    private int pollLocked() {
+        Instant now = Instant.now();
+        List<ContentChange> changes = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            for (ContentChange change : repository.findByIdInOrderByIdAsc(new ArrayList<>(gaps.keySet()))) {
+                gaps.remove(change.getId());
+                changes.add(change);
+            }
+            gaps.values().removeIf(since -> since.plus(GAP_TIMEOUT).isBefore(now));
+        }
+        List<ContentChange> page;
+        do {
+            page = repository.findByIdGreaterThanOrderByIdAsc(lastSeenId, PageRequest.of(0, BATCH_SIZE));
+            for (ContentChange change : page) {
+                for (long missing = Math.max(lastSeenId + 1, change.getId() - MAX_GAPS);
+                     missing < change.getId(); missing++) {
+                    addGap(missing, now);
+                }
+                lastSeenId = change.getId();
+            }
+            changes.addAll(page);
+        } while (page.size() == BATCH_SIZE);
+        return replay(changes);
+    }
+
+    /**
+     * 保持期間を過ぎた変更ログを削除し、削除した件数を返す。
+     */
+    public int compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteCreatedBefore(cutoff));
+        return deleted == null ? 0 : deleted;
+    }
+
+    int gapCount() {
+        return gapCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("blog.changes.replayed", replayed, AtomicLong::get)
+                .description("他のノードの変更ログから再発行した変更の件数")
+                .register(registry);
+        Gauge.builder("blog.changes.gaps", gapCount, AtomicInteger::get)
+                .description("コミット待ちとして読み直している変更ログの ID の数")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("変更ログの読み込みが終了しませんでした");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(ContentChange.Kind kind, Long entityId, Collection<String> keys) {
+        ContentChange change = new ContentChange();
+        change.setKind(kind);
+        change.setEntityId(entityId);
+        change.setKeys(keys);
+        change.setOrigin(nodeId);
+        repository.save(change);
+    }
+
+    /**
+     * 起動前に採番されて起動後にコミットされる変更は、起動時の最大の ID より小さい。
+     * 直前の ID のうちまだ見えないものも飛んだ ID として読み直し、コミット前の内容をキャッシュしたままにしない。
+     */
+    private void addStartupGaps() {
+        Instant now = Instant.now();
+        long from = Math.max(0L, lastSeenId - MAX_GAPS);
+        Set<Long> visible = new HashSet<>(repository.findIdsGreaterThan(from));
+        for (long id = from + 1; id < lastSeenId; id++) {
+            if (!visible.contains(id)) {
+                addGap(id, now);
+            }
+        }
+        gapCount.set(gaps.size());
+    }
+
+    private void addGap(long id, Instant now) {
+        if (gaps.size() >= MAX_GAPS) {
+            Iterator<Long> eldest = gaps.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        gaps.put(id, now);
+    }
+
+    /**
+     * 同じ記事・アカウントへの複数の変更は 1 つのイベントにまとめる。
+     */
+    private int replay(List<ContentChange> changes) {
+        Map<Long, Set<String>> articles = new LinkedHashMap<>();
+        Map<Long, Set<String>> accounts = new LinkedHashMap<>();
+        long importedAfterId = Long.MAX_VALUE;
+        int importedCount = 0;
+        int remote = 0;
+        for (ContentChange change : changes) {
+            if (nodeId.equals(change.getOrigin())) {
+                continue;
+            }
+            remote++;
+            switch (change.getKind()) {
+                case ARTICLE -> articles.computeIfAbsent(change.getEntityId(), id -> new HashSet<>())
+                        .addAll(change.getKeys());
+                case USER_ACCOUNT -> accounts.computeIfAbsent(change.getEntityId(), id -> new HashSet<>())
+                        .addAll(change.getKeys());
+                case ARTICLES_IMPORTED -> {
+                    importedAfterId = Math.min(importedAfterId, change.getEntityId());
+                    importedCount += change.getKeys().stream().mapToInt(Integer::parseInt).sum();
+                }
+            }
+        }
+        articles.forEach((id, slugs) -> publish(new ArticleChangedEvent(id, slugs, true)));
+        accounts.forEach((id, usernames) -> publish(new UserAccountChangedEvent(id, usernames, true)));
+        if (importedAfterId != Long.MAX_VALUE) {
+            publish(new ArticlesImportedEvent(importedAfterId, importedCount, true));
+        }
+        replayed.addAndGet(remote);
+        return remote;
+    }
+
+    // 1 つのリスナーの失敗で残りの無効化を取りこぼさないよう、イベントごとに例外を止める
+    private void publish(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException ex) {
+            log.warn("変更ログのイベントを反映できませんでした: {}", event.getClass().getSimpleName(), ex);
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            int count = poll();
+            if (count > 0) {
+                log.debug("他のノードの変更を {} 件反映しました", count);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("変更ログを読み込めませんでした", ex);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            int deleted = compact();
+            if (deleted > 0) {
+                log.debug("古い変更ログを {} 件削除しました", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("変更ログを整理できませんでした", ex);
+        }
+    }
+}
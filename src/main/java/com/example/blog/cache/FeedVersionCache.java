@@ -0,0 +1,47 @@
+package com.example.blog.cache;
+
+import com.example.blog.dto.ArticleFeedVersion;
+import com.example.blog.service.ArticleChangedEvent;
+import com.example.blog.service.ArticlesImportedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 一覧ページの ETag に使う公開記事の版 (件数と最終更新日時) を保持する。
+ * 版の集計は公開記事の数に比例するので、記事の変更・取り込みがあるまでは集計し直さない。
+ * 他のノードの変更も {@link ContentChangeLog} が再発行するイベントで無効化されるため、
+ * 各ノードが同じ版 (同じ ETag) を返す。
+ */
+@Component
+public class FeedVersionCache {
+
+    private static final String KEY = "published";
+
+    private final LruCache<String, ArticleFeedVersion> cache = new LruCache<>(1);
+
+    public ArticleFeedVersion get() {
+        return cache.get(KEY);
+    }
+
+    public long generation() {
+        return cache.generation();
+    }
+
+    public void put(ArticleFeedVersion version, long expectedGeneration) {
+        cache.putIfNotInvalidated(KEY, version, expectedGeneration);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
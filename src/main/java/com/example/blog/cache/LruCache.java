@@ -0,0 +1,136 @@
+package com.example.blog.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * 件数に上限のある LRU キャッシュ。
+ * 仮想スレッドがロック待ちでキャリアスレッドを固定しないよう、synchronized ではなく {@link ReentrantLock} で保護する。
+ */
+public class LruCache<K, V> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxEntries;
+    private final LinkedHashMap<K, V> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long generation;
+
+    public LruCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key) {
+        lock.lock();
+        try {
+            V value = entries.get(key);
+            if (value == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            entries.put(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 現在の無効化の世代を返す。読み込む前に取得しておき、{@link #putIfNotInvalidated(Object, Object, long)} に渡すと、
+     * 読み込み中に無効化された古い値をキャッシュせずに済む。
+     */
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean putIfNotInvalidated(K key, V value, long expectedGeneration) {
+        lock.lock();
+        try {
+            if (generation != expectedGeneration) {
+                return false;
+            }
+            entries.put(key, value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation++;
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateIf(Predicate<? super K> predicate) {
+        lock.lock();
+        try {
+            generation++;
+            entries.keySet().removeIf(predicate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.blog.cache;
+
+import com.example.blog.service.ArticleChangedEvent;
+import com.example.blog.service.ArticlesImportedEvent;
+import com.example.blog.view.RenderedPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class RenderedPageCache implements MeterBinder {
+
+    private static final String ARTICLE_PREFIX = "article:";
+    private static final String INDEX_PREFIX = "index:";
+
+    private final LruCache<String, RenderedPage> cache;
+
+    public RenderedPageCache(@Value("${blog.cache.pages.max-entries:500}") int maxEntries) {
+        this.cache = new LruCache<>(maxEntries);
+    }
+
+    public static String articleKey(String slug) {
+        return ARTICLE_PREFIX + slug;
+    }
+
+    // カーソルはクライアントが任意に指定できるため、キャッシュするのは先頭ページだけにする。
+    // カーソルごとに保持すると、存在しない位置を次々に指定されて記事ページが押し出されてしまう
+    public static String indexKey() {
+        return INDEX_PREFIX + "latest";
+    }
+
+    public RenderedPage get(String key, String version) {
+        RenderedPage page = cache.get(key);
+        if (page == null || !page.getVersion().equals(version)) {
+            return null;
+        }
+        return page;
+    }
+
+    public long generation() {
+        return cache.generation();
+    }
+
+    public void put(String key, RenderedPage page, long expectedGeneration) {
+        cache.putIfNotInvalidated(key, page, expectedGeneration);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        event.getSlugs().forEach(slug -> cache.invalidate(articleKey(slug)));
+        cache.invalidateIf(key -> key.startsWith(INDEX_PREFIX));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        cache.invalidateIf(key -> key.startsWith(INDEX_PREFIX));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheMeters.bind(registry, "pages", cache, "描画結果キャッシュ");
+    }
+}
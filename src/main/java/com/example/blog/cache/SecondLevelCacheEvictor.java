@@ -0,0 +1,91 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.Article;
+import com.example.blog.model.UserAccount;
+import com.example.blog.service.ArticleChangedEvent;
+import com.example.blog.service.ArticlesImportedEvent;
+import com.example.blog.service.UserAccountChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC で直接書き込んだ変更と、他のノードでの変更を Hibernate の二次キャッシュに反映する。
+ * このノードで JPA 経由で更新したもの (ArticleService / UserAccountService) は Hibernate が自動で無効化する。
+ * 他のキャッシュが二次キャッシュから古いエンティティを読み直さないよう、どのリスナーよりも先に実行する。
+ * <p>
+ * クエリキャッシュの結果はテーブルの最終更新時刻 (update-timestamps) より古ければ捨てられる。
+ * JDBC の書き込みは Hibernate がこの時刻を更新しないため、コミット前とコミット後の 2 回ここで更新し、
+ * コミット前に読み始めたクエリの結果がリージョンの破棄より後に格納されても使われないようにする。
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private static final String[] ARTICLE_SPACES = {"articles"};
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // コミットまでの間は最終更新時刻を未来にしておき、その間に読まれた結果を格納させない
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeArticlesImportCommit(ArticlesImportedEvent event) {
+        if (!event.isRemote()) {
+            updateTimestamps((timestamps, session) -> timestamps.preInvalidate(ARTICLE_SPACES, session));
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        // 追加のみなのでエンティティは古くならないが、一覧や「存在しない slug」のクエリ結果は古くなる
+        evictArticleQueries();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        if (event.isRemote()) {
+            cache().evictEntityData(Article.class, event.getArticleId());
+            evictArticleQueries();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        if (event.isRemote()) {
+            cache().evictEntityData(UserAccount.class, event.getAccountId());
+            cache().evictQueryRegion(UserAccount.QUERY_CACHE_REGION);
+        }
+    }
+
+    private void evictArticleQueries() {
+        updateTimestamps((timestamps, session) -> timestamps.invalidate(ARTICLE_SPACES, session));
+        cache().evictQueryRegion(Article.QUERY_CACHE_REGION);
+    }
+
+    // 最終更新時刻の更新にはセッションが要るが、コミット後はトランザクションのセッションを使えないため短命のセッションを開く
+    private void updateTimestamps(BiConsumer<TimestampsCache, SharedSessionContractImplementor> update) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            update.accept(sessionFactory.getCache().getTimestampsCache(), (SharedSessionContractImplementor) session);
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
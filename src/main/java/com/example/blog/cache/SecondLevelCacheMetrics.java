@@ -0,0 +1,57 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.Article;
+import com.example.blog.model.UserAccount;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 二次キャッシュのリージョン別ヒット率を blog.hibernate.cache.hit.ratio として公開する。
+ * ヒット数やミス数そのものは hibernate-micrometer の hibernate.second.level.cache.requests で取れる。
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    static final List<String> REGIONS = List.of(
+            Article.CACHE_REGION, Article.QUERY_CACHE_REGION,
+            UserAccount.CACHE_REGION, UserAccount.QUERY_CACHE_REGION);
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : REGIONS) {
+            Gauge.builder("blog.hibernate.cache.hit.ratio", this, hitRatio(region))
+                    .tag("region", region)
+                    .description("二次キャッシュのヒット率")
+                    .register(registry);
+        }
+    }
+
+    public CacheStats stats(String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return new CacheStats(0, 0, 0, 0);
+        }
+        long size = regionStatistics.getElementCountInMemory();
+        return new CacheStats(regionStatistics.getHitCount(), regionStatistics.getMissCount(), 0,
+                size < 0 ? 0 : (int) size);
+    }
+
+    private static ToDoubleFunction<SecondLevelCacheMetrics> hitRatio(String region) {
+        return metrics -> metrics.stats(region).getHitRate();
+    }
+}
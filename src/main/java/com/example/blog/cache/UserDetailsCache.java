@@ -0,0 +1,70 @@
+package com.example.blog.cache;
+
+import com.example.blog.service.UserAccountChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 認証時のユーザー検索結果をユーザー名単位で保持する。
+ * 認証後に資格情報が消去されても影響しないよう、取り出すたびに複製を返す。
+ */
+@Component
+public class UserDetailsCache implements UserCache, MeterBinder {
+
+    private final LruCache<String, UserDetails> cache;
+
+    public UserDetailsCache(@Value("${blog.cache.users.max-entries:200}") int maxEntries) {
+        this.cache = new LruCache<>(maxEntries);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails cached = cache.get(username);
+        return cached == null ? null : User.withUserDetails(cached).build();
+    }
+
+    public long generation() {
+        return cache.generation();
+    }
+
+    /**
+     * 検索を始める前に取得した世代を渡す。検索中にアカウントが変更されていればキャッシュしない。
+     */
+    public void put(UserDetails user, long expectedGeneration) {
+        cache.putIfNotInvalidated(user.getUsername(), User.withUserDetails(user).build(), expectedGeneration);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), User.withUserDetails(user).build());
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidate(username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        event.getUsernames().forEach(cache::invalidate);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheMeters.bind(registry, "users", cache, "認証用ユーザーキャッシュ");
+    }
+}
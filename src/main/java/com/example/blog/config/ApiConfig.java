@@ -0,0 +1,19 @@
+package com.example.blog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ApiConfig {
+
+    @Bean(destroyMethod = "close")
+    public ArticleStreamExecutor articleStreamExecutor(
+            @Value("${blog.api.stream.threads:8}") int threads,
+            @Value("${blog.api.stream.queue-capacity:32}") int queueCapacity,
+            @Value("${blog.api.stream.timeout-minutes:10}") long timeoutMinutes) {
+        return new ArticleStreamExecutor(threads, queueCapacity, Duration.ofMinutes(timeoutMinutes));
+    }
+}
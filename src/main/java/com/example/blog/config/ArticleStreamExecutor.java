@@ -0,0 +1,69 @@
+package com.example.blog.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API の NDJSON ストリーミングを専用のスレッドで書き込む。同時に書き込む数と待ち行列の長さに上限を設け、
+ * あふれた要求は {@link TaskRejectedException} で断る。
+ * <p>
+ * {@code Executor} として Bean にすると Spring Boot の applicationTaskExecutor が作られなくなるため、包んで公開する。
+ */
+public class ArticleStreamExecutor implements MeterBinder, AutoCloseable {
+
+    private static final String METRIC_PREFIX = "blog.api.stream";
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final Duration timeout;
+    private final LongAdder rejected = new LongAdder();
+
+    public ArticleStreamExecutor(int threads, int queueCapacity, Duration timeout) {
+        this.timeout = timeout;
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("article-stream-");
+        executor.setDaemon(true);
+        executor.setRejectedExecutionHandler((runnable, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("ストリーミングの待ち行列があふれました");
+        });
+        executor.initialize();
+    }
+
+    /**
+     * 専用のスレッドとタイムアウトで {@code callable} を実行する非同期処理を返す。
+     */
+    public <T> WebAsyncTask<T> task(Callable<T> callable) {
+        return new WebAsyncTask<>(timeout.toMillis(), executor, callable);
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejected", rejected, LongAdder::sum)
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.blog.config;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt の計算を {@link PasswordHashingExecutor} に任せるエンコーダー。
+ * 保存済みのハッシュのコストが設定値と異なれば、ログイン成功時に設定値で作り直させる。
+ */
+public class BoundedBCryptPasswordEncoder extends JfrBCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_STRENGTH = Pattern.compile("\\A\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedBCryptPasswordEncoder(int strength, PasswordHashingExecutor executor) {
+        super(strength);
+        this.strength = strength;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(PasswordHashingExecutor.ENCODE, () -> super.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(PasswordHashingExecutor.MATCHES, () -> super.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_STRENGTH.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * 設定したコストでハッシュを 1 回計算し、かかった時間をミリ秒で返す。呼び出し元のスレッドで計算する。
+     */
+    public long measureEncodeMillis() {
+        long started = System.nanoTime();
+        super.encode("measure");
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
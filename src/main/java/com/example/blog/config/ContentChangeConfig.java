@@ -0,0 +1,42 @@
+package com.example.blog.config;
+
+import com.example.blog.cache.ContentChangeLog;
+import com.example.blog.repository.ContentChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * blog.changes.enabled=true のとき、変更ログで他のノードとキャッシュの無効化を共有する。
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.changes.enabled", havingValue = "true")
+public class ContentChangeConfig {
+
+    private static final int MAX_NODE_ID_LENGTH = 36;
+
+    @Bean(destroyMethod = "close")
+    public ContentChangeLog contentChangeLog(ContentChangeRepository repository,
+                                             ApplicationEventPublisher eventPublisher,
+                                             PlatformTransactionManager transactionManager,
+                                             @Value("${blog.changes.node-id:}") String nodeId,
+                                             @Value("${blog.changes.poll-interval-millis:1000}") long pollIntervalMillis,
+                                             @Value("${blog.changes.compact-interval-seconds:300}") long compactIntervalSeconds,
+                                             @Value("${blog.changes.retention-minutes:60}") long retentionMinutes) {
+        String node = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+        if (node.length() > MAX_NODE_ID_LENGTH) {
+            throw new IllegalArgumentException("blog.changes.node-id は " + MAX_NODE_ID_LENGTH + " 文字以内で指定してください");
+        }
+        ContentChangeLog log = new ContentChangeLog(repository, eventPublisher, transactionManager, node,
+                Duration.ofMinutes(retentionMinutes));
+        log.start(Duration.ofMillis(pollIntervalMillis), Duration.ofSeconds(compactIntervalSeconds));
+        return log;
+    }
+}
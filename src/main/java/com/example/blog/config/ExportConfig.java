@@ -0,0 +1,23 @@
+package com.example.blog.config;
+
+import com.example.blog.export.StaticPageFilter;
+import com.example.blog.export.StaticSiteExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExportConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "blog.export.serve", havingValue = "true")
+    public FilterRegistrationBean<StaticPageFilter> staticPageFilter(StaticSiteExporter exporter) {
+        FilterRegistrationBean<StaticPageFilter> registration =
+                new FilterRegistrationBean<>(new StaticPageFilter(exporter));
+        // ログイン済みかどうかを判定するため、Spring Security のフィルタの後に置く
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
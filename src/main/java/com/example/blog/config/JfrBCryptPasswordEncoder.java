@@ -0,0 +1,30 @@
+package com.example.blog.config;
+
+import com.example.blog.jfr.AuthenticationEvent;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * パスワードの照合にかかった時間を JFR の {@link AuthenticationEvent} (verify) として記録する BCrypt エンコーダー。
+ */
+public class JfrBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    public JfrBCryptPasswordEncoder() {
+    }
+
+    public JfrBCryptPasswordEncoder(int strength) {
+        super(strength);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        boolean matches = super.matches(rawPassword, encodedPassword);
+        if (event.shouldCommit()) {
+            event.phase = AuthenticationEvent.VERIFY;
+            event.success = matches;
+            event.commit();
+        }
+        return matches;
+    }
+}
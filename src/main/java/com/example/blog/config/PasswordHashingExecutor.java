@@ -0,0 +1,106 @@
+package com.example.blog.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt の計算を専用のスレッドで実行する。同時に計算する数と待ち行列の長さに上限を設け、
+ * あふれた要求は待たせずに {@link PasswordHashingRejectedException} で断る。
+ */
+public class PasswordHashingExecutor implements AutoCloseable {
+
+    public static final String ENCODE = "encode";
+    public static final String MATCHES = "matches";
+
+    private static final String METRIC_PREFIX = "blog.security.password.hashing";
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final LongAdder rejected = new LongAdder();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public PasswordHashingExecutor(int threads, int queueCapacity, long retryAfterSeconds,
+                                   MeterRegistry meterRegistry) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queued", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejected", rejected, LongAdder::sum)
+                .register(meterRegistry);
+        timer(ENCODE);
+        timer(MATCHES);
+    }
+
+    /**
+     * 呼び出し元のスレッドは結果が出るまで待つが、CPU を使うのはハッシュ用のスレッドだけになる。
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer timer = timer(operation);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.record(task));
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("パスワードの処理が混み合っています", retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("パスワードの処理が中断されました", retryAfterSeconds);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private Timer timer(String operation) {
+        return timers.computeIfAbsent(operation, key -> Timer.builder(METRIC_PREFIX)
+                .tag("operation", key)
+                .register(meterRegistry));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.blog.config;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import java.io.IOException;
+
+/**
+ * ハッシュ用の待ち行列があふれてログインを処理できなかったときは、ログイン画面に戻さず 503 と Retry-After を返す。
+ */
+public class PasswordHashingFailureHandler extends SimpleUrlAuthenticationFailureHandler {
+
+    public PasswordHashingFailureHandler(String defaultFailureUrl) {
+        super(defaultFailureUrl);
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception instanceof PasswordHashingRejectedException rejected) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rejected.getRetryAfterSeconds()));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, rejected.getMessage());
+            return;
+        }
+        super.onAuthenticationFailure(request, response, exception);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.blog.config;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * パスワードハッシュ用のスレッドと待ち行列がすべて埋まっているときに投げる。
+ * ログイン中に発生しても認証失敗のハンドラーまで届くよう {@link AuthenticationServiceException} を継承する。
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.blog.config;
+
+import com.example.blog.search.InMemorySearchIndex;
+import com.example.blog.search.SearchIndex;
+import com.example.blog.search.SearchTokenizer;
+import com.example.blog.search.SegmentedSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class SearchConfig {
+
+    @Bean(destroyMethod = "close")
+    public SearchIndex searchIndex(@Value("${blog.search.index-dir:}") String indexDir,
+                                   @Value("${blog.search.flush-threshold:1000}") int flushThreshold,
+                                   @Value("${blog.search.max-segments:8}") int maxSegments,
+                                   @Value("${blog.search.flush-interval-seconds:5}") long flushIntervalSeconds)
+            throws IOException {
+        SearchTokenizer tokenizer = new SearchTokenizer();
+        if (!StringUtils.hasText(indexDir)) {
+            return new InMemorySearchIndex(tokenizer);
+        }
+        return SegmentedSearchIndex.open(Path.of(indexDir), tokenizer, flushThreshold, maxSegments,
+                flushIntervalSeconds);
+    }
+}
@@ -1,29 +1,93 @@
 package com.example.blog.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    static final List<String> PUBLIC_READ_PATHS = List.of(
+            "/", "/posts/**", "/page/**", "/search", "/css/**", "/api/articles", "/api/articles/**",
+            "/actuator/health");
+
+    /**
+     * 匿名で読める GET / HEAD 専用のチェーン。セッションを読み書きせず、CSRF トークンもログイン状態も扱わない。
+     * 公開ページはログインの有無で内容が変わらないので、ログイン済みの管理者もここを通る。
+     */
+    @Bean
+    @Order(1)
+    @ConditionalOnProperty(name = "blog.security.stateless-public-reads", havingValue = "true", matchIfMissing = true)
+    public SecurityFilterChain publicReadFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(publicReads())
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(context -> context.disable())
+                .requestCache(cache -> cache.disable())
+                .csrf(csrf -> csrf.disable())
+                .anonymous(anonymous -> anonymous.disable())
+                .servletApi(servletApi -> servletApi.disable())
+                .exceptionHandling(exceptions -> exceptions.disable())
+                .logout(logout -> logout.disable());
+        return http.build();
+    }
+
+    /**
+     * health 以外の actuator エンドポイント (メトリクス) は ADMIN ロールの HTTP Basic 認証で保護する。
+     * Prometheus などのスクレイパーが使うので、セッションは作らない。
+     */
     @Bean
+    @Order(2)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/actuator/**")
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health").permitAll()
+                        .anyRequest().hasRole("ADMIN")
+                )
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(cache -> cache.disable())
+                .csrf(csrf -> csrf.disable());
+        return http.build();
+    }
+
+    @Bean
+    @Order(3)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/css/**", "/", "/posts/**", "/h2-console/**").permitAll()
+                        .requestMatchers("/css/**", "/", "/posts/**", "/page/**", "/search", "/h2-console/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/articles", "/api/articles/**").permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .formLogin(login -> login
                         .loginPage("/login")
                         .defaultSuccessUrl("/admin/articles", true)
+                        .failureHandler(new PasswordHashingFailureHandler("/login?error"))
                         .permitAll()
                 )
                 .logout(logout -> logout
@@ -39,8 +103,32 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private static RequestMatcher publicReads() {
+        List<RequestMatcher> matchers = new ArrayList<>();
+        // 404 などのエラーページは転送先の /error で描画される。ここをステートフルなチェーンに回すと、
+        // 匿名のリクエストがログイン画面へリダイレクトされ、セッションまで作られてしまう
+        matchers.add(new AntPathRequestMatcher("/error"));
+        for (String path : PUBLIC_READ_PATHS) {
+            matchers.add(new AntPathRequestMatcher(path, HttpMethod.GET.name()));
+            matchers.add(new AntPathRequestMatcher(path, HttpMethod.HEAD.name()));
+        }
+        return new OrRequestMatcher(matchers);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PasswordHashingExecutor passwordHashingExecutor(
+            @Value("${blog.security.hashing.threads:4}") int threads,
+            @Value("${blog.security.hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${blog.security.hashing.retry-after-seconds:5}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        return new PasswordHashingExecutor(threads, queueCapacity, retryAfterSeconds, meterRegistry);
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${blog.security.bcrypt.strength:10}") int strength,
+                                           PasswordHashingExecutor passwordHashingExecutor) {
+        BoundedBCryptPasswordEncoder encoder = new BoundedBCryptPasswordEncoder(strength, passwordHashingExecutor);
+        log.info("BCrypt のコストを {} に設定しました (1 回あたり約 {} ms)", strength, encoder.measureEncodeMillis());
+        return encoder;
     }
 }
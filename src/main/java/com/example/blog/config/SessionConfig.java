@@ -0,0 +1,53 @@
+package com.example.blog.config;
+
+import com.example.blog.session.FileSessionRepository;
+import com.example.blog.session.JdbcSessionRepository;
+import com.example.blog.session.PersistentSessionRepository;
+import com.example.blog.session.SessionAttributeCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * blog.session.store が memory 以外のとき、HttpSession を外部ストアに保存する。
+ */
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnExpression("'${blog.session.store:memory}' != 'memory'")
+public class SessionConfig {
+
+    @Bean(destroyMethod = "close")
+    public PersistentSessionRepository sessionRepository(
+            @Value("${blog.session.store}") String store,
+            @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+            @Value("${blog.session.touch-flush-interval-seconds:10}") long touchFlushIntervalSeconds,
+            @Value("${blog.session.cleanup-interval-seconds:60}") long cleanupIntervalSeconds,
+            @Value("${blog.session.jdbc.initialize-schema:true}") boolean initializeSchema,
+            @Value("${blog.session.file.dir:sessions}") String fileDir,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager) {
+        SessionAttributeCodec codec = new SessionAttributeCodec(getClass().getClassLoader());
+        Duration touchFlushInterval = Duration.ofSeconds(touchFlushIntervalSeconds);
+        PersistentSessionRepository repository = switch (store) {
+            case "jdbc" -> {
+                JdbcSessionRepository jdbc = new JdbcSessionRepository(dataSource, transactionManager, codec,
+                        timeout, touchFlushInterval);
+                if (initializeSchema) {
+                    jdbc.initializeSchema();
+                }
+                yield jdbc;
+            }
+            case "file" -> new FileSessionRepository(Path.of(fileDir), codec, timeout, touchFlushInterval);
+            default -> throw new IllegalArgumentException("不明なセッションの保存先です: " + store);
+        };
+        repository.start(Duration.ofSeconds(cleanupIntervalSeconds));
+        return repository;
+    }
+}
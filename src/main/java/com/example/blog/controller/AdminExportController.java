@@ -0,0 +1,81 @@
+package com.example.blog.controller;
+
+import com.example.blog.export.ArticleNdjsonExporter;
+import com.example.blog.export.ExportResult;
+import com.example.blog.export.StaticSiteExporter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Controller
+public class AdminExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminExportController.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final StaticSiteExporter staticSiteExporter;
+    private final ArticleNdjsonExporter articleNdjsonExporter;
+    private final Duration exportTimeout;
+
+    public AdminExportController(StaticSiteExporter staticSiteExporter,
+                                 ArticleNdjsonExporter articleNdjsonExporter,
+                                 @Value("${blog.export.ndjson.timeout-minutes:60}") long exportTimeoutMinutes) {
+        this.staticSiteExporter = staticSiteExporter;
+        this.articleNdjsonExporter = articleNdjsonExporter;
+        this.exportTimeout = Duration.ofMinutes(exportTimeoutMinutes);
+    }
+
+    @PostMapping("/admin/export")
+    public String export(HttpServletRequest request,
+                         HttpServletResponse response,
+                         RedirectAttributes redirectAttributes) {
+        try {
+            ExportResult result = staticSiteExporter.export(request, response);
+            redirectAttributes.addFlashAttribute("message", String.format(
+                    "静的ファイルを書き出しました (更新 %d 件, スキップ %d 件, 削除 %d 件)",
+                    result.getWritten(), result.getSkipped(), result.getDeleted()));
+        } catch (IllegalStateException ex) {
+            redirectAttributes.addFlashAttribute("error", ex.getMessage());
+        } catch (Exception ex) {
+            log.error("静的ファイルの書き出しに失敗しました", ex);
+            redirectAttributes.addFlashAttribute("error", "静的ファイルの書き出しに失敗しました");
+        }
+        return "redirect:/admin/articles";
+    }
+
+    /**
+     * 全件の書き出しは数分かかることがある。NDJSON には終端がなく、途中で切れてもクライアントは気付けないので、
+     * 非同期処理の既定のタイムアウト (spring.mvc.async.request-timeout) ではなく専用のタイムアウトを使う。
+     */
+    @GetMapping("/admin/export/articles.ndjson")
+    @ResponseBody
+    public WebAsyncTask<Void> exportArticles(HttpServletResponse response) {
+        String filename = "articles-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".ndjson";
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            OutputStream out = response.getOutputStream();
+            articleNdjsonExporter.writeTo(out);
+            out.flush();
+            return null;
+        });
+    }
+}
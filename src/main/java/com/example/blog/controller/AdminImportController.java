@@ -0,0 +1,45 @@
+package com.example.blog.controller;
+
+import com.example.blog.data.ArticleImporter;
+import com.example.blog.data.ImportFormat;
+import com.example.blog.data.ImportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.InputStream;
+
+@Controller
+public class AdminImportController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminImportController.class);
+
+    private final ArticleImporter articleImporter;
+
+    public AdminImportController(ArticleImporter articleImporter) {
+        this.articleImporter = articleImporter;
+    }
+
+    @PostMapping("/admin/import")
+    public String importArticles(@RequestParam("file") MultipartFile file, RedirectAttributes redirectAttributes) {
+        if (file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "取り込むファイルを選択してください");
+            return "redirect:/admin/articles";
+        }
+        try (InputStream in = file.getInputStream()) {
+            ImportResult result = articleImporter.importArticles(in, ImportFormat.fromFilename(file.getOriginalFilename()));
+            redirectAttributes.addFlashAttribute("message", String.format(
+                    "記事を取り込みました (取り込み %d 件, スキップ %d 件)", result.getImported(), result.getSkipped()));
+        } catch (IllegalArgumentException ex) {
+            redirectAttributes.addFlashAttribute("error", ex.getMessage());
+        } catch (Exception ex) {
+            log.error("記事の取り込みに失敗しました", ex);
+            redirectAttributes.addFlashAttribute("error", "記事の取り込みに失敗しました");
+        }
+        return "redirect:/admin/articles";
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.blog.controller;
+
+import com.example.blog.config.ArticleStreamExecutor;
+import com.example.blog.dto.ArticleCursor;
+import com.example.blog.dto.ArticleListResponse;
+import com.example.blog.dto.ArticleResource;
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.model.Article;
+import com.example.blog.service.ArticleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * ヘッドレスのフロントエンドやモバイルアプリ向けの読み取り専用 API。
+ * {@code Accept: application/x-ndjson} で一覧を要求すると、公開記事を 1 行 1 件でストリーミングする。
+ */
+@RestController
+@RequestMapping("/api/articles")
+public class ArticleApiController {
+
+    static final int STREAM_BATCH_SIZE = 100;
+    static final long STREAM_RETRY_AFTER_SECONDS = 5;
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+    private final ArticleService articleService;
+    private final ObjectMapper objectMapper;
+    private final ArticleStreamExecutor streamExecutor;
+    private final String etagVersion;
+
+    public ArticleApiController(ArticleService articleService,
+                                ObjectMapper objectMapper,
+                                ArticleStreamExecutor streamExecutor,
+                                @Value("${blog.http.etag-version:1}") String etagVersion) {
+        this.articleService = articleService;
+        this.objectMapper = objectMapper;
+        this.streamExecutor = streamExecutor;
+        this.etagVersion = etagVersion;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ArticleListResponse list(@RequestParam(required = false) String older,
+                                    @RequestParam(required = false) String newer) {
+        return ArticleListResponse.from(articleService.findPublishedPage(parseCursor(older), parseCursor(newer)));
+    }
+
+    /**
+     * 受信の遅いクライアントは書き込みのスレッドを長く占有するため、既定の applicationTaskExecutor ではなく
+     * 上限のある専用のスレッドで書き込み、タイムアウトも専用の値 (blog.api.stream.timeout-minutes) を使う。
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> stream(@RequestParam(required = false) String older, HttpServletResponse response) {
+        ArticleCursor start = parseCursor(older);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        // 1 バッチずつ読み出して書き込むため、クライアントの受信が遅ければ書き込みで待ち、DB の読み出しも止まる
+        return streamExecutor.task(() -> {
+            OutputStream out = response.getOutputStream();
+            ArticleCursor cursor = start;
+            List<ArticleSummary> batch;
+            do {
+                batch = articleService.findPublishedBatch(cursor, STREAM_BATCH_SIZE);
+                for (ArticleSummary article : batch) {
+                    out.write(objectMapper.writeValueAsBytes(article));
+                    out.write('\n');
+                }
+                out.flush();
+                if (!batch.isEmpty()) {
+                    ArticleSummary last = batch.get(batch.size() - 1);
+                    cursor = new ArticleCursor(last.getPublishedAt(), last.getId());
+                }
+            } while (batch.size() == STREAM_BATCH_SIZE);
+            return null;
+        });
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Void> streamRejected() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(STREAM_RETRY_AFTER_SECONDS))
+                .build();
+    }
+
+    @GetMapping("/{slug}")
+    public ResponseEntity<ArticleResource> show(@PathVariable String slug, WebRequest webRequest) {
+        Article article = articleService.findBySlug(slug)
+                .filter(Article::isPublished)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        String etag = null;
+        if (article.getUpdatedAt() != null) {
+            Instant updatedAt = article.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+            etag = "W/\"" + etagVersion + "-api-a" + article.getId() + "-"
+                    + Long.toHexString(updatedAt.getEpochSecond()) + "." + Integer.toHexString(updatedAt.getNano()) + "\"";
+            if (webRequest.checkNotModified(etag, updatedAt.toEpochMilli())) {
+                return null;
+            }
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(CACHE_CONTROL);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(ArticleResource.from(article));
+    }
+
+    private ArticleCursor parseCursor(String token) {
+        try {
+            return ArticleCursor.parse(token);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+}
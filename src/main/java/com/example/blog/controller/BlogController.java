@@ -1,35 +1,124 @@
 package com.example.blog.controller;
 
+import com.example.blog.cache.RenderedPageCache;
+import com.example.blog.dto.ArticleCursor;
+import com.example.blog.dto.ArticleFeedVersion;
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
 import com.example.blog.model.Article;
 import com.example.blog.service.ArticleService;
+import com.example.blog.view.CachingView;
+import com.example.blog.view.ContentEncoding;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 @Controller
 public class BlogController {
 
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePublic().getHeaderValue();
+
     private final ArticleService articleService;
+    private final String etagVersion;
 
-    public BlogController(ArticleService articleService) {
+    public BlogController(ArticleService articleService,
+                          @Value("${blog.http.etag-version:1}") String etagVersion) {
         this.articleService = articleService;
+        this.etagVersion = etagVersion;
     }
 
     @GetMapping("/")
-    public String index(Model model) {
-        model.addAttribute("articles", articleService.findPublishedArticles());
+    public String index(@RequestParam(required = false) String older,
+                        @RequestParam(required = false) String newer,
+                        WebRequest webRequest,
+                        HttpServletResponse response,
+                        Model model) {
+        ArticleCursor olderCursor = parseCursor(older);
+        ArticleCursor newerCursor = parseCursor(newer);
+        setCacheHeaders(response);
+        ArticleFeedVersion version = articleService.findPublishedFeedVersion();
+        String etag = null;
+        if (version != null) {
+            etag = etag("i" + version.getPublishedCount(), version.getLastUpdatedAt());
+            if (checkNotModified(webRequest, etag, version.getLastUpdatedAt())) {
+                return null;
+            }
+        }
+        ArticlePage<ArticleSummary> page = articleService.findPublishedPage(olderCursor, newerCursor);
+        model.addAttribute("articles", page.getArticles());
+        model.addAttribute("page", page);
+        if (etag != null && olderCursor == null && newerCursor == null) {
+            model.addAttribute(CachingView.CACHE_KEY_ATTRIBUTE, RenderedPageCache.indexKey());
+            model.addAttribute(CachingView.CACHE_VERSION_ATTRIBUTE, etag);
+        }
         return "blog/index";
     }
 
     @GetMapping("/posts/{slug}")
-    public String show(@PathVariable String slug, Model model) {
+    public String show(@PathVariable String slug,
+                       WebRequest webRequest,
+                       HttpServletResponse response,
+                       Model model) {
         Article article = articleService.findBySlug(slug)
                 .filter(Article::isPublished)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        setCacheHeaders(response);
+        if (article.getUpdatedAt() != null) {
+            String etag = etag("a" + article.getId(), article.getUpdatedAt());
+            if (checkNotModified(webRequest, etag, article.getUpdatedAt())) {
+                return null;
+            }
+        }
         model.addAttribute("article", article);
+        model.addAttribute(CachingView.CACHE_KEY_ATTRIBUTE, RenderedPageCache.articleKey(slug));
+        model.addAttribute(CachingView.CACHE_VERSION_ATTRIBUTE, String.valueOf(article.getUpdatedAt()));
         return "blog/article";
     }
+
+    private void setCacheHeaders(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        ContentEncoding.addVaryAcceptEncoding(response);
+    }
+
+    private ArticleCursor parseCursor(String token) {
+        try {
+            return ArticleCursor.parse(token);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+        }
+    }
+
+    private String etag(String resource, LocalDateTime updatedAt) {
+        String timestamp = "0";
+        if (updatedAt != null) {
+            Instant instant = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+            timestamp = Long.toHexString(instant.getEpochSecond()) + "." + Integer.toHexString(instant.getNano());
+        }
+        // gzip と非圧縮の両方で同じ値を返すため弱い ETag にする
+        return "W/\"" + etagVersion + "-" + resource + "-" + timestamp + "\"";
+    }
+
+    private boolean checkNotModified(WebRequest webRequest, String etag, LocalDateTime lastModified) {
+        if (lastModified == null) {
+            return webRequest.checkNotModified(etag);
+        }
+        return webRequest.checkNotModified(etag, toEpochMilli(lastModified));
+    }
+
+    private long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 }
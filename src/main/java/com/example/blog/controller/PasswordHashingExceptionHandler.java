@@ -0,0 +1,26 @@
+package com.example.blog.controller;
+
+import com.example.blog.config.PasswordHashingRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * アカウントの作成・更新でパスワードのハッシュを受け付けられなかったときに 503 と Retry-After を返す。
+ */
+@ControllerAdvice
+public class PasswordHashingExceptionHandler {
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<String> handleRejected(PasswordHashingRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(ex.getMessage() + "。しばらくしてから再度お試しください。");
+    }
+}
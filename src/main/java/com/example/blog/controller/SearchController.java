@@ -0,0 +1,25 @@
+package com.example.blog.controller;
+
+import com.example.blog.service.ArticleSearchService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Controller
+public class SearchController {
+
+    private final ArticleSearchService articleSearchService;
+
+    public SearchController(ArticleSearchService articleSearchService) {
+        this.articleSearchService = articleSearchService;
+    }
+
+    @GetMapping("/search")
+    public String search(@RequestParam(name = "q", required = false) String query, Model model) {
+        String trimmed = query == null ? "" : query.strip();
+        model.addAttribute("query", trimmed);
+        model.addAttribute("results", articleSearchService.search(trimmed));
+        return "blog/search";
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.blog.data;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * コマンドラインからの一括取り込み。{@code blog.import.file} のファイルを取り込んだらアプリケーションを終了する。
+ * 拡張子が .csv なら CSV、それ以外は NDJSON として読む。
+ */
+@Component
+@ConditionalOnProperty("blog.import.file")
+public class ArticleImportRunner implements CommandLineRunner {
+
+    private final ArticleImporter articleImporter;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+
+    public ArticleImportRunner(ArticleImporter articleImporter,
+                               ConfigurableApplicationContext context,
+                               @Value("${blog.import.file}") String file) {
+        this.articleImporter = articleImporter;
+        this.context = context;
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            articleImporter.importArticles(in, ImportFormat.fromFilename(file.getFileName().toString()));
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.blog.data;
+
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.service.ArticleContentRenderer;
+import com.example.blog.service.ArticlesImportedEvent;
+import com.example.blog.service.SlugAllocator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NDJSON / CSV から記事を一括で取り込む。
+ * 記事の ID は IDENTITY 採番で Hibernate の insert はバッチ化されないため、永続化コンテキストを通さずに
+ * JDBC のバッチ insert で書き込む。スラッグはバッチ単位でまとめて割り当て、バッチごとにコミットする。
+ * 割り当てたスラッグが同時に保存された記事と重複した場合は、そのバッチを割り当てからやり直す。
+ */
+@Component
+public class ArticleImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleImporter.class);
+
+    static final String INSERT_SQL = "insert into articles (title, slug, summary, content, rendered_html,"
+            + " published, published_at, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_SUMMARY_LENGTH = 500;
+    static final int MAX_SLUG_ATTEMPTS = 3;
+
+    private final ArticleRepository articleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SlugAllocator slugAllocator;
+    private final ArticleContentRenderer contentRenderer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+
+    public ArticleImporter(ArticleRepository articleRepository,
+                           JdbcTemplate jdbcTemplate,
+                           SlugAllocator slugAllocator,
+                           ArticleContentRenderer contentRenderer,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           @Value("${blog.import.batch-size:1000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.articleRepository = articleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.slugAllocator = slugAllocator;
+        this.contentRenderer = contentRenderer;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ndjsonReader = objectMapper.readerFor(ArticleImportRecord.class);
+        CsvMapper csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
+        this.csvReader = csvMapper.readerFor(ArticleImportRecord.class).with(CsvSchema.emptySchema().withHeader());
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * {@code in} の記事をすべて取り込む。必須項目のない行は読み飛ばす。
+     * 途中で読み込めない行があった場合は、それまでにコミットしたバッチを残したまま例外を投げる。
+     */
+    public ImportResult importArticles(InputStream in, ImportFormat format) throws IOException {
+        long startedAt = System.nanoTime();
+        int imported = 0;
+        int skipped = 0;
+        int recordNumber = 0;
+        List<ArticleImportRecord> batch = new ArrayList<>(batchSize);
+        ObjectReader reader = format == ImportFormat.CSV ? csvReader : ndjsonReader;
+        try (MappingIterator<ArticleImportRecord> records = reader.readValues(in)) {
+            while (records.hasNextValue()) {
+                ArticleImportRecord record = records.nextValue();
+                recordNumber++;
+                String problem = validate(record);
+                if (problem != null) {
+                    skipped++;
+                    log.warn("取り込みファイルの {} 件目を読み飛ばしました: {}", recordNumber, problem);
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    imported += writeBatch(batch);
+                    batch.clear();
+                    log.info("記事を取り込んでいます: {} 件 ({} 件/秒)", imported, rate(imported, startedAt));
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(String.format(
+                    "取り込みファイルの %d 件目を読み込めません (%d 件は取り込み済みです): %s",
+                    recordNumber + 1, imported, ex.getOriginalMessage()), ex);
+        }
+        if (!batch.isEmpty()) {
+            imported += writeBatch(batch);
+        }
+        log.info("記事を取り込みました (取り込み {} 件, スキップ {} 件, {} 件/秒)", imported, skipped, rate(imported, startedAt));
+        return new ImportResult(imported, skipped);
+    }
+
+    private int writeBatch(List<ArticleImportRecord> batch) {
+        List<String> bases = new ArrayList<>(batch.size());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (ArticleImportRecord record : batch) {
+            String slugCandidate = StringUtils.hasText(record.getSlug()) ? record.getSlug() : record.getTitle();
+            bases.add(SlugAllocator.normalize(slugCandidate));
+            LocalDateTime createdAt = record.getCreatedAt() != null ? record.getCreatedAt() : now;
+            LocalDateTime updatedAt = record.getUpdatedAt() != null ? record.getUpdatedAt() : createdAt;
+            LocalDateTime publishedAt = null;
+            if (record.isPublished()) {
+                publishedAt = record.getPublishedAt() != null ? record.getPublishedAt() : createdAt;
+            }
+            rows.add(new Object[]{record.getTitle(), null, record.getSummary(), record.getContent(),
+                    contentRenderer.render(record.getContent()), record.isPublished(), publishedAt, createdAt, updatedAt});
+        }
+        for (int attempts = 1; ; attempts++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertBatch(bases, rows));
+                return rows.size();
+            } catch (DataIntegrityViolationException ex) {
+                if (attempts >= MAX_SLUG_ATTEMPTS || !SlugAllocator.isConflict(ex)) {
+                    throw ex;
+                }
+                log.info("同時に保存された記事とスラッグが重複したため、バッチを再試行します ({} 回目)", attempts);
+            }
+        }
+    }
+
+    private void insertBatch(List<String> bases, List<Object[]> rows) {
+        Long maxId = articleRepository.findMaxId();
+        List<String> slugs = slugAllocator.allocateAll(bases);
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i)[1] = slugs.get(i);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        eventPublisher.publishEvent(new ArticlesImportedEvent(maxId == null ? 0L : maxId, rows.size()));
+    }
+
+    private static String validate(ArticleImportRecord record) {
+        if (!StringUtils.hasText(record.getTitle())) {
+            return "タイトルがありません";
+        }
+        if (record.getTitle().length() > MAX_TITLE_LENGTH) {
+            return "タイトルが " + MAX_TITLE_LENGTH + " 文字を超えています";
+        }
+        if (!StringUtils.hasText(record.getContent())) {
+            return "本文がありません";
+        }
+        if (record.getSummary() != null && record.getSummary().length() > MAX_SUMMARY_LENGTH) {
+            return "サマリーが " + MAX_SUMMARY_LENGTH + " 文字を超えています";
+        }
+        return null;
+    }
+
+    private static long rate(int imported, long startedAt) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startedAt);
+        return imported * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.blog.data;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+
+    NDJSON,
+    CSV;
+
+    public static ImportFormat fromFilename(String filename) {
+        if (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
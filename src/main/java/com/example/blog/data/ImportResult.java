@@ -0,0 +1,20 @@
+package com.example.blog.data;
+
+public class ImportResult {
+
+    private final int imported;
+    private final int skipped;
+
+    public ImportResult(int imported, int skipped) {
+        this.imported = imported;
+        this.skipped = skipped;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.blog.data;
+
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.service.ArticleContentRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Component
+public class RenderedHtmlBackfill implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RenderedHtmlBackfill.class);
+
+    private final ArticleRepository articleRepository;
+    private final ArticleContentRenderer contentRenderer;
+    private final TransactionTemplate transactionTemplate;
+
+    public RenderedHtmlBackfill(ArticleRepository articleRepository,
+                                ArticleContentRenderer contentRenderer,
+                                PlatformTransactionManager transactionManager) {
+        this.articleRepository = articleRepository;
+        this.contentRenderer = contentRenderer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+        int total = 0;
+        int rendered;
+        do {
+            Integer batch = transactionTemplate.execute(status -> renderBatch());
+            rendered = batch == null ? 0 : batch;
+            total += rendered;
+        } while (rendered > 0);
+        if (total > 0) {
+            log.info("記事本文の HTML を {} 件生成しました", total);
+        }
+    }
+
+    private int renderBatch() {
+        List<Article> articles = articleRepository.findTop100ByRenderedHtmlIsNullOrderByIdAsc();
+        for (Article article : articles) {
+            articleRepository.updateRenderedHtml(article.getId(), contentRenderer.render(article.getContent()));
+        }
+        return articles.size();
+    }
+}
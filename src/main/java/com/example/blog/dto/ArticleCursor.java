@@ -0,0 +1,66 @@
+package com.example.blog.dto;
+
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+public final class ArticleCursor {
+
+    private static final char SEPARATOR = '_';
+
+    private final LocalDateTime publishedAt;
+    private final Long id;
+
+    public ArticleCursor(LocalDateTime publishedAt, Long id) {
+        this.publishedAt = Objects.requireNonNull(publishedAt, "publishedAt");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    public static ArticleCursor parse(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        int separator = token.lastIndexOf(SEPARATOR);
+        if (separator <= 0 || separator == token.length() - 1) {
+            throw new IllegalArgumentException("不正なカーソルです: " + token);
+        }
+        try {
+            LocalDateTime publishedAt = LocalDateTime.parse(token.substring(0, separator));
+            Long id = Long.valueOf(token.substring(separator + 1));
+            return new ArticleCursor(publishedAt, id);
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException("不正なカーソルです: " + token, ex);
+        }
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ArticleCursor other)) {
+            return false;
+        }
+        return publishedAt.equals(other.publishedAt) && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(publishedAt, id);
+    }
+
+    @Override
+    public String toString() {
+        return publishedAt.toString() + SEPARATOR + id;
+    }
+}
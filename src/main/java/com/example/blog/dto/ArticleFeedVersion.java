@@ -0,0 +1,22 @@
+package com.example.blog.dto;
+
+import java.time.LocalDateTime;
+
+public class ArticleFeedVersion {
+
+    private final long publishedCount;
+    private final LocalDateTime lastUpdatedAt;
+
+    public ArticleFeedVersion(Long publishedCount, LocalDateTime lastUpdatedAt) {
+        this.publishedCount = publishedCount == null ? 0 : publishedCount;
+        this.lastUpdatedAt = lastUpdatedAt;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+
+    public LocalDateTime getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.blog.dto;
+
+import java.util.List;
+
+/**
+ * 公開 API の記事一覧の 1 ページ分。{@code older} / {@code newer} は次のページを取得するためのカーソル。
+ */
+public class ArticleListResponse {
+
+    private final List<ArticleSummary> articles;
+    private final String older;
+    private final String newer;
+
+    public ArticleListResponse(List<ArticleSummary> articles, String older, String newer) {
+        this.articles = List.copyOf(articles);
+        this.older = older;
+        this.newer = newer;
+    }
+
+    public static ArticleListResponse from(ArticlePage<ArticleSummary> page) {
+        return new ArticleListResponse(page.getArticles(),
+                page.hasOlder() ? page.getOlderCursor().toString() : null,
+                page.hasNewer() ? page.getNewerCursor().toString() : null);
+    }
+
+    public List<ArticleSummary> getArticles() {
+        return articles;
+    }
+
+    public String getOlder() {
+        return older;
+    }
+
+    public String getNewer() {
+        return newer;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.blog.dto;
+
+import java.util.List;
+
+public class ArticlePage<T> {
+
+    private final List<T> articles;
+    private final ArticleCursor olderCursor;
+    private final ArticleCursor newerCursor;
+
+    public ArticlePage(List<T> articles, ArticleCursor olderCursor, ArticleCursor newerCursor) {
+        this.articles = List.copyOf(articles);
+        this.olderCursor = olderCursor;
+        this.newerCursor = newerCursor;
+    }
+
+    public List<T> getArticles() {
+        return articles;
+    }
+
+    public ArticleCursor getOlderCursor() {
+        return olderCursor;
+    }
+
+    public ArticleCursor getNewerCursor() {
+        return newerCursor;
+    }
+
+    public boolean hasOlder() {
+        return olderCursor != null;
+    }
+
+    public boolean hasNewer() {
+        return newerCursor != null;
+    }
+}
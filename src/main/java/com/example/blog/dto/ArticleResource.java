@@ -0,0 +1,68 @@
+package com.example.blog.dto;
+
+import com.example.blog.model.Article;
+
+import java.time.LocalDateTime;
+
+/**
+ * 公開 API で返す記事の詳細。本文は保存時に変換済みの HTML を返す。
+ */
+public class ArticleResource {
+
+    private final Long id;
+    private final String title;
+    private final String slug;
+    private final String summary;
+    private final String contentHtml;
+    private final LocalDateTime publishedAt;
+    private final LocalDateTime updatedAt;
+
+    public ArticleResource(Long id,
+                           String title,
+                           String slug,
+                           String summary,
+                           String contentHtml,
+                           LocalDateTime publishedAt,
+                           LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.slug = slug;
+        this.summary = summary;
+        this.contentHtml = contentHtml;
+        this.publishedAt = publishedAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static ArticleResource from(Article article) {
+        return new ArticleResource(article.getId(), article.getTitle(), article.getSlug(), article.getSummary(),
+                article.getRenderedHtml(), article.getPublishedAt(), article.getUpdatedAt());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public String getContentHtml() {
+        return contentHtml;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
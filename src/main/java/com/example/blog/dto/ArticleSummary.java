@@ -0,0 +1,58 @@
+package com.example.blog.dto;
+
+import java.time.LocalDateTime;
+
+public class ArticleSummary {
+
+    private final Long id;
+    private final String title;
+    private final String slug;
+    private final String summary;
+    private final LocalDateTime publishedAt;
+    private final LocalDateTime updatedAt;
+    private final boolean published;
+
+    public ArticleSummary(Long id,
+                          String title,
+                          String slug,
+                          String summary,
+                          LocalDateTime publishedAt,
+                          LocalDateTime updatedAt,
+                          boolean published) {
+        this.id = id;
+        this.title = title;
+        this.slug = slug;
+        this.summary = summary;
+        this.publishedAt = publishedAt;
+        this.updatedAt = updatedAt;
+        this.published = published;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSlug() {
+        return slug;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean isPublished() {
+        return published;
+    }
+}
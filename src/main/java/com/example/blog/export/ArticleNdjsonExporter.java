@@ -0,0 +1,108 @@
+package com.example.blog.export;
+
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 全記事 (非公開を含む) を 1 行 1 件の JSON (NDJSON) として書き出す。
+ * 記事はカーソルで 1 件ずつ読み、書き出したものから永続化コンテキストを切り離すので、
+ * 件数が増えてもメモリ使用量は一定に保たれる。
+ */
+@Component
+public class ArticleNdjsonExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleNdjsonExporter.class);
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private final ArticleRepository articleRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public ArticleNdjsonExporter(ArticleRepository articleRepository,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.articleRepository = articleRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * 全記事を書き出し、件数を返す。{@code out} は閉じない。
+     */
+    public long writeTo(OutputStream out) throws IOException {
+        try {
+            Long count = transactionTemplate.execute(status -> {
+                // カーソルで読んだ記事はクエリのキャッシュモードを無視して二次キャッシュに入るため、セッション側で止める
+                Session session = entityManager.unwrap(Session.class);
+                CacheMode previousCacheMode = session.getCacheMode();
+                session.setCacheMode(CacheMode.IGNORE);
+                try (Stream<Article> articles = articleRepository.streamAllOrderById();
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    long written = 0;
+                    Iterator<Article> iterator = articles.iterator();
+                    while (iterator.hasNext()) {
+                        Article article = iterator.next();
+                        writeArticle(generator, article);
+                        entityManager.detach(article);
+                        if (++written % FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    }
+                    return written;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                } finally {
+                    session.setCacheMode(previousCacheMode);
+                }
+            });
+            log.info("記事を NDJSON で書き出しました ({} 件)", count);
+            return count == null ? 0 : count;
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private void writeArticle(JsonGenerator generator, Article article) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", article.getId());
+        generator.writeStringField("title", article.getTitle());
+        generator.writeStringField("slug", article.getSlug());
+        generator.writeStringField("summary", article.getSummary());
+        generator.writeStringField("content", article.getContent());
+        generator.writeBooleanField("published", article.isPublished());
+        generator.writeStringField("publishedAt", format(article.getPublishedAt()));
+        generator.writeStringField("createdAt", format(article.getCreatedAt()));
+        generator.writeStringField("updatedAt", format(article.getUpdatedAt()));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.blog.export;
+
+public class ExportResult {
+
+    private final int written;
+    private final int skipped;
+    private final int deleted;
+
+    public ExportResult(int written, int skipped, int deleted) {
+        this.written = written;
+        this.skipped = skipped;
+        this.deleted = deleted;
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+}
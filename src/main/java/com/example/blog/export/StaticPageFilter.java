@@ -0,0 +1,103 @@
+package com.example.blog.export;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import com.example.blog.view.ContentEncoding;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * 匿名ユーザーからの公開ページへの GET に、書き出し済みの HTML ファイルがあればそれを返す。
+ * Tomcat が sendfile に対応していればファイル転送をコネクタに任せ、アプリケーションスレッドでは
+ * 本文を読み書きしない。gzip を受け付けるクライアントには圧縮版 ({@code .gz}) があればそちらを返す。
+ */
+public class StaticPageFilter extends OncePerRequestFilter {
+
+    static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final StaticSiteExporter exporter;
+
+    public StaticPageFilter(StaticSiteExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method))
+                || request.getQueryString() != null
+                || request.getUserPrincipal() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Path file = exporter.findExportedPage(path);
+        BasicFileAttributes attributes = file == null ? null : readAttributes(file);
+        if (attributes == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        ContentEncoding.addVaryAcceptEncoding(response);
+        if (new ServletWebRequest(request, response).checkNotModified(attributes.lastModifiedTime().toMillis())) {
+            return;
+        }
+        if (ContentEncoding.acceptsGzip(request)) {
+            Path gzipFile = StaticSiteExporter.gzipVariant(file);
+            BasicFileAttributes gzipAttributes = readAttributes(gzipFile);
+            if (gzipAttributes != null) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, ContentEncoding.GZIP);
+                file = gzipFile;
+                attributes = gzipAttributes;
+            }
+        }
+        long size = attributes.size();
+        response.setContentType("text/html;charset=UTF-8");
+        response.setContentLengthLong(size);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, size);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel output = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, output);
+            }
+        }
+    }
+
+    private BasicFileAttributes readAttributes(Path file) throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+}
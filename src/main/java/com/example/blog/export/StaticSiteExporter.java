@@ -0,0 +1,354 @@
+package com.example.blog.export;
+
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.service.ArticleChangedEvent;
+import com.example.blog.service.ArticlesImportedEvent;
+import com.example.blog.service.ArticleService;
+import com.example.blog.view.CapturingResponseWrapper;
+import com.example.blog.view.ContentEncoding;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 公開記事と一覧ページを既存のテンプレートで描画し、HTML ファイルとして書き出す。
+ * 書き出したファイルのバージョン (記事の更新日時、一覧ページの掲載内容) をマニフェストに記録し、
+ * 2 回目以降は変わったファイルだけを描画し直す。圧縮して小さくなるページは gzip 版 ({@code .html.gz}) も並べて書き出す。
+ */
+@Component
+public class StaticSiteExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticSiteExporter.class);
+
+    static final String MANIFEST_FILE = ".export-manifest.properties";
+    static final String INDEX_FILE = "index.html";
+    static final String GZIP_SUFFIX = ".gz";
+
+    private static final Pattern SLUG_PATH = Pattern.compile("/posts/([a-z0-9-]+)");
+    private static final Pattern PAGE_PATH = Pattern.compile("/page/([1-9][0-9]*)");
+    private static final int BATCH_SIZE = 100;
+
+    private final ArticleRepository articleRepository;
+    private final ArticleService articleService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ViewResolver viewResolver;
+    private final Path outputDir;
+    private final ReentrantLock exportLock = new ReentrantLock();
+    private final AtomicLong changeCounter = new AtomicLong();
+    private final Map<String, Long> changedSlugs = new ConcurrentHashMap<>();
+
+    public StaticSiteExporter(ArticleRepository articleRepository,
+                              ArticleService articleService,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("thymeleafViewResolver") ViewResolver viewResolver,
+                              @Value("${blog.export.dir:export}") String outputDir) {
+        this.articleRepository = articleRepository;
+        this.articleService = articleService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.viewResolver = viewResolver;
+        this.outputDir = Path.of(outputDir).toAbsolutePath().normalize();
+    }
+
+    public ExportResult export(HttpServletRequest request, HttpServletResponse response) throws Exception {
+        if (!exportLock.tryLock()) {
+            throw new IllegalStateException("静的ファイルの書き出しを実行中です");
+        }
+        try {
+            changedSlugs.clear();
+            long startedAt = changeCounter.get();
+            Files.createDirectories(outputDir.resolve("posts"));
+            Files.createDirectories(outputDir.resolve("page"));
+            Properties previous = loadManifest();
+            Properties current = new Properties();
+            Renderer renderer = new Renderer(request, response, previous, current);
+
+            exportArticles(renderer);
+            exportIndexPages(renderer);
+
+            int deleted = 0;
+            for (String path : previous.stringPropertyNames()) {
+                if (!current.containsKey(path) && deletePage(outputDir.resolve(path))) {
+                    deleted++;
+                }
+            }
+            discardChangedDuringExport(startedAt, current);
+            saveManifest(current);
+            log.info("静的ファイルを書き出しました (更新 {} 件, スキップ {} 件, 削除 {} 件): {}",
+                    renderer.written, renderer.skipped, deleted, outputDir);
+            return new ExportResult(renderer.written, renderer.skipped, deleted);
+        } finally {
+            exportLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        long change = changeCounter.incrementAndGet();
+        for (String slug : event.getSlugs()) {
+            changedSlugs.put(slug, change);
+            deletePageQuietly(outputDir.resolve(articlePath(slug)));
+        }
+        deleteIndexPages();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        changeCounter.incrementAndGet();
+        deleteIndexPages();
+    }
+
+    public Path findExportedPage(String requestPath) {
+        String relative = null;
+        if ("/".equals(requestPath)) {
+            relative = INDEX_FILE;
+        } else {
+            Matcher slug = SLUG_PATH.matcher(requestPath);
+            Matcher page = PAGE_PATH.matcher(requestPath);
+            if (slug.matches()) {
+                relative = articlePath(slug.group(1));
+            } else if (page.matches()) {
+                relative = pagePath(Integer.parseInt(page.group(1)));
+            }
+        }
+        if (relative == null) {
+            return null;
+        }
+        Path file = outputDir.resolve(relative);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    Path getOutputDir() {
+        return outputDir;
+    }
+
+    // 書き出しは管理画面のリクエストスレッドで動き、open-in-view の永続化コンテキストは書き出しが終わるまで閉じない。
+    // 本文を含む記事がそこに溜まらないよう、バッチごとに読み取り専用のトランザクションで読み、描画したものから切り離す
+    private void exportArticles(Renderer renderer) throws Exception {
+        View view = resolveView("blog/article", renderer.request);
+        long lastId = 0L;
+        List<Article> batch;
+        do {
+            long after = lastId;
+            batch = transactionTemplate.execute(status -> articleRepository
+                    .findByPublishedTrueAndIdGreaterThanOrderByIdAsc(after, PageRequest.ofSize(BATCH_SIZE)));
+            if (batch == null) {
+                return;
+            }
+            for (Article article : batch) {
+                lastId = article.getId();
+                try {
+                    renderer.render(view, articlePath(article.getSlug()), String.valueOf(article.getUpdatedAt()),
+                            Map.of("article", article));
+                } finally {
+                    entityManager.detach(article);
+                }
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+
+    private void exportIndexPages(Renderer renderer) throws Exception {
+        View view = resolveView("blog/index", renderer.request);
+        ArticlePage<ArticleSummary> page = articleService.findPublishedPage(null, null);
+        int number = 1;
+        while (true) {
+            Map<String, Object> model = new HashMap<>();
+            model.put("articles", page.getArticles());
+            model.put("page", page);
+            if (number > 1) {
+                model.put("newerPageUrl", pageUrl(number - 1));
+            }
+            if (page.hasOlder()) {
+                model.put("olderPageUrl", pageUrl(number + 1));
+            }
+            renderer.render(view, pagePath(number), pageVersion(page), model);
+            if (!page.hasOlder()) {
+                break;
+            }
+            page = articleService.findPublishedPage(page.getOlderCursor(), null);
+            number++;
+        }
+    }
+
+    // 書き出し中にコミットされた変更は、古い内容で書いた可能性があるので次回に回す
+    private void discardChangedDuringExport(long startedAt, Properties current) {
+        if (changeCounter.get() == startedAt) {
+            return;
+        }
+        changedSlugs.forEach((slug, change) -> {
+            if (change > startedAt) {
+                current.remove(articlePath(slug));
+                deletePageQuietly(outputDir.resolve(articlePath(slug)));
+            }
+        });
+        current.stringPropertyNames().stream()
+                .filter(path -> !path.startsWith("posts/"))
+                .forEach(current::remove);
+        deleteIndexPages();
+    }
+
+    private View resolveView(String name, HttpServletRequest request) throws Exception {
+        View view = viewResolver.resolveViewName(name, request.getLocale());
+        if (view == null) {
+            throw new IllegalStateException("テンプレートが見つかりません: " + name);
+        }
+        return view;
+    }
+
+    private void deleteIndexPages() {
+        deletePageQuietly(outputDir.resolve(INDEX_FILE));
+        Path pageDir = outputDir.resolve("page");
+        if (!Files.isDirectory(pageDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> pages = Files.newDirectoryStream(pageDir, "*.{html,html.gz}")) {
+            for (Path page : pages) {
+                deleteQuietly(page);
+            }
+        } catch (IOException ex) {
+            log.warn("一覧ページのファイルを削除できませんでした: {}", pageDir, ex);
+        }
+    }
+
+    private boolean deletePage(Path path) throws IOException {
+        Files.deleteIfExists(gzipVariant(path));
+        return Files.deleteIfExists(path);
+    }
+
+    private void deletePageQuietly(Path path) {
+        deleteQuietly(gzipVariant(path));
+        deleteQuietly(path);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("書き出し済みファイルを削除できませんでした: {}", path, ex);
+        }
+    }
+
+    private Properties loadManifest() throws IOException {
+        Properties manifest = new Properties();
+        Path file = outputDir.resolve(MANIFEST_FILE);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            }
+        }
+        return manifest;
+    }
+
+    private void saveManifest(Properties manifest) throws IOException {
+        Path temporary = outputDir.resolve(MANIFEST_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            manifest.store(writer, null);
+        }
+        Files.move(temporary, outputDir.resolve(MANIFEST_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static Path gzipVariant(Path page) {
+        return page.resolveSibling(page.getFileName() + GZIP_SUFFIX);
+    }
+
+    private static void writeAtomically(Path file, byte[] content) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, content);
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String articlePath(String slug) {
+        return "posts/" + slug + ".html";
+    }
+
+    private static String pagePath(int number) {
+        return number == 1 ? INDEX_FILE : "page/" + number + ".html";
+    }
+
+    private static String pageUrl(int number) {
+        return number == 1 ? "/" : "/page/" + number;
+    }
+
+    private static String pageVersion(ArticlePage<ArticleSummary> page) {
+        StringBuilder version = new StringBuilder();
+        for (ArticleSummary article : page.getArticles()) {
+            version.append(article.getId()).append('@').append(article.getUpdatedAt()).append(',');
+        }
+        return version.append(page.hasOlder()).toString();
+    }
+
+    private final class Renderer {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final Properties previous;
+        private final Properties current;
+        private int written;
+        private int skipped;
+
+        private Renderer(HttpServletRequest request, HttpServletResponse response,
+                         Properties previous, Properties current) {
+            this.request = request;
+            this.response = response;
+            this.previous = previous;
+            this.current = current;
+        }
+
+        private void render(View view, String path, String version, Map<String, ?> model) throws Exception {
+            current.setProperty(path, version);
+            Path file = outputDir.resolve(path);
+            if (version.equals(previous.getProperty(path)) && Files.exists(file)) {
+                skipped++;
+                return;
+            }
+            CapturingResponseWrapper capture = new CapturingResponseWrapper(response);
+            view.render(model, request, capture);
+            byte[] body = capture.toByteArray();
+            byte[] gzipBody = ContentEncoding.gzip(body);
+            // 圧縮版を先に差し替え、本体より古い圧縮版が残らないようにする
+            if (gzipBody != null) {
+                writeAtomically(gzipVariant(file), gzipBody);
+            } else {
+                Files.deleteIfExists(gzipVariant(file));
+            }
+            writeAtomically(file, body);
+            written++;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.blog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(ArticleFetchEvent.NAME)
+@Label("Article Fetch")
+@Category({"Blog", "Database"})
+@Description("記事の取得。キャッシュから返した場合も含む")
+@Enabled(false)
+@StackTrace(false)
+public class ArticleFetchEvent extends Event {
+
+    public static final String NAME = "com.example.blog.ArticleFetch";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Slug")
+    public String slug;
+
+    @Label("Row Count")
+    public int rowCount;
+
+    @Label("Cached")
+    public boolean cached;
+}
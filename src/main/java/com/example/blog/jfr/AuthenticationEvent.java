@@ -0,0 +1,32 @@
+package com.example.blog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(AuthenticationEvent.NAME)
+@Label("Authentication")
+@Category({"Blog", "Security"})
+@Description("ログイン処理の各段階 (lookup: ユーザーの読み込み, verify: パスワードの照合)")
+@Enabled(false)
+@StackTrace(false)
+public class AuthenticationEvent extends Event {
+
+    public static final String NAME = "com.example.blog.Authentication";
+
+    public static final String LOOKUP = "lookup";
+    public static final String VERIFY = "verify";
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Username")
+    public String username;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,26 @@
+package com.example.blog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(SlugAllocationEvent.NAME)
+@Label("Slug Allocation")
+@Category({"Blog", "Database"})
+@Description("記事の保存。スラッグの一意制約違反による再試行を含む")
+@Enabled(false)
+@StackTrace(false)
+public class SlugAllocationEvent extends Event {
+
+    public static final String NAME = "com.example.blog.SlugAllocation";
+
+    @Label("Slug")
+    public String slug;
+
+    @Label("Attempts")
+    public int attempts;
+}
@@ -0,0 +1,28 @@
+package com.example.blog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(TemplateRenderEvent.NAME)
+@Label("Template Render")
+@Category({"Blog", "View"})
+@Description("Thymeleaf テンプレートの描画")
+@Enabled(false)
+@StackTrace(false)
+public class TemplateRenderEvent extends Event {
+
+    public static final String NAME = "com.example.blog.TemplateRender";
+
+    @Label("View Name")
+    public String viewName;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -1,21 +1,36 @@
 package com.example.blog.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "articles")
+@Table(name = "articles", indexes = {
+        @Index(name = "idx_articles_published_feed", columnList = "published, published_at, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = Article.SLUG_CONSTRAINT, columnNames = "slug")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Article.CACHE_REGION)
 public class Article {
 
+    public static final String SLUG_CONSTRAINT = "uk_articles_slug";
+    public static final String CACHE_REGION = "blog.article";
+    public static final String QUERY_CACHE_REGION = "blog.article-queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -23,7 +38,7 @@ public class Article {
     @Column(nullable = false)
     private String title;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String slug;
 
     @Column(length = 500)
@@ -33,6 +48,9 @@ public class Article {
     @Column(nullable = false)
     private String content;
 
+    @Lob
+    private String renderedHtml;
+
     private boolean published;
 
     private LocalDateTime publishedAt;
@@ -99,6 +117,14 @@ public class Article {
         this.content = content;
     }
 
+    public String getRenderedHtml() {
+        return renderedHtml;
+    }
+
+    public void setRenderedHtml(String renderedHtml) {
+        this.renderedHtml = renderedHtml;
+    }
+
     public boolean isPublished() {
         return published;
     }
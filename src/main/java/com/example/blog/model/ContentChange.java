@@ -0,0 +1,119 @@
+package com.example.blog.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 記事とアカウントの変更ログ。変更と同じトランザクションで追記し、他のノードはこれを ID 順に読んでキャッシュを無効化する。
+ */
+@Entity
+@Table(name = "content_changes", indexes = {
+        @Index(name = "idx_content_changes_created_at", columnList = "created_at")
+})
+public class ContentChange {
+
+    private static final String KEY_SEPARATOR = "\n";
+
+    public enum Kind {
+        ARTICLE,
+        ARTICLES_IMPORTED,
+        USER_ACCOUNT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Kind kind;
+
+    /**
+     * 記事・アカウントの ID。取り込みでは取り込み前の最大の記事 ID。
+     */
+    @Column(nullable = false)
+    private Long entityId;
+
+    /**
+     * 無効化するキャッシュのキー (slug やユーザー名) を改行区切りで保持する。取り込みでは件数。
+     */
+    @Column(length = 1000)
+    private String entityKeys;
+
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void prePersist() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Set<String> getKeys() {
+        if (!StringUtils.hasLength(entityKeys)) {
+            return Set.of();
+        }
+        return Arrays.stream(entityKeys.split(KEY_SEPARATOR)).collect(Collectors.toSet());
+    }
+
+    public void setKeys(Collection<String> keys) {
+        this.entityKeys = keys.isEmpty() ? null : String.join(KEY_SEPARATOR, keys);
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
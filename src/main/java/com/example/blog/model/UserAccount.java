@@ -1,5 +1,6 @@
 package com.example.blog.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -8,11 +9,18 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "user_accounts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserAccount.CACHE_REGION)
 public class UserAccount {
 
+    public static final String CACHE_REGION = "blog.user-account";
+    public static final String QUERY_CACHE_REGION = "blog.user-account-queries";
+
     public enum Role {
         ADMIN,
         EDITOR
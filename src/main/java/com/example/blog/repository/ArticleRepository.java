@@ -1,18 +1,106 @@
 package com.example.blog.repository;
 
+import com.example.blog.dto.ArticleFeedVersion;
+import com.example.blog.dto.ArticleSummary;
 import com.example.blog.model.Article;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ArticleRepository extends JpaRepository<Article, Long> {
 
+    int EXPORT_FETCH_SIZE = 500;
+
+    String SUMMARY_SELECT = "select new com.example.blog.dto.ArticleSummary("
+            + "a.id, a.title, a.slug, a.summary, a.publishedAt, a.updatedAt, a.published) from Article a";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Article.QUERY_CACHE_REGION)
+    })
     Optional<Article> findBySlug(String slug);
 
     boolean existsBySlug(String slug);
 
+    // 先頭の like で slug の一意インデックスを範囲検索させる (OR だけではインデックス全体を走査してしまう)
+    @Query("select a.slug from Article a where a.slug like concat(:base, '%')"
+            + " and (a.slug = :base or a.slug like :prefix)")
+    List<String> findSlugFamily(@Param("base") String base, @Param("prefix") String prefix);
+
+    @Query("select a.slug from Article a where a.slug in :slugs")
+    List<String> findExistingSlugs(@Param("slugs") Collection<String> slugs);
+
+    @Query("select max(a.id) from Article a")
+    Long findMaxId();
+
     List<Article> findByPublishedTrueOrderByPublishedAtDesc();
 
     List<Article> findAllByOrderByUpdatedAtDesc();
+
+    @Query("select new com.example.blog.dto.ArticleFeedVersion(count(a), max(a.updatedAt))"
+            + " from Article a where a.published = true")
+    ArticleFeedVersion findPublishedFeedVersion();
+
+    @Query(SUMMARY_SELECT + " order by a.updatedAt desc")
+    List<ArticleSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + " where a.published = true"
+            + " order by a.publishedAt desc, a.id desc")
+    List<ArticleSummary> findLatestPublished(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where a.published = true"
+            + " and (a.publishedAt < :publishedAt or (a.publishedAt = :publishedAt and a.id < :id))"
+            + " order by a.publishedAt desc, a.id desc")
+    List<ArticleSummary> findPublishedOlderThan(@Param("publishedAt") LocalDateTime publishedAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where a.published = true"
+            + " and (a.publishedAt > :publishedAt or (a.publishedAt = :publishedAt and a.id > :id))"
+            + " order by a.publishedAt asc, a.id asc")
+    List<ArticleSummary> findPublishedNewerThan(@Param("publishedAt") LocalDateTime publishedAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    // 全件を順に読むバッチ (検索インデックスの構築、静的ファイルの書き出し) は二次キャッシュを通さない。
+    // よく読まれる記事が 1 回しか読まれない記事に押し出されないようにする
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Article> findByPublishedTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Article> findByPublishedTrueAndUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+            LocalDateTime updatedAt, Long id, Pageable pageable);
+
+    @Query("select a.id from Article a where a.published = true")
+    List<Long> findPublishedIds();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<Article> findTop100ByRenderedHtmlIsNullOrderByIdAsc();
+
+    /**
+     * 全記事を ID 順に前方向のカーソルで読み出す。呼び出し側はトランザクション内で使い、読み終えたら閉じること。
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select a from Article a order by a.id")
+    Stream<Article> streamAllOrderById();
+
+    @Modifying
+    @Query("update Article a set a.renderedHtml = :renderedHtml where a.id = :id")
+    int updateRenderedHtml(@Param("id") Long id, @Param("renderedHtml") String renderedHtml);
 }
@@ -0,0 +1,29 @@
+package com.example.blog.repository;
+
+import com.example.blog.model.ContentChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ContentChangeRepository extends JpaRepository<ContentChange, Long> {
+
+    @Query("select max(c.id) from ContentChange c")
+    Long findMaxId();
+
+    @Query("select c.id from ContentChange c where c.id > :id")
+    List<Long> findIdsGreaterThan(@Param("id") Long id);
+
+    List<ContentChange> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<ContentChange> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from ContentChange c where c.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,11 +1,18 @@
 package com.example.blog.repository;
 
 import com.example.blog.model.UserAccount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = UserAccount.QUERY_CACHE_REGION)
+    })
     Optional<UserAccount> findByUsername(String username);
 
     boolean existsByUsername(String username);
@@ -0,0 +1,19 @@
+package com.example.blog.search;
+
+final class Bm25 {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private Bm25() {
+    }
+
+    static double idf(int documentCount, int documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    static double score(double idf, int frequency, int length, double averageLength) {
+        double norm = K1 * (1 - B + B * length / averageLength);
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+}
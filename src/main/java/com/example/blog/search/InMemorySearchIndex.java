@@ -0,0 +1,284 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class InMemorySearchIndex implements SearchIndex {
+
+    private static final int MIN_POSTINGS_TO_COMPACT = 10_000;
+
+    private final SearchTokenizer tokenizer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private IndexedDocument[] documents = new IndexedDocument[1024];
+    private int nextSlot;
+    private long totalLength;
+    private long livePostings;
+    private long deadPostings;
+
+    public InMemorySearchIndex(SearchTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    @Override
+    public void index(ArticleSummary article, String content) {
+        IndexedArticle analyzed = IndexedArticle.analyze(tokenizer, article, content);
+        Map<String, Integer> frequencies = analyzed.frequencies();
+        int length = analyzed.length();
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(article.getId());
+            if (frequencies.isEmpty()) {
+                return;
+            }
+            int slot = allocateSlot();
+            Postings[] lists = new Postings[frequencies.size()];
+            int position = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Postings list = postings.computeIfAbsent(entry.getKey(), Postings::new);
+                list.add(slot, entry.getValue());
+                lists[position++] = list;
+            }
+            documents[slot] = new IndexedDocument(article, lists, length);
+            slotsById.put(article.getId(), slot);
+            totalLength += length;
+            livePostings += frequencies.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long articleId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(articleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void retainAll(Collection<Long> articleIds) {
+        Set<Long> retained = new HashSet<>(articleIds);
+        lock.writeLock().lock();
+        try {
+            for (Long articleId : new ArrayList<>(slotsById.keySet())) {
+                if (!retained.contains(articleId)) {
+                    removeLocked(articleId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            slotsById.clear();
+            documents = new IndexedDocument[1024];
+            nextSlot = 0;
+            totalLength = 0;
+            livePostings = 0;
+            deadPostings = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = slotsById.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            double[] scores = new double[nextSlot];
+            int[] touched = new int[16];
+            int touchedCount = 0;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Bm25.idf(documentCount, list.live);
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    IndexedDocument document = documents[slot];
+                    if (document == null) {
+                        continue;
+                    }
+                    if (scores[slot] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = slot;
+                    }
+                    scores[slot] += Bm25.score(idf, list.frequencies[i], document.length, averageLength);
+                }
+            }
+            return topHits(scores, touched, touchedCount, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SearchHit> topHits(double[] scores, int[] touched, int touchedCount, int limit) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1,
+                (left, right) -> compareSlots(scores, left, right));
+        for (int i = 0; i < touchedCount; i++) {
+            heap.offer(touched[i]);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            int slot = heap.poll();
+            hits.add(new SearchHit(documents[slot].article, scores[slot]));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private int compareSlots(double[] scores, int left, int right) {
+        int byScore = Double.compare(scores[left], scores[right]);
+        return byScore != 0 ? byScore : Integer.compare(left, right);
+    }
+
+    private void removeLocked(Long articleId) {
+        Integer slot = slotsById.remove(articleId);
+        if (slot == null) {
+            return;
+        }
+        IndexedDocument document = documents[slot];
+        documents[slot] = null;
+        totalLength -= document.length;
+        for (Postings list : document.postings) {
+            list.live--;
+            livePostings--;
+            deadPostings++;
+            if (list.live == 0) {
+                postings.remove(list.term);
+                deadPostings -= list.size;
+            }
+        }
+        if (deadPostings > MIN_POSTINGS_TO_COMPACT && deadPostings > livePostings) {
+            compact();
+        }
+    }
+
+    private int allocateSlot() {
+        if (nextSlot == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        }
+        return nextSlot++;
+    }
+
+    // 削除済み文書のポスティングを取り除き、スロット番号を詰め直す
+    private void compact() {
+        int[] remap = new int[nextSlot];
+        IndexedDocument[] compacted = new IndexedDocument[Math.max(1024, slotsById.size() * 2)];
+        int live = 0;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            IndexedDocument document = documents[slot];
+            if (document == null) {
+                remap[slot] = -1;
+            } else {
+                remap[slot] = live;
+                compacted[live] = document;
+                slotsById.put(document.article.getId(), live);
+                live++;
+            }
+        }
+        for (Postings list : postings.values()) {
+            list.remap(remap);
+        }
+        documents = compacted;
+        nextSlot = live;
+        deadPostings = 0;
+    }
+
+    private static final class IndexedDocument {
+
+        private final ArticleSummary article;
+        private final Postings[] postings;
+        private final int length;
+
+        private IndexedDocument(ArticleSummary article, Postings[] postings, int length) {
+            this.article = article;
+            this.postings = postings;
+            this.length = length;
+        }
+    }
+
+    private static final class Postings {
+
+        private final String term;
+        private int[] slots = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        private int live;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        private void remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = remap[slots[i]];
+                if (slot >= 0) {
+                    slots[kept] = slot;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class IndexedArticle {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUMMARY_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    private final ArticleSummary summary;
+    private final Map<String, Integer> frequencies;
+    private final int length;
+
+    private IndexedArticle(ArticleSummary summary, Map<String, Integer> frequencies, int length) {
+        this.summary = summary;
+        this.frequencies = frequencies;
+        this.length = length;
+    }
+
+    static IndexedArticle analyze(SearchTokenizer tokenizer, ArticleSummary summary, String content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTokens(tokenizer, frequencies, summary.getTitle(), TITLE_WEIGHT);
+        addTokens(tokenizer, frequencies, summary.getSummary(), SUMMARY_WEIGHT);
+        addTokens(tokenizer, frequencies, content, CONTENT_WEIGHT);
+        int length = 0;
+        for (int frequency : frequencies.values()) {
+            length += frequency;
+        }
+        return new IndexedArticle(summary, frequencies, length);
+    }
+
+    private static void addTokens(SearchTokenizer tokenizer, Map<String, Integer> frequencies,
+                                  String text, int weight) {
+        for (String token : tokenizer.tokenize(text)) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+    }
+
+    ArticleSummary summary() {
+        return summary;
+    }
+
+    Map<String, Integer> frequencies() {
+        return frequencies;
+    }
+
+    int length() {
+        return length;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+
+public class SearchHit {
+
+    private final ArticleSummary article;
+    private final double score;
+
+    public SearchHit(ArticleSummary article, double score) {
+        this.article = article;
+        this.score = score;
+    }
+
+    public ArticleSummary getArticle() {
+        return article;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface SearchIndex extends AutoCloseable {
+
+    void index(ArticleSummary article, String content);
+
+    void remove(Long articleId);
+
+    void retainAll(Collection<Long> articleIds);
+
+    void clear();
+
+    List<SearchHit> search(String query, int limit);
+
+    int size();
+
+    /**
+     * 永続化済みのインデックスが「この日時以前に更新された記事はすべて反映済み」であることを
+     * 保証する日時を返す。永続化しない実装や、構築途中の場合は {@code null}。
+     */
+    default LocalDateTime watermark() {
+        return null;
+    }
+
+    /**
+     * 呼び出し時点までの記事がすべて反映されたことを通知する。以降は追加された記事の更新日時に
+     * 合わせてウォーターマークが進む。
+     */
+    default void resumeWatermark(LocalDateTime watermark) {
+    }
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.blog.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 英数字は単語単位、日本語 (漢字・ひらがな・カタカナ) は文字 bigram 単位で分割する。
+ */
+public class SearchTokenizer {
+
+    /**
+     * これより長い単語は検索語として意味を持たないので捨てる。セグメントの語は UTF-8 で 65535 バイトまでしか保存できない。
+     */
+    static final int MAX_TOKEN_LENGTH = 255;
+
+    private static final int PROLONGED_SOUND_MARK = 0x30FC;
+
+    public List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int length = normalized.length();
+        int index = 0;
+        while (index < length) {
+            int codePoint = normalized.codePointAt(index);
+            if (isCjk(codePoint)) {
+                index = readCjkRun(normalized, index, tokens);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                index = readWord(normalized, index, tokens);
+            } else {
+                index += Character.charCount(codePoint);
+            }
+        }
+        return tokens;
+    }
+
+    private int readWord(String text, int start, List<String> tokens) {
+        int index = start;
+        while (index < text.length()) {
+            int codePoint = text.codePointAt(index);
+            if (isCjk(codePoint) || !Character.isLetterOrDigit(codePoint)) {
+                break;
+            }
+            index += Character.charCount(codePoint);
+        }
+        if (index - start <= MAX_TOKEN_LENGTH) {
+            tokens.add(text.substring(start, index));
+        }
+        return index;
+    }
+
+    private int readCjkRun(String text, int start, List<String> tokens) {
+        int previous = -1;
+        int index = start;
+        while (index < text.length()) {
+            int codePoint = text.codePointAt(index);
+            if (!isCjk(codePoint)) {
+                break;
+            }
+            if (previous >= 0) {
+                tokens.add(text.substring(previous, index + Character.charCount(codePoint)));
+            }
+            previous = index;
+            index += Character.charCount(codePoint);
+        }
+        if (previous == start) {
+            tokens.add(text.substring(start, index));
+        }
+        return index;
+    }
+
+    private boolean isCjk(int codePoint) {
+        if (codePoint == PROLONGED_SOUND_MARK) {
+            return true;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * {@link SegmentWriter} が書き出した不変のセグメントファイルをメモリマップして読む。
+ * 読み出しはすべて絶対位置指定なので、複数スレッドから同時に呼び出せる。
+ */
+final class Segment {
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int documentCount;
+    private final int termCount;
+    private final int tombstoneCount;
+    private final int documentTableOffset;
+    private final int termTableOffset;
+    private final int tombstoneOffset;
+
+    private Segment(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < SegmentWriter.HEADER_SIZE
+                || buffer.getInt(0) != SegmentWriter.MAGIC
+                || buffer.getInt(4) != SegmentWriter.VERSION) {
+            throw new IOException("検索インデックスのセグメントを読み込めません: " + path);
+        }
+        this.documentCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.tombstoneCount = buffer.getInt(16);
+        this.documentTableOffset = buffer.getInt(24);
+        this.termTableOffset = buffer.getInt(28);
+        this.tombstoneOffset = buffer.getInt(40);
+    }
+
+    static Segment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    String name() {
+        return path.getFileName().toString();
+    }
+
+    int documentCount() {
+        return documentCount;
+    }
+
+    long id(int ordinal) {
+        return buffer.getLong(documentEntry(ordinal));
+    }
+
+    long sequence(int ordinal) {
+        return buffer.getLong(documentEntry(ordinal) + 8);
+    }
+
+    int length(int ordinal) {
+        return buffer.getInt(documentEntry(ordinal) + 16);
+    }
+
+    ArticleSummary summary(int ordinal) {
+        int position = buffer.getInt(documentEntry(ordinal) + 20);
+        LocalDateTime publishedAt = null;
+        if (buffer.get(position++) != 0) {
+            publishedAt = LocalDateTime.ofEpochSecond(buffer.getLong(position), buffer.getInt(position + 8),
+                    ZoneOffset.UTC);
+            position += 12;
+        }
+        LocalDateTime updatedAt = null;
+        if (buffer.get(position++) != 0) {
+            updatedAt = LocalDateTime.ofEpochSecond(buffer.getLong(position), buffer.getInt(position + 8),
+                    ZoneOffset.UTC);
+            position += 12;
+        }
+        String[] strings = new String[3];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt(position);
+            position += 4;
+            if (length >= 0) {
+                strings[i] = readString(position, length);
+                position += length;
+            }
+        }
+        return new ArticleSummary(id(ordinal), strings[0], strings[1], strings[2], publishedAt, updatedAt, true);
+    }
+
+    int termCount() {
+        return termCount;
+    }
+
+    String term(int termIndex) {
+        int position = buffer.getInt(termEntry(termIndex));
+        return readString(position + 2, Short.toUnsignedInt(buffer.getShort(position)));
+    }
+
+    int findTerm(String term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = term(middle).compareTo(term);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    int postingCount(int termIndex) {
+        return buffer.getInt(termEntry(termIndex) + 8);
+    }
+
+    int postingOrdinal(int termIndex, int posting) {
+        return buffer.getInt(postingPosition(termIndex, posting));
+    }
+
+    int postingFrequency(int termIndex, int posting) {
+        return buffer.getInt(postingPosition(termIndex, posting) + 4);
+    }
+
+    int tombstoneCount() {
+        return tombstoneCount;
+    }
+
+    long tombstoneId(int index) {
+        return buffer.getLong(tombstoneOffset + index * SegmentWriter.TOMBSTONE_SIZE);
+    }
+
+    long tombstoneSequence(int index) {
+        return buffer.getLong(tombstoneOffset + index * SegmentWriter.TOMBSTONE_SIZE + 8);
+    }
+
+    private int documentEntry(int ordinal) {
+        return documentTableOffset + ordinal * SegmentWriter.DOCUMENT_ENTRY_SIZE;
+    }
+
+    private int termEntry(int termIndex) {
+        return termTableOffset + termIndex * SegmentWriter.TERM_ENTRY_SIZE;
+    }
+
+    private int postingPosition(int termIndex, int posting) {
+        return buffer.getInt(termEntry(termIndex) + 4) + posting * SegmentWriter.POSTING_SIZE;
+    }
+
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
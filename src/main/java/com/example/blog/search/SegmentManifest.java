@@ -0,0 +1,96 @@
+package com.example.blog.search;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * セグメント一覧と採番状態、ウォーターマークを保持する。置き換えは一時ファイルからの
+ * アトミックな移動で行うため、書き込み途中で停止しても直前の状態が残る。
+ */
+final class SegmentManifest {
+
+    static final String FILE_NAME = "manifest.properties";
+
+    private final List<String> segments;
+    private final int nextSegment;
+    private final long nextSequence;
+    private final LocalDateTime watermark;
+
+    SegmentManifest(List<String> segments, int nextSegment, long nextSequence, LocalDateTime watermark) {
+        this.segments = List.copyOf(segments);
+        this.nextSegment = nextSegment;
+        this.nextSequence = nextSequence;
+        this.watermark = watermark;
+    }
+
+    static SegmentManifest read(Path directory) throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return new SegmentManifest(List.of(), 1, 1, null);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String segmentList = properties.getProperty("segments", "");
+        List<String> segments = segmentList.isBlank()
+                ? List.of()
+                : new ArrayList<>(Arrays.asList(segmentList.split(",")));
+        String watermark = properties.getProperty("watermark");
+        return new SegmentManifest(segments,
+                Integer.parseInt(properties.getProperty("nextSegment", "1")),
+                Long.parseLong(properties.getProperty("nextSequence", "1")),
+                watermark == null ? null : LocalDateTime.parse(watermark));
+    }
+
+    void write(Path directory) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("segments", String.join(",", segments));
+        properties.setProperty("nextSegment", String.valueOf(nextSegment));
+        properties.setProperty("nextSequence", String.valueOf(nextSequence));
+        if (watermark != null) {
+            properties.setProperty("watermark", watermark.toString());
+        }
+        Path temporary = directory.resolve(FILE_NAME + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer writer = new OutputStreamWriter(Channels.newOutputStream(file), StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+            writer.flush();
+            // 書き出し済みのセグメントと同じく、置き換える前にディスクへ書き出す
+            file.force(true);
+        }
+        Files.move(temporary, directory.resolve(FILE_NAME),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    List<String> segments() {
+        return segments;
+    }
+
+    int nextSegment() {
+        return nextSegment;
+    }
+
+    long nextSequence() {
+        return nextSequence;
+    }
+
+    LocalDateTime watermark() {
+        return watermark;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 1 セグメント分の文書・ポスティング・削除マーカーを集め、{@link Segment} が読める形式で書き出す。
+ */
+final class SegmentWriter {
+
+    static final int MAGIC = 0x424C4753;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 48;
+    static final int DOCUMENT_ENTRY_SIZE = 24;
+    static final int TERM_ENTRY_SIZE = 12;
+    static final int POSTING_SIZE = 8;
+    static final int TOMBSTONE_SIZE = 16;
+    static final int MAX_TERM_BYTES = 0xFFFF;
+
+    private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+    private final DataOutputStream recordOutput = new DataOutputStream(records);
+    private final List<long[]> documents = new ArrayList<>();
+    private final TreeMap<String, PostingBuffer> postings = new TreeMap<>();
+    private final Map<Long, Long> tombstones = new TreeMap<>();
+
+    int addDocument(long id, long sequence, int length, ArticleSummary summary) throws IOException {
+        int recordOffset = records.size();
+        writeDateTime(summary.getPublishedAt());
+        writeDateTime(summary.getUpdatedAt());
+        writeString(summary.getTitle());
+        writeString(summary.getSlug());
+        writeString(summary.getSummary());
+        documents.add(new long[]{id, sequence, length, recordOffset});
+        return documents.size() - 1;
+    }
+
+    void addPosting(String term, int ordinal, int frequency) {
+        postings.computeIfAbsent(term, key -> new PostingBuffer()).add(ordinal, frequency);
+    }
+
+    void addTombstone(long id, long sequence) {
+        tombstones.merge(id, sequence, Math::max);
+    }
+
+    int documentCount() {
+        return documents.size();
+    }
+
+    void write(Path path) throws IOException {
+        ByteArrayOutputStream termBytes = new ByteArrayOutputStream();
+        DataOutputStream termOutput = new DataOutputStream(termBytes);
+        int[] termOffsets = new int[postings.size()];
+        long postingCount = 0;
+        int index = 0;
+        for (String term : postings.keySet()) {
+            termOffsets[index++] = termBytes.size();
+            byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_TERM_BYTES) {
+                throw new IOException("語が長すぎてセグメントに保存できません: " + bytes.length + " bytes");
+            }
+            termOutput.writeShort(bytes.length);
+            termOutput.write(bytes);
+        }
+        for (PostingBuffer buffer : postings.values()) {
+            postingCount += buffer.size;
+        }
+
+        long recordsOffset = HEADER_SIZE;
+        long documentTableOffset = recordsOffset + records.size();
+        long termTableOffset = documentTableOffset + (long) documents.size() * DOCUMENT_ENTRY_SIZE;
+        long termBytesOffset = termTableOffset + (long) postings.size() * TERM_ENTRY_SIZE;
+        long postingsOffset = termBytesOffset + termBytes.size();
+        long tombstoneOffset = postingsOffset + postingCount * POSTING_SIZE;
+        long fileSize = tombstoneOffset + (long) tombstones.size() * TOMBSTONE_SIZE;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("セグメントが大きすぎます: " + fileSize + " bytes");
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream output = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(file), 1 << 16))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(documents.size());
+            output.writeInt(postings.size());
+            output.writeInt(tombstones.size());
+            output.writeInt((int) recordsOffset);
+            output.writeInt((int) documentTableOffset);
+            output.writeInt((int) termTableOffset);
+            output.writeInt((int) termBytesOffset);
+            output.writeInt((int) postingsOffset);
+            output.writeInt((int) tombstoneOffset);
+            output.writeInt(0);
+
+            records.writeTo(output);
+            for (long[] document : documents) {
+                output.writeLong(document[0]);
+                output.writeLong(document[1]);
+                output.writeInt((int) document[2]);
+                output.writeInt((int) (recordsOffset + document[3]));
+            }
+            int postingPosition = (int) postingsOffset;
+            index = 0;
+            for (PostingBuffer buffer : postings.values()) {
+                output.writeInt((int) termBytesOffset + termOffsets[index++]);
+                output.writeInt(postingPosition);
+                output.writeInt(buffer.size);
+                postingPosition += buffer.size * POSTING_SIZE;
+            }
+            termBytes.writeTo(output);
+            for (PostingBuffer buffer : postings.values()) {
+                for (int i = 0; i < buffer.size; i++) {
+                    output.writeInt(buffer.ordinals[i]);
+                    output.writeInt(buffer.frequencies[i]);
+                }
+            }
+            for (Map.Entry<Long, Long> tombstone : tombstones.entrySet()) {
+                output.writeLong(tombstone.getKey());
+                output.writeLong(tombstone.getValue());
+            }
+            output.flush();
+            // 置き換えた後のクラッシュでマニフェストが空や途中までのセグメントを指さないよう、移動する前にディスクへ書き出す
+            file.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+        if (dateTime == null) {
+            recordOutput.writeByte(0);
+            return;
+        }
+        recordOutput.writeByte(1);
+        recordOutput.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        recordOutput.writeInt(dateTime.getNano());
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            recordOutput.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        recordOutput.writeInt(bytes.length);
+        recordOutput.write(bytes);
+    }
+
+    private static final class PostingBuffer {
+
+        private int[] ordinals = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        private void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ディスク上の不変セグメントと、直近の書き込みを保持するメモリ上のライブセグメントからなる検索インデックス。
+ * ライブセグメントは件数が閾値を超えるか一定間隔ごとに新しいセグメントとして書き出され、
+ * セグメント数が上限を超えると小さいものから順にバックグラウンドでマージされる。
+ * 同じ記事の新旧の版はシーケンス番号で区別し、古い版と削除マーカーはマージ時に取り除く。
+ */
+public class SegmentedSearchIndex implements SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentedSearchIndex.class);
+
+    private static final String SEGMENT_PREFIX = "seg-";
+    private static final String SEGMENT_SUFFIX = ".idx";
+    private static final int MERGE_FACTOR = 4;
+
+    private final Path directory;
+    private final SearchTokenizer tokenizer;
+    private final int flushThreshold;
+    private final int maxSegments;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService maintenance;
+
+    private final List<SegmentState> segments = new ArrayList<>();
+    private final Map<Long, DocumentRef> documents = new HashMap<>();
+    private final Map<Long, LiveDocument> liveDocuments = new LinkedHashMap<>();
+    private final Map<Long, Long> liveTombstones = new HashMap<>();
+    private long totalLength;
+    private long nextSequence = 1;
+    private int nextSegment = 1;
+    private long generation;
+    private LocalDateTime watermark;
+    private LocalDateTime flushedWatermark;
+    private boolean trackingWatermark;
+    private boolean maintenanceScheduled;
+
+    private SegmentedSearchIndex(Path directory, SearchTokenizer tokenizer, int flushThreshold, int maxSegments) {
+        this.directory = directory;
+        this.tokenizer = tokenizer;
+        this.flushThreshold = Math.max(1, flushThreshold);
+        this.maxSegments = Math.max(1, maxSegments);
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static SegmentedSearchIndex open(Path directory, SearchTokenizer tokenizer, int flushThreshold,
+                                            int maxSegments, long flushIntervalSeconds) throws IOException {
+        Files.createDirectories(directory);
+        SegmentedSearchIndex index = new SegmentedSearchIndex(directory, tokenizer, flushThreshold, maxSegments);
+        try {
+            index.load();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("検索インデックスを読み込めなかったため作り直します: {}", directory, ex);
+            index.reset();
+        }
+        if (flushIntervalSeconds > 0) {
+            index.maintenance.scheduleWithFixedDelay(index::runMaintenance,
+                    flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+        }
+        return index;
+    }
+
+    @Override
+    public void index(ArticleSummary article, String content) {
+        IndexedArticle analyzed = IndexedArticle.analyze(tokenizer, article, content);
+        boolean schedule;
+        lock.writeLock().lock();
+        try {
+            removeCurrent(article.getId());
+            long sequence = nextSequence++;
+            liveDocuments.put(article.getId(), new LiveDocument(analyzed, sequence));
+            documents.put(article.getId(), new DocumentRef(null, -1, sequence));
+            totalLength += analyzed.length();
+            LocalDateTime updatedAt = article.getUpdatedAt();
+            if (trackingWatermark && updatedAt != null && (watermark == null || updatedAt.isAfter(watermark))) {
+                watermark = updatedAt;
+            }
+            schedule = claimMaintenance();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (schedule) {
+            scheduleMaintenance();
+        }
+    }
+
+    @Override
+    public void remove(Long articleId) {
+        boolean schedule;
+        lock.writeLock().lock();
+        try {
+            removeWithTombstone(articleId);
+            schedule = claimMaintenance();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (schedule) {
+            scheduleMaintenance();
+        }
+    }
+
+    @Override
+    public void retainAll(Collection<Long> articleIds) {
+        Set<Long> retained = new HashSet<>(articleIds);
+        lock.writeLock().lock();
+        try {
+            for (Long articleId : new ArrayList<>(documents.keySet())) {
+                if (!retained.contains(articleId)) {
+                    removeWithTombstone(articleId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            int segmentCount = segments.size();
+            double[][] scores = new double[segmentCount][];
+            Map<LiveDocument, Double> liveScores = new HashMap<>();
+            int[] termIndexes = new int[segmentCount];
+            for (String term : terms) {
+                int documentFrequency = 0;
+                for (int s = 0; s < segmentCount; s++) {
+                    Segment segment = segments.get(s).segment;
+                    termIndexes[s] = segment.findTerm(term);
+                    if (termIndexes[s] >= 0) {
+                        documentFrequency += segment.postingCount(termIndexes[s]);
+                    }
+                }
+                for (LiveDocument live : liveDocuments.values()) {
+                    if (live.article.frequencies().containsKey(term)) {
+                        documentFrequency++;
+                    }
+                }
+                if (documentFrequency == 0) {
+                    continue;
+                }
+                // 削除済みの版もポスティングに残っているため、文書頻度は生きている件数で頭打ちにする
+                double idf = Bm25.idf(documentCount, Math.min(documentFrequency, documentCount));
+                for (int s = 0; s < segmentCount; s++) {
+                    if (termIndexes[s] >= 0) {
+                        scores[s] = scoreSegment(segments.get(s), termIndexes[s], idf, averageLength, scores[s]);
+                    }
+                }
+                for (LiveDocument live : liveDocuments.values()) {
+                    Integer frequency = live.article.frequencies().get(term);
+                    if (frequency != null) {
+                        liveScores.merge(live,
+                                Bm25.score(idf, frequency, live.article.length(), averageLength), Double::sum);
+                    }
+                }
+            }
+            return topHits(scores, liveScores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public LocalDateTime watermark() {
+        lock.readLock().lock();
+        try {
+            return watermark;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void resumeWatermark(LocalDateTime watermark) {
+        lock.writeLock().lock();
+        try {
+            if (this.watermark == null || (watermark != null && watermark.isAfter(this.watermark))) {
+                this.watermark = watermark;
+            }
+            trackingWatermark = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        scheduleMaintenance();
+    }
+
+    @Override
+    public void close() {
+        maintenance.shutdown();
+        try {
+            if (!maintenance.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("検索インデックスの保守処理が終了しませんでした");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (IOException ex) {
+            log.warn("検索インデックスの書き出しに失敗しました", ex);
+        }
+    }
+
+    void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            maintenanceScheduled = false;
+            if (liveDocuments.isEmpty() && liveTombstones.isEmpty()) {
+                if (!Objects.equals(watermark, flushedWatermark)) {
+                    writeManifest(watermark);
+                    flushedWatermark = watermark;
+                }
+                return;
+            }
+            SegmentWriter writer = new SegmentWriter();
+            for (Map.Entry<Long, LiveDocument> entry : liveDocuments.entrySet()) {
+                LiveDocument live = entry.getValue();
+                int ordinal = writer.addDocument(entry.getKey(), live.sequence, live.article.length(),
+                        live.article.summary());
+                live.article.frequencies().forEach((term, frequency) -> writer.addPosting(term, ordinal, frequency));
+            }
+            liveTombstones.forEach(writer::addTombstone);
+            Path path = directory.resolve(segmentName(nextSegment++));
+            writer.write(path);
+
+            SegmentState state = new SegmentState(Segment.open(path));
+            int ordinal = 0;
+            for (Map.Entry<Long, LiveDocument> entry : liveDocuments.entrySet()) {
+                documents.put(entry.getKey(), new DocumentRef(state, ordinal++, entry.getValue().sequence));
+            }
+            segments.add(state);
+            liveDocuments.clear();
+            liveTombstones.clear();
+            writeManifest(watermark);
+            flushedWatermark = watermark;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean mergeIfNeeded() throws IOException {
+        List<SegmentState> picked;
+        List<BitSet> deletedSnapshots = new ArrayList<>();
+        boolean coversAll;
+        long expectedGeneration;
+        Path path;
+        lock.writeLock().lock();
+        try {
+            if (segments.size() <= maxSegments) {
+                return false;
+            }
+            List<SegmentState> bySize = new ArrayList<>(segments);
+            bySize.sort(Comparator.comparingInt(SegmentState::liveCount));
+            int count = Math.min(segments.size(), Math.max(MERGE_FACTOR, segments.size() - maxSegments + 1));
+            picked = new ArrayList<>(bySize.subList(0, count));
+            for (SegmentState state : picked) {
+                deletedSnapshots.add((BitSet) state.deleted.clone());
+            }
+            coversAll = picked.size() == segments.size();
+            expectedGeneration = generation;
+            path = directory.resolve(segmentName(nextSegment++));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        SegmentWriter writer = new SegmentWriter();
+        for (int i = 0; i < picked.size(); i++) {
+            copyLiveDocuments(picked.get(i).segment, deletedSnapshots.get(i), writer, !coversAll);
+        }
+        writer.write(path);
+        Segment merged = Segment.open(path);
+
+        boolean installed;
+        lock.writeLock().lock();
+        try {
+            // マージ中に clear() された場合は結果を捨てる
+            installed = generation == expectedGeneration;
+            if (installed) {
+                install(merged, picked);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!installed) {
+            deleteQuietly(path);
+            return false;
+        }
+        picked.forEach(state -> deleteQuietly(state.segment.path()));
+        log.debug("検索インデックスのセグメントを {} 個マージしました ({} 件)", picked.size(), merged.documentCount());
+        return true;
+    }
+
+    int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void runMaintenance() {
+        try {
+            flush();
+            while (mergeIfNeeded()) {
+                // 上限を下回るまで続けてマージする
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("検索インデックスの保守処理に失敗しました", ex);
+        }
+    }
+
+    private boolean claimMaintenance() {
+        if (maintenanceScheduled || liveDocuments.size() + liveTombstones.size() < flushThreshold) {
+            return false;
+        }
+        maintenanceScheduled = true;
+        return true;
+    }
+
+    private void scheduleMaintenance() {
+        try {
+            maintenance.execute(this::runMaintenance);
+        } catch (RejectedExecutionException ex) {
+            // 停止処理中は close() が最後に書き出す
+        }
+    }
+
+    private double[] scoreSegment(SegmentState state, int termIndex, double idf, double averageLength,
+                                  double[] scores) {
+        Segment segment = state.segment;
+        double[] result = scores != null ? scores : new double[segment.documentCount()];
+        int count = segment.postingCount(termIndex);
+        for (int p = 0; p < count; p++) {
+            int ordinal = segment.postingOrdinal(termIndex, p);
+            if (!state.deleted.get(ordinal)) {
+                result[ordinal] += Bm25.score(idf, segment.postingFrequency(termIndex, p),
+                        segment.length(ordinal), averageLength);
+            }
+        }
+        return result;
+    }
+
+    private List<SearchHit> topHits(double[][] scores, Map<LiveDocument, Double> liveScores, int limit) {
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble((Candidate candidate) -> candidate.score)
+                        .thenComparingLong(candidate -> candidate.sequence));
+        for (int s = 0; s < scores.length; s++) {
+            if (scores[s] == null) {
+                continue;
+            }
+            SegmentState state = segments.get(s);
+            for (int ordinal = 0; ordinal < scores[s].length; ordinal++) {
+                double score = scores[s][ordinal];
+                if (score > 0 && (heap.size() < limit || score >= heap.peek().score)) {
+                    offer(heap, new Candidate(state, ordinal, null, score, state.segment.sequence(ordinal)), limit);
+                }
+            }
+        }
+        liveScores.forEach((live, score) ->
+                offer(heap, new Candidate(null, -1, live, score, live.sequence), limit));
+
+        List<SearchHit> hits = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            Candidate candidate = heap.poll();
+            ArticleSummary summary = candidate.live != null
+                    ? candidate.live.article.summary()
+                    : candidate.segment.segment.summary(candidate.ordinal);
+            hits.add(new SearchHit(summary, candidate.score));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private void offer(PriorityQueue<Candidate> heap, Candidate candidate, int limit) {
+        heap.offer(candidate);
+        if (heap.size() > limit) {
+            heap.poll();
+        }
+    }
+
+    private void copyLiveDocuments(Segment segment, BitSet deleted, SegmentWriter writer,
+                                   boolean keepTombstones) throws IOException {
+        int[] remap = new int[segment.documentCount()];
+        for (int ordinal = 0; ordinal < remap.length; ordinal++) {
+            remap[ordinal] = deleted.get(ordinal)
+                    ? -1
+                    : writer.addDocument(segment.id(ordinal), segment.sequence(ordinal), segment.length(ordinal),
+                    segment.summary(ordinal));
+        }
+        for (int termIndex = 0; termIndex < segment.termCount(); termIndex++) {
+            String term = null;
+            int count = segment.postingCount(termIndex);
+            for (int p = 0; p < count; p++) {
+                int ordinal = remap[segment.postingOrdinal(termIndex, p)];
+                if (ordinal >= 0) {
+                    if (term == null) {
+                        term = segment.term(termIndex);
+                    }
+                    writer.addPosting(term, ordinal, segment.postingFrequency(termIndex, p));
+                }
+            }
+        }
+        if (keepTombstones) {
+            for (int i = 0; i < segment.tombstoneCount(); i++) {
+                writer.addTombstone(segment.tombstoneId(i), segment.tombstoneSequence(i));
+            }
+        }
+    }
+
+    private void install(Segment merged, List<SegmentState> picked) throws IOException {
+        SegmentState state = new SegmentState(merged);
+        Set<SegmentState> replaced = new HashSet<>(picked);
+        for (int ordinal = 0; ordinal < merged.documentCount(); ordinal++) {
+            long id = merged.id(ordinal);
+            long sequence = merged.sequence(ordinal);
+            DocumentRef current = documents.get(id);
+            if (current != null && current.segment != null && replaced.contains(current.segment)
+                    && current.sequence == sequence) {
+                documents.put(id, new DocumentRef(state, ordinal, sequence));
+            } else {
+                // マージ中に更新・削除された版
+                state.deleted.set(ordinal);
+            }
+        }
+        segments.removeAll(replaced);
+        segments.add(state);
+        writeManifest(flushedWatermark);
+    }
+
+    private void load() throws IOException {
+        SegmentManifest manifest = SegmentManifest.read(directory);
+        for (String name : manifest.segments()) {
+            segments.add(new SegmentState(Segment.open(directory.resolve(name))));
+        }
+        deleteUnlistedFiles(new HashSet<>(manifest.segments()));
+        nextSegment = manifest.nextSegment();
+        watermark = manifest.watermark();
+        flushedWatermark = watermark;
+
+        long maxSequence = 0;
+        for (SegmentState state : segments) {
+            Segment segment = state.segment;
+            for (int ordinal = 0; ordinal < segment.documentCount(); ordinal++) {
+                long id = segment.id(ordinal);
+                long sequence = segment.sequence(ordinal);
+                maxSequence = Math.max(maxSequence, sequence);
+                DocumentRef current = documents.get(id);
+                if (current == null || current.sequence < sequence) {
+                    if (current != null) {
+                        current.segment.deleted.set(current.ordinal);
+                    }
+                    documents.put(id, new DocumentRef(state, ordinal, sequence));
+                } else {
+                    state.deleted.set(ordinal);
+                }
+            }
+        }
+        for (SegmentState state : segments) {
+            Segment segment = state.segment;
+            for (int i = 0; i < segment.tombstoneCount(); i++) {
+                long id = segment.tombstoneId(i);
+                long sequence = segment.tombstoneSequence(i);
+                maxSequence = Math.max(maxSequence, sequence);
+                DocumentRef current = documents.get(id);
+                if (current != null && current.sequence < sequence) {
+                    current.segment.deleted.set(current.ordinal);
+                    documents.remove(id);
+                }
+            }
+        }
+        for (DocumentRef ref : documents.values()) {
+            totalLength += ref.segment.segment.length(ref.ordinal);
+        }
+        nextSequence = Math.max(manifest.nextSequence(), maxSequence + 1);
+        log.info("検索インデックスを読み込みました ({} セグメント, {} 件)", segments.size(), documents.size());
+    }
+
+    private void reset() throws IOException {
+        generation++;
+        segments.clear();
+        documents.clear();
+        liveDocuments.clear();
+        liveTombstones.clear();
+        totalLength = 0;
+        watermark = null;
+        flushedWatermark = null;
+        trackingWatermark = false;
+        writeManifest(null);
+        deleteUnlistedFiles(Set.of());
+    }
+
+    private void removeWithTombstone(Long articleId) {
+        if (removeCurrent(articleId)) {
+            liveTombstones.put(articleId, nextSequence++);
+        }
+    }
+
+    private boolean removeCurrent(Long articleId) {
+        DocumentRef current = documents.remove(articleId);
+        if (current == null) {
+            return false;
+        }
+        if (current.segment == null) {
+            totalLength -= liveDocuments.remove(articleId).article.length();
+        } else {
+            current.segment.deleted.set(current.ordinal);
+            totalLength -= current.segment.segment.length(current.ordinal);
+        }
+        return true;
+    }
+
+    private void writeManifest(LocalDateTime persistedWatermark) throws IOException {
+        List<String> names = new ArrayList<>(segments.size());
+        for (SegmentState state : segments) {
+            names.add(state.segment.name());
+        }
+        new SegmentManifest(names, nextSegment, nextSequence, persistedWatermark).write(directory);
+    }
+
+    private void deleteUnlistedFiles(Set<String> listed) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            for (Path path : stream) {
+                if (!listed.contains(path.getFileName().toString())) {
+                    deleteQuietly(path);
+                }
+            }
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("不要になったセグメントを削除できませんでした: {}", path, ex);
+        }
+    }
+
+    private static String segmentName(int number) {
+        return String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    private static final class SegmentState {
+
+        private final Segment segment;
+        private final BitSet deleted = new BitSet();
+
+        private SegmentState(Segment segment) {
+            this.segment = segment;
+        }
+
+        private int liveCount() {
+            return segment.documentCount() - deleted.cardinality();
+        }
+    }
+
+    private static final class DocumentRef {
+
+        private final SegmentState segment;
+        private final int ordinal;
+        private final long sequence;
+
+        private DocumentRef(SegmentState segment, int ordinal, long sequence) {
+            this.segment = segment;
+            this.ordinal = ordinal;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class LiveDocument {
+
+        private final IndexedArticle article;
+        private final long sequence;
+
+        private LiveDocument(IndexedArticle article, long sequence) {
+            this.article = article;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Candidate {
+
+        private final SegmentState segment;
+        private final int ordinal;
+        private final LiveDocument live;
+        private final double score;
+        private final long sequence;
+
+        private Candidate(SegmentState segment, int ordinal, LiveDocument live, double score, long sequence) {
+            this.segment = segment;
+            this.ordinal = ordinal;
+            this.live = live;
+            this.score = score;
+            this.sequence = sequence;
+        }
+    }
+}
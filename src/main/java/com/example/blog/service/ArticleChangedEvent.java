@@ -0,0 +1,35 @@
+package com.example.blog.service;
+
+import java.util.Set;
+
+public class ArticleChangedEvent {
+
+    private final Long articleId;
+    private final Set<String> slugs;
+    private final boolean remote;
+
+    public ArticleChangedEvent(Long articleId, Set<String> slugs) {
+        this(articleId, slugs, false);
+    }
+
+    /**
+     * @param remote 他のノードでの変更を変更ログから再発行したものなら true
+     */
+    public ArticleChangedEvent(Long articleId, Set<String> slugs, boolean remote) {
+        this.articleId = articleId;
+        this.slugs = Set.copyOf(slugs);
+        this.remote = remote;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public Set<String> getSlugs() {
+        return slugs;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.blog.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+@Component
+public class ArticleContentRenderer {
+
+    public String render(String content) {
+        if (content == null || content.isBlank()) {
+            return "";
+        }
+        String normalized = content.replace("\r\n", "\n").replace('\r', '\n').strip();
+        StringBuilder html = new StringBuilder(normalized.length() + 64);
+        for (String paragraph : normalized.split("\n\\s*\n")) {
+            String trimmed = paragraph.strip();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            html.append("<p>");
+            String[] lines = trimmed.split("\n");
+            for (int i = 0; i < lines.length; i++) {
+                if (i > 0) {
+                    html.append("<br/>\n");
+                }
+                html.append(HtmlUtils.htmlEscape(lines[i], "UTF-8"));
+            }
+            html.append("</p>\n");
+        }
+        return html.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.blog.service;
+
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.search.SearchHit;
+import com.example.blog.search.SearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiFunction;
+
+@Service
+public class ArticleSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleSearchService.class);
+
+    static final int RESULT_LIMIT = 20;
+    static final int MAX_QUERY_LENGTH = 100;
+    private static final int BATCH_SIZE = 500;
+    private static final LocalDateTime EMPTY_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // コミット順と更新日時の順が前後した記事を取りこぼさないよう、少し遡って読み直す
+    private static final Duration RECONCILE_MARGIN = Duration.ofMinutes(5);
+
+    private final ArticleRepository articleRepository;
+    private final SearchIndex index;
+
+    public ArticleSearchService(ArticleRepository articleRepository, SearchIndex index) {
+        this.articleRepository = articleRepository;
+        this.index = index;
+    }
+
+    public List<SearchHit> search(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        String trimmed = query.strip();
+        if (trimmed.length() > MAX_QUERY_LENGTH) {
+            trimmed = trimmed.substring(0, MAX_QUERY_LENGTH);
+        }
+        return index.search(trimmed, RESULT_LIMIT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        LocalDateTime watermark = index.watermark();
+        if (watermark == null) {
+            rebuild();
+        } else {
+            reconcile(watermark);
+        }
+    }
+
+    public void rebuild() {
+        index.clear();
+        LocalDateTime latest = indexBatches(articleRepository::findByPublishedTrueAndIdGreaterThanOrderByIdAsc);
+        index.resumeWatermark(latest != null ? latest : EMPTY_WATERMARK);
+        log.info("検索インデックスを構築しました ({} 件)", index.size());
+    }
+
+    // 永続化されたインデックスを、前回反映済みの更新日時以降の変更だけで追いつかせる
+    void reconcile(LocalDateTime watermark) {
+        index.retainAll(articleRepository.findPublishedIds());
+        LocalDateTime since = watermark.minus(RECONCILE_MARGIN);
+        LocalDateTime latest = indexBatches((lastId, page) -> articleRepository
+                .findByPublishedTrueAndUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(since, lastId, page));
+        index.resumeWatermark(latest != null && latest.isAfter(watermark) ? latest : watermark);
+        log.info("検索インデックスを読み込みました ({} 件)", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Long articleId = event.getArticleId();
+        articleRepository.findById(articleId)
+                .filter(Article::isPublished)
+                .ifPresentOrElse(this::index, () -> index.remove(articleId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        indexBatches((lastId, page) -> articleRepository.findByPublishedTrueAndIdGreaterThanOrderByIdAsc(
+                Math.max(lastId, event.getAfterId()), page));
+    }
+
+    int indexedCount() {
+        return index.size();
+    }
+
+    private LocalDateTime indexBatches(BiFunction<Long, Pageable, List<Article>> loader) {
+        LocalDateTime latest = null;
+        long lastId = 0L;
+        List<Article> batch;
+        do {
+            batch = loader.apply(lastId, PageRequest.ofSize(BATCH_SIZE));
+            for (Article article : batch) {
+                index(article);
+                lastId = article.getId();
+                if (article.getUpdatedAt() != null && (latest == null || article.getUpdatedAt().isAfter(latest))) {
+                    latest = article.getUpdatedAt();
+                }
+            }
+        } while (batch.size() == BATCH_SIZE);
+        return latest;
+    }
+
+    private void index(Article article) {
+        ArticleSummary summary = new ArticleSummary(article.getId(), article.getTitle(), article.getSlug(),
+                article.getSummary(), article.getPublishedAt(), article.getUpdatedAt(), article.isPublished());
+        index.index(summary, article.getContent());
+    }
+}
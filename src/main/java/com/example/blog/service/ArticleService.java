@@ -1,36 +1,141 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.ArticleCache;
+import com.example.blog.cache.FeedVersionCache;
+import com.example.blog.dto.ArticleCursor;
+import com.example.blog.dto.ArticleFeedVersion;
 import com.example.blog.dto.ArticleForm;
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.jfr.ArticleFetchEvent;
+import com.example.blog.jfr.SlugAllocationEvent;
 import com.example.blog.model.Article;
 import com.example.blog.repository.ArticleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
-import java.text.Normalizer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
 public class ArticleService {
 
+    public static final int PAGE_SIZE = 10;
+
+    static final int MAX_SLUG_ATTEMPTS = 3;
+
+    private static final Logger log = LoggerFactory.getLogger(ArticleService.class);
+
     private final ArticleRepository articleRepository;
+    private final ArticleCache articleCache;
+    private final FeedVersionCache feedVersionCache;
+    private final ArticleContentRenderer contentRenderer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SlugAllocator slugAllocator;
+    private final TransactionTemplate transactionTemplate;
 
-    public ArticleService(ArticleRepository articleRepository) {
+    public ArticleService(ArticleRepository articleRepository,
+                          ArticleCache articleCache,
+                          FeedVersionCache feedVersionCache,
+                          ArticleContentRenderer contentRenderer,
+                          ApplicationEventPublisher eventPublisher,
+                          SlugAllocator slugAllocator,
+                          PlatformTransactionManager transactionManager) {
         this.articleRepository = articleRepository;
+        this.articleCache = articleCache;
+        this.feedVersionCache = feedVersionCache;
+        this.contentRenderer = contentRenderer;
+        this.eventPublisher = eventPublisher;
+        this.slugAllocator = slugAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    public List<Article> findAllForAdmin() {
-        return articleRepository.findAllByOrderByUpdatedAtDesc();
+    @Transactional(readOnly = true)
+    public List<ArticleSummary> findAllForAdmin() {
+        return articleRepository.findAllSummaries();
     }
 
     @Transactional(readOnly = true)
-    public List<Article> findPublishedArticles() {
-        return articleRepository.findByPublishedTrueOrderByPublishedAtDesc();
+    public ArticlePage<ArticleSummary> findPublishedPage(ArticleCursor older, ArticleCursor newer) {
+        ArticleFetchEvent event = new ArticleFetchEvent();
+        event.begin();
+        ArticlePage<ArticleSummary> page = loadPublishedPage(older, newer);
+        if (event.shouldCommit()) {
+            event.operation = "page";
+            event.rowCount = page.getArticles().size();
+            event.commit();
+        }
+        return page;
+    }
+
+    private ArticlePage<ArticleSummary> loadPublishedPage(ArticleCursor older, ArticleCursor newer) {
+        Pageable lookAhead = PageRequest.ofSize(PAGE_SIZE + 1);
+        if (newer != null) {
+            List<ArticleSummary> ascending = articleRepository.findPublishedNewerThan(
+                    newer.getPublishedAt(), newer.getId(), lookAhead);
+            if (ascending.size() <= PAGE_SIZE) {
+                return latestPage(lookAhead);
+            }
+            List<ArticleSummary> articles = new ArrayList<>(ascending.subList(0, PAGE_SIZE));
+            Collections.reverse(articles);
+            return new ArticlePage<>(articles, cursorOf(articles.get(articles.size() - 1)), cursorOf(articles.get(0)));
+        }
+        if (older != null) {
+            List<ArticleSummary> descending = articleRepository.findPublishedOlderThan(
+                    older.getPublishedAt(), older.getId(), lookAhead);
+            List<ArticleSummary> articles = descending.subList(0, Math.min(PAGE_SIZE, descending.size()));
+            ArticleCursor olderCursor = descending.size() > PAGE_SIZE ? cursorOf(articles.get(articles.size() - 1)) : null;
+            ArticleCursor newerCursor = articles.isEmpty() ? null : cursorOf(articles.get(0));
+            return new ArticlePage<>(articles, olderCursor, newerCursor);
+        }
+        return latestPage(lookAhead);
+    }
+
+    /**
+     * 公開記事を新しい順に {@code older} より古いものから最大 {@code limit} 件返す。
+     * 全件を順に読み出す場合は、前回の末尾の記事をカーソルにして繰り返し呼び出す。
+     */
+    @Transactional(readOnly = true)
+    public List<ArticleSummary> findPublishedBatch(ArticleCursor older, int limit) {
+        Pageable pageable = PageRequest.ofSize(limit);
+        if (older == null) {
+            return articleRepository.findLatestPublished(pageable);
+        }
+        return articleRepository.findPublishedOlderThan(older.getPublishedAt(), older.getId(), pageable);
+    }
+
+    /**
+     * 一覧ページの ETag に使う版を返す。集計は記事が変更・取り込まれた後の最初の呼び出しだけで行う。
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public ArticleFeedVersion findPublishedFeedVersion() {
+        ArticleFeedVersion cached = feedVersionCache.get();
+        if (cached != null) {
+            return cached;
+        }
+        long generation = feedVersionCache.generation();
+        ArticleFeedVersion version = articleRepository.findPublishedFeedVersion();
+        if (version != null) {
+            feedVersionCache.put(version, generation);
+        }
+        return version;
     }
 
     @Transactional(readOnly = true)
@@ -38,38 +143,112 @@ public class ArticleService {
         return articleRepository.findById(id);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<Article> findBySlug(String slug) {
-        return articleRepository.findBySlug(slug);
+        ArticleFetchEvent event = new ArticleFetchEvent();
+        event.begin();
+        Article cached = articleCache.get(slug);
+        Optional<Article> article;
+        if (cached != null) {
+            article = Optional.of(cached);
+        } else {
+            long generation = articleCache.generation();
+            article = articleRepository.findBySlug(slug);
+            article.filter(Article::isPublished)
+                    .ifPresent(found -> articleCache.put(slug, found, generation));
+        }
+        if (event.shouldCommit()) {
+            event.operation = "slug";
+            event.slug = slug;
+            event.rowCount = article.isPresent() ? 1 : 0;
+            event.cached = cached != null;
+            event.commit();
+        }
+        return article;
     }
 
+    // スラッグの一意制約違反で再試行できるよう、1 回の試行ごとにトランザクションを分ける
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Article createArticle(ArticleForm form) {
-        Article article = new Article();
-        applyForm(form, article);
-        return articleRepository.save(article);
+        return withSlugRetry(() -> {
+            Article article = new Article();
+            applyForm(form, article);
+            Article saved = articleRepository.saveAndFlush(article);
+            eventPublisher.publishEvent(new ArticleChangedEvent(saved.getId(), slugsOf(saved.getSlug())));
+            return saved;
+        });
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Article updateArticle(Long id, ArticleForm form) {
-        Article article = articleRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("記事が見つかりません: " + id));
-        applyForm(form, article);
-        return article;
+        return withSlugRetry(() -> {
+            Article article = articleRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("記事が見つかりません: " + id));
+            String previousSlug = article.getSlug();
+            applyForm(form, article);
+            articleRepository.flush();
+            eventPublisher.publishEvent(new ArticleChangedEvent(id, slugsOf(previousSlug, article.getSlug())));
+            return article;
+        });
     }
 
     public void deleteArticle(Long id) {
+        articleRepository.findById(id).ifPresent(article ->
+                eventPublisher.publishEvent(new ArticleChangedEvent(id, slugsOf(article.getSlug()))));
         articleRepository.deleteById(id);
     }
 
+    private Article withSlugRetry(Supplier<Article> attempt) {
+        SlugAllocationEvent event = new SlugAllocationEvent();
+        event.begin();
+        for (int attempts = 1; ; attempts++) {
+            try {
+                Article saved = transactionTemplate.execute(status -> attempt.get());
+                if (event.shouldCommit()) {
+                    event.slug = saved.getSlug();
+                    event.attempts = attempts;
+                    event.commit();
+                }
+                return saved;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempts >= MAX_SLUG_ATTEMPTS || !SlugAllocator.isConflict(ex)) {
+                    throw ex;
+                }
+                log.info("同時に保存された記事とスラッグが重複したため再試行します ({} 回目)", attempts);
+            }
+        }
+    }
+
+    private ArticlePage<ArticleSummary> latestPage(Pageable lookAhead) {
+        List<ArticleSummary> descending = articleRepository.findLatestPublished(lookAhead);
+        List<ArticleSummary> articles = descending.subList(0, Math.min(PAGE_SIZE, descending.size()));
+        ArticleCursor olderCursor = descending.size() > PAGE_SIZE ? cursorOf(articles.get(articles.size() - 1)) : null;
+        return new ArticlePage<>(articles, olderCursor, null);
+    }
+
+    private ArticleCursor cursorOf(ArticleSummary article) {
+        return new ArticleCursor(article.getPublishedAt(), article.getId());
+    }
+
+    private Set<String> slugsOf(String... slugs) {
+        Set<String> result = new HashSet<>();
+        for (String slug : slugs) {
+            if (slug != null) {
+                result.add(slug);
+            }
+        }
+        return result;
+    }
+
     private void applyForm(ArticleForm form, Article article) {
         article.setTitle(form.getTitle());
         article.setSummary(form.getSummary());
         article.setContent(form.getContent());
+        article.setRenderedHtml(contentRenderer.render(form.getContent()));
         article.setPublished(form.isPublished());
 
         String slugCandidate = StringUtils.hasText(form.getSlug()) ? form.getSlug() : form.getTitle();
-        String normalizedSlug = normalizeSlug(slugCandidate);
-        String uniqueSlug = ensureUniqueSlug(normalizedSlug, article.getId());
-        article.setSlug(uniqueSlug);
+        article.setSlug(slugAllocator.allocate(SlugAllocator.normalize(slugCandidate), article.getSlug()));
 
         if (article.isPublished()) {
             if (article.getPublishedAt() == null) {
@@ -79,34 +258,4 @@ public class ArticleService {
             article.setPublishedAt(null);
         }
     }
-
-    private String ensureUniqueSlug(String slug, Long currentId) {
-        String base = slug;
-        if (!StringUtils.hasText(base)) {
-            base = UUID.randomUUID().toString();
-        }
-        String candidate = base;
-        int counter = 1;
-        while (true) {
-            Optional<Article> existing = articleRepository.findBySlug(candidate);
-            if (existing.isEmpty() || existing.get().getId().equals(currentId)) {
-                return candidate;
-            }
-            candidate = base + "-" + counter++;
-        }
-    }
-
-    private String normalizeSlug(String input) {
-        if (!StringUtils.hasText(input)) {
-            return UUID.randomUUID().toString();
-        }
-        String value = Normalizer.normalize(input, Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
-        value = value.toLowerCase(Locale.ENGLISH).replaceAll("[^a-z0-9]+", "-");
-        value = value.replaceAll("^-+", "").replaceAll("-+$", "");
-        if (!StringUtils.hasText(value)) {
-            return UUID.randomUUID().toString();
-        }
-        return value;
-    }
 }
@@ -0,0 +1,36 @@
+package com.example.blog.service;
+
+/**
+ * 一括取り込みで記事がまとめて追加されたことを表す。取り込まれた記事の ID は {@code afterId} より大きい。
+ */
+public class ArticlesImportedEvent {
+
+    private final long afterId;
+    private final int count;
+    private final boolean remote;
+
+    public ArticlesImportedEvent(long afterId, int count) {
+        this(afterId, count, false);
+    }
+
+    /**
+     * @param remote 他のノードでの取り込みを変更ログから再発行したものなら true
+     */
+    public ArticlesImportedEvent(long afterId, int count, boolean remote) {
+        this.afterId = afterId;
+        this.count = count;
+        this.remote = remote;
+    }
+
+    public long getAfterId() {
+        return afterId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -1,29 +1,64 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.UserDetailsCache;
+import com.example.blog.jfr.AuthenticationEvent;
 import com.example.blog.model.UserAccount;
 import com.example.blog.repository.UserAccountRepository;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
-public class BlogUserDetailsService implements UserDetailsService {
+public class BlogUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserAccountRepository userAccountRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final UserAccountService userAccountService;
 
-    public BlogUserDetailsService(UserAccountRepository userAccountRepository) {
+    public BlogUserDetailsService(UserAccountRepository userAccountRepository, UserDetailsCache userDetailsCache,
+                                  UserAccountService userAccountService) {
         this.userAccountRepository = userAccountRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.userAccountService = userAccountService;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserAccount account = userAccountRepository.findByUsername(username)
+        UserDetails cached = userDetailsCache.getUserFromCache(username);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = userDetailsCache.generation();
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        Optional<UserAccount> found = userAccountRepository.findByUsername(username);
+        if (event.shouldCommit()) {
+            event.phase = AuthenticationEvent.LOOKUP;
+            event.username = username;
+            event.success = found.isPresent();
+            event.commit();
+        }
+        UserAccount account = found
                 .orElseThrow(() -> new UsernameNotFoundException("ユーザーが見つかりません: " + username));
-        return User.withUsername(account.getUsername())
+        UserDetails user = User.withUsername(account.getUsername())
                 .password(account.getPassword())
                 .roles(account.getRole().name())
                 .build();
+        userDetailsCache.put(user, generation);
+        return user;
+    }
+
+    /**
+     * BCrypt のコストを変えたあと、ログインに成功したユーザーのハッシュを新しいコストで保存し直す。
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userAccountService.updateEncodedPassword(user.getUsername(), newPassword);
+        return User.withUserDetails(user).password(newPassword).build();
     }
 }
@@ -0,0 +1,131 @@
+package com.example.blog.service;
+
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 記事のスラッグを正規化し、重複しない値を割り当てる。
+ * 同じ基底スラッグを持つ既存スラッグ ({@code base}, {@code base-N}) を 1 回の範囲検索でまとめて取得し、
+ * 最大の連番の次を使うため、衝突の件数に関係なく問い合わせは 1 回で済む。
+ */
+@Component
+public class SlugAllocator {
+
+    private static final char SEPARATOR = '-';
+    private static final int MAX_SUFFIX_DIGITS = 9;
+
+    private final ArticleRepository articleRepository;
+
+    public SlugAllocator(ArticleRepository articleRepository) {
+        this.articleRepository = articleRepository;
+    }
+
+    public static String normalize(String input) {
+        if (!StringUtils.hasText(input)) {
+            return UUID.randomUUID().toString();
+        }
+        String value = Normalizer.normalize(input, Normalizer.Form.NFD)
+                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        value = value.toLowerCase(Locale.ENGLISH).replaceAll("[^a-z0-9]+", "-");
+        value = value.replaceAll("^-+", "").replaceAll("-+$", "");
+        if (!StringUtils.hasText(value)) {
+            return UUID.randomUUID().toString();
+        }
+        return value;
+    }
+
+    /**
+     * 割り当てたスラッグが保存までの間に他の記事に使われ、一意制約に違反したかどうかを返す。
+     */
+    public static boolean isConflict(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Article.SLUG_CONSTRAINT);
+    }
+
+    /**
+     * {@code base} から重複しないスラッグを割り当てる。
+     * 編集中の記事のスラッグ ({@code currentSlug}) が既に同じ系列に属していれば、URL を変えずにそのまま返す。
+     * ただし連番付き ({@code base-N}) のときに {@code base} が空いていれば、{@code base} に戻す。
+     */
+    public String allocate(String base, String currentSlug) {
+        if (base.equals(currentSlug)) {
+            return currentSlug;
+        }
+        if (currentSlug != null && suffixOf(base, currentSlug) >= 0) {
+            return articleRepository.existsBySlug(base) ? currentSlug : base;
+        }
+        List<String> family = findFamily(base);
+        if (!family.contains(base)) {
+            return base;
+        }
+        return base + SEPARATOR + (maxSuffix(base, family) + 1);
+    }
+
+    /**
+     * 一括取り込み用に、複数の基底スラッグへまとめて割り当てる。既存スラッグとの衝突は 1 回の IN 検索で調べ、
+     * 衝突した基底だけ系列を検索する。同じ呼び出しの中での重複はメモリ上で避ける。
+     */
+    public List<String> allocateAll(List<String> bases) {
+        Set<String> existing = new HashSet<>(articleRepository.findExistingSlugs(new HashSet<>(bases)));
+        Set<String> assigned = new HashSet<>();
+        Map<String, Long> nextSuffixes = new HashMap<>();
+        List<String> slugs = new ArrayList<>(bases.size());
+        for (String base : bases) {
+            String slug = base;
+            if (existing.contains(base) || assigned.contains(base)) {
+                long next = nextSuffixes.computeIfAbsent(base, key -> maxSuffix(key, findFamily(key)) + 1);
+                do {
+                    slug = base + SEPARATOR + next++;
+                } while (assigned.contains(slug));
+                nextSuffixes.put(base, next);
+            }
+            assigned.add(slug);
+            slugs.add(slug);
+        }
+        return slugs;
+    }
+
+    private List<String> findFamily(String base) {
+        return articleRepository.findSlugFamily(base, base + SEPARATOR + "%");
+    }
+
+    private static long maxSuffix(String base, List<String> family) {
+        long max = 0;
+        for (String slug : family) {
+            max = Math.max(max, suffixOf(base, slug));
+        }
+        return max;
+    }
+
+    // base 自身は 0、base-N は N、それ以外 (base-draft など) は -1
+    private static long suffixOf(String base, String slug) {
+        if (slug.equals(base)) {
+            return 0;
+        }
+        int start = base.length() + 1;
+        if (!slug.startsWith(base) || slug.length() <= start || slug.length() - start > MAX_SUFFIX_DIGITS
+                || slug.charAt(base.length()) != SEPARATOR) {
+            return -1;
+        }
+        for (int i = start; i < slug.length(); i++) {
+            char c = slug.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(slug, start, slug.length(), 10);
+    }
+}
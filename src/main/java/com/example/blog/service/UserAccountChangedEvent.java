@@ -0,0 +1,35 @@
+package com.example.blog.service;
+
+import java.util.Set;
+
+public class UserAccountChangedEvent {
+
+    private final Long accountId;
+    private final Set<String> usernames;
+    private final boolean remote;
+
+    public UserAccountChangedEvent(Long accountId, Set<String> usernames) {
+        this(accountId, usernames, false);
+    }
+
+    /**
+     * @param remote 他のノードでの変更を変更ログから再発行したものなら true
+     */
+    public UserAccountChangedEvent(Long accountId, Set<String> usernames, boolean remote) {
+        this.accountId = accountId;
+        this.usernames = Set.copyOf(usernames);
+        this.remote = remote;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public Set<String> getUsernames() {
+        return usernames;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -3,13 +3,16 @@ package com.example.blog.service;
 import com.example.blog.dto.AccountForm;
 import com.example.blog.model.UserAccount;
 import com.example.blog.repository.UserAccountRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -17,10 +20,13 @@ public class UserAccountService {
 
     private final UserAccountRepository userAccountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserAccountService(UserAccountRepository userAccountRepository, PasswordEncoder passwordEncoder) {
+    public UserAccountService(UserAccountRepository userAccountRepository, PasswordEncoder passwordEncoder,
+                              ApplicationEventPublisher eventPublisher) {
         this.userAccountRepository = userAccountRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -44,7 +50,9 @@ public class UserAccountService {
         }
         UserAccount account = new UserAccount();
         applyForm(form, account, true);
-        return userAccountRepository.save(account);
+        UserAccount saved = userAccountRepository.save(account);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(saved.getId(), usernamesOf(saved.getUsername())));
+        return saved;
     }
 
     public UserAccount updateAccount(Long id, AccountForm form) {
@@ -54,10 +62,23 @@ public class UserAccountService {
                 && userAccountRepository.existsByUsername(form.getUsername())) {
             throw new IllegalArgumentException("すでに存在するユーザー名です");
         }
+        String previousUsername = account.getUsername();
         applyForm(form, account, false);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(id,
+                usernamesOf(previousUsername, account.getUsername())));
         return account;
     }
 
+    /**
+     * ログイン時に作り直したハッシュを保存する。パスワード自体は変わらない。
+     */
+    public void updateEncodedPassword(String username, String encodedPassword) {
+        UserAccount account = userAccountRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("アカウントが見つかりません: " + username));
+        account.setPassword(encodedPassword);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(account.getId(), usernamesOf(username)));
+    }
+
     public void deleteAccount(Long id) {
         UserAccount account = userAccountRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("アカウントが見つかりません: " + id));
@@ -66,6 +87,7 @@ public class UserAccountService {
             throw new IllegalStateException("最後の管理者アカウントは削除できません");
         }
         userAccountRepository.delete(account);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(id, usernamesOf(account.getUsername())));
     }
 
     private void applyForm(AccountForm form, UserAccount account, boolean creating) {
@@ -77,4 +99,14 @@ public class UserAccountService {
             throw new IllegalArgumentException("パスワードを入力してください");
         }
     }
+
+    private Set<String> usernamesOf(String... usernames) {
+        Set<String> result = new HashSet<>();
+        for (String username : usernames) {
+            if (username != null) {
+                result.add(username);
+            }
+        }
+        return result;
+    }
 }
@@ -0,0 +1,234 @@
+package com.example.blog.session;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * セッションを 1 件 1 ファイルでローカルディスクに保存する。単一ノードで再起動をまたいでセッションを残すためのもので、
+ * ノード間では共有しない。
+ * <p>
+ * ファイルは固定長のヘッダーと属性の並びで構成し、最終アクセス時刻の書き出しはヘッダーの該当位置だけを上書きする。
+ */
+public class FileSessionRepository extends PersistentSessionRepository {
+
+    private static final String SUFFIX = ".session";
+    private static final int MAGIC = 0x42534531;
+    private static final long LAST_ACCESS_OFFSET = 12;
+    private static final int HEADER_LENGTH = 24;
+
+    private final Path directory;
+
+    public FileSessionRepository(Path directory, SessionAttributeCodec codec, Duration defaultMaxInactiveInterval,
+                                 Duration touchFlushInterval) {
+        super(codec, defaultMaxInactiveInterval, touchFlushInterval);
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("セッションの保存先を作成できませんでした: " + directory, ex);
+        }
+    }
+
+    @Override
+    protected StoredSession load(String id) {
+        Path file = fileOf(id);
+        if (file == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file),
+                HEADER_LENGTH))) {
+            Header header = Header.read(in);
+            if (header == null) {
+                return null;
+            }
+            return new StoredSession(id, id, header.creationTime, header.lastAccessedTime,
+                    header.maxInactiveInterval, () -> loadAttributes(file), codec::decode);
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("セッションを読み込めませんでした: " + id, ex);
+        }
+    }
+
+    @Override
+    protected void insert(StoredSession session) {
+        write(session);
+    }
+
+    @Override
+    protected void update(StoredSession session) {
+        write(session);
+        if (session.isIdChanged()) {
+            delete(session.getPersistedId());
+        }
+    }
+
+    @Override
+    protected void delete(String id) {
+        Path file = fileOf(id);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("セッションを削除できませんでした: " + id, ex);
+        }
+    }
+
+    @Override
+    protected int deleteExpired(Instant cutoff) {
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (isExpiredBefore(file, cutoff) && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("期限切れのセッションを走査できませんでした", ex);
+        }
+        return deleted;
+    }
+
+    @Override
+    protected void writeTouches(Map<String, Touch> touches) {
+        touches.forEach((id, touch) -> {
+            Path file = fileOf(id);
+            if (file == null || !Files.exists(file)) {
+                return;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.seek(LAST_ACCESS_OFFSET);
+                raf.writeLong(touch.getLastAccessedTime().toEpochMilli());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("セッションの最終アクセス時刻を書き込めませんでした: " + id, ex);
+            }
+        });
+    }
+
+    @Override
+    protected String touchKey(StoredSession session) {
+        return session.getPersistedId();
+    }
+
+    private void write(StoredSession session) {
+        Map<String, byte[]> attributes = session.encodeAllAttributes(codec::encode);
+        Path file = fileOf(session.getId());
+        try {
+            Path temp = Files.createTempFile(directory, session.getId(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeLong(session.getCreationTime().toEpochMilli());
+                out.writeLong(session.getLastAccessedTime().toEpochMilli());
+                out.writeInt((int) session.getMaxInactiveInterval().toSeconds());
+                out.writeInt(attributes.size());
+                for (Map.Entry<String, byte[]> entry : attributes.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            } catch (IOException ex) {
+                Files.deleteIfExists(temp);
+                throw ex;
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("セッションを保存できませんでした: " + session.getId(), ex);
+        }
+    }
+
+    private Map<String, byte[]> loadAttributes(Path file) {
+        Map<String, byte[]> attributes = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (Header.read(in) == null) {
+                return attributes;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                attributes.put(name, in.readNBytes(in.readInt()));
+            }
+        } catch (NoSuchFileException ex) {
+            // 読み込みの間に削除されたセッションは属性なしとして扱う
+        } catch (IOException ex) {
+            throw new UncheckedIOException("セッションの属性を読み込めませんでした: " + file, ex);
+        }
+        return attributes;
+    }
+
+    private boolean isExpiredBefore(Path file, Instant cutoff) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            Header header = Header.read(new DataInputStream(in));
+            return header == null || header.expiryTime().isBefore(cutoff);
+        } catch (NoSuchFileException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * セッション ID を UUID に限ることで、Cookie の値がファイルパスとして解釈されないようにする。
+     */
+    private Path fileOf(String id) {
+        try {
+            if (!UUID.fromString(id).toString().equals(id)) {
+                return null;
+            }
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        return directory.resolve(id + SUFFIX);
+    }
+
+    private static final class Header {
+
+        private final Instant creationTime;
+        private final Instant lastAccessedTime;
+        private final Duration maxInactiveInterval;
+
+        private Header(Instant creationTime, Instant lastAccessedTime, Duration maxInactiveInterval) {
+            this.creationTime = creationTime;
+            this.lastAccessedTime = lastAccessedTime;
+            this.maxInactiveInterval = maxInactiveInterval;
+        }
+
+        /**
+         * ヘッダーを読む。形式が違うファイルや書きかけのファイルでは null を返す。
+         */
+        private static Header read(DataInputStream in) throws IOException {
+            try {
+                if (in.readInt() != MAGIC) {
+                    return null;
+                }
+                Instant creationTime = Instant.ofEpochMilli(in.readLong());
+                Instant lastAccessedTime = Instant.ofEpochMilli(in.readLong());
+                Duration maxInactiveInterval = Duration.ofSeconds(in.readInt());
+                return new Header(creationTime, lastAccessedTime, maxInactiveInterval);
+            } catch (EOFException ex) {
+                return null;
+            }
+        }
+
+        private Instant expiryTime() {
+            return maxInactiveInterval.isNegative()
+                    ? StoredSession.NEVER_EXPIRES : lastAccessedTime.plus(maxInactiveInterval);
+        }
+    }
+}
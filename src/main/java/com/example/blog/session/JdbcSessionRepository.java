@@ -0,0 +1,156 @@
+package com.example.blog.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * セッションを既存のデータソースの blog_sessions / blog_session_attributes に保存する。
+ * 複数ノードで同じデータベースを共有すれば、どのノードでも同じ管理者セッションを使える。
+ */
+public class JdbcSessionRepository extends PersistentSessionRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcSessionRepository.class);
+
+    static final String SCHEMA_LOCATION = "session/schema.sql";
+
+    private static final String SELECT_SESSION = "SELECT primary_id, creation_time, last_access_time,"
+            + " max_inactive_seconds FROM blog_sessions WHERE session_id = ?";
+    private static final String SELECT_ATTRIBUTES = "SELECT attribute_name, attribute_bytes"
+            + " FROM blog_session_attributes WHERE session_primary_id = ?";
+    private static final String INSERT_SESSION = "INSERT INTO blog_sessions (primary_id, session_id, creation_time,"
+            + " last_access_time, max_inactive_seconds, expiry_time) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SESSION = "UPDATE blog_sessions SET session_id = ?, last_access_time = ?,"
+            + " max_inactive_seconds = ?, expiry_time = ? WHERE primary_id = ?";
+    private static final String TOUCH_SESSION = "UPDATE blog_sessions SET last_access_time = ?, expiry_time = ?"
+            + " WHERE primary_id = ? AND last_access_time < ?";
+    private static final String INSERT_ATTRIBUTE = "INSERT INTO blog_session_attributes"
+            + " (session_primary_id, attribute_name, attribute_bytes) VALUES (?, ?, ?)";
+    private static final String DELETE_ATTRIBUTE = "DELETE FROM blog_session_attributes"
+            + " WHERE session_primary_id = ? AND attribute_name = ?";
+    private static final String DELETE_SESSION = "DELETE FROM blog_sessions WHERE session_id = ?";
+    private static final String DELETE_EXPIRED = "DELETE FROM blog_sessions WHERE expiry_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcSessionRepository(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                 SessionAttributeCodec codec, Duration defaultMaxInactiveInterval,
+                                 Duration touchFlushInterval) {
+        super(codec, defaultMaxInactiveInterval, touchFlushInterval);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void initializeSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_LOCATION)).execute(jdbcTemplate.getDataSource());
+    }
+
+    @Override
+    protected StoredSession load(String id) {
+        List<StoredSession> found = jdbcTemplate.query(SELECT_SESSION, (rs, rowNum) -> {
+            String primaryId = rs.getString("primary_id");
+            return new StoredSession(primaryId, id,
+                    Instant.ofEpochMilli(rs.getLong("creation_time")),
+                    Instant.ofEpochMilli(rs.getLong("last_access_time")),
+                    Duration.ofSeconds(rs.getInt("max_inactive_seconds")),
+                    () -> loadAttributes(primaryId),
+                    codec::decode);
+        }, id);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    protected void insert(StoredSession session) {
+        Map<String, byte[]> attributes = session.encodeAllAttributes(codec::encode);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(INSERT_SESSION, session.getPrimaryId(), session.getId(),
+                    session.getCreationTime().toEpochMilli(), session.getLastAccessedTime().toEpochMilli(),
+                    (int) session.getMaxInactiveInterval().toSeconds(), session.getExpiryTime().toEpochMilli());
+            insertAttributes(session.getPrimaryId(), attributes);
+        });
+    }
+
+    @Override
+    protected void update(StoredSession session) {
+        Map<String, byte[]> changes = session.encodeChangedAttributes(codec::encode);
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = jdbcTemplate.update(UPDATE_SESSION, session.getId(),
+                    session.getLastAccessedTime().toEpochMilli(), (int) session.getMaxInactiveInterval().toSeconds(),
+                    session.getExpiryTime().toEpochMilli(), session.getPrimaryId());
+            if (updated == 0) {
+                // 他のノードでのログアウトや期限切れの掃除で削除済み。作り直すとログアウトを取り消してしまうので書き込まない
+                log.debug("削除済みのセッションへの変更を破棄しました");
+                return;
+            }
+            if (changes.isEmpty()) {
+                return;
+            }
+            List<Object[]> deletes = new ArrayList<>();
+            Map<String, byte[]> inserts = new HashMap<>();
+            changes.forEach((name, bytes) -> {
+                deletes.add(new Object[] {session.getPrimaryId(), name});
+                if (bytes != null) {
+                    inserts.put(name, bytes);
+                }
+            });
+            jdbcTemplate.batchUpdate(DELETE_ATTRIBUTE, deletes);
+            insertAttributes(session.getPrimaryId(), inserts);
+        });
+    }
+
+    @Override
+    protected void delete(String id) {
+        jdbcTemplate.update(DELETE_SESSION, id);
+    }
+
+    @Override
+    protected int deleteExpired(Instant cutoff) {
+        return jdbcTemplate.update(DELETE_EXPIRED, cutoff.toEpochMilli());
+    }
+
+    @Override
+    protected void writeTouches(Map<String, Touch> touches) {
+        List<Object[]> batch = new ArrayList<>(touches.size());
+        touches.forEach((primaryId, touch) -> {
+            long lastAccessedTime = touch.getLastAccessedTime().toEpochMilli();
+            batch.add(new Object[] {lastAccessedTime, touch.getExpiryTime().toEpochMilli(), primaryId,
+                    lastAccessedTime});
+        });
+        jdbcTemplate.batchUpdate(TOUCH_SESSION, batch);
+    }
+
+    @Override
+    protected String touchKey(StoredSession session) {
+        return session.getPrimaryId();
+    }
+
+    private Map<String, byte[]> loadAttributes(String primaryId) {
+        Map<String, byte[]> attributes = new HashMap<>();
+        jdbcTemplate.query(SELECT_ATTRIBUTES, rs -> {
+            attributes.put(rs.getString("attribute_name"), rs.getBytes("attribute_bytes"));
+        }, primaryId);
+        return attributes;
+    }
+
+    private void insertAttributes(String primaryId, Map<String, byte[]> attributes) {
+        if (attributes.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(attributes.size());
+        attributes.forEach((name, bytes) -> batch.add(new Object[] {primaryId, name, bytes}));
+        jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE, batch);
+    }
+}
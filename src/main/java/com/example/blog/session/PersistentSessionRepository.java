@@ -0,0 +1,206 @@
+package com.example.blog.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * セッションを外部ストアに保存するリポジトリの共通部分。
+ * <p>
+ * 属性が変わらず最終アクセス時刻だけが進んだリクエストでは書き込まず、{@code touchFlushInterval} ごとにまとめて書き出す。
+ * そのため他のノードから見た最終アクセス時刻は最大でその間隔だけ古く、期限切れの判定と掃除はその分だけ猶予を持たせる。
+ */
+public abstract class PersistentSessionRepository implements SessionRepository<StoredSession>, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentSessionRepository.class);
+
+    protected final SessionAttributeCodec codec;
+    private final Duration defaultMaxInactiveInterval;
+    private final Duration touchFlushInterval;
+    private final ConcurrentHashMap<String, Touch> pendingTouches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService maintenance;
+
+    protected PersistentSessionRepository(SessionAttributeCodec codec, Duration defaultMaxInactiveInterval,
+                                          Duration touchFlushInterval) {
+        this.codec = codec;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.touchFlushInterval = touchFlushInterval;
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 最終アクセス時刻の書き出しと、期限切れセッションの掃除を定期的に始める。
+     */
+    public void start(Duration cleanupInterval) {
+        long flushMillis = touchFlushInterval.toMillis();
+        if (flushMillis > 0) {
+            maintenance.scheduleWithFixedDelay(this::flushTouchesQuietly, flushMillis, flushMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        long cleanupMillis = cleanupInterval.toMillis();
+        if (cleanupMillis > 0) {
+            maintenance.scheduleWithFixedDelay(this::cleanUpQuietly, cleanupMillis, cleanupMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public StoredSession createSession() {
+        return StoredSession.create(defaultMaxInactiveInterval);
+    }
+
+    @Override
+    public void save(StoredSession session) {
+        if (session.isNew()) {
+            insert(session);
+        } else if (session.hasChanges()) {
+            pendingTouches.remove(touchKey(session));
+            update(session);
+        } else if (session.isTouched()) {
+            pendingTouches.merge(touchKey(session), new Touch(session), Touch::latest);
+        } else {
+            return;
+        }
+        session.markPersisted();
+    }
+
+    @Override
+    public StoredSession findById(String id) {
+        StoredSession session = load(id);
+        if (session == null) {
+            return null;
+        }
+        Touch pending = pendingTouches.get(touchKey(session));
+        if (pending != null && pending.lastAccessedTime.isAfter(session.getLastAccessedTime())) {
+            session.applyPendingTouch(pending.lastAccessedTime);
+        }
+        if (session.isExpired(Instant.now().minus(touchFlushInterval))) {
+            deleteById(id);
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delete(id);
+    }
+
+    /**
+     * 溜まっている最終アクセス時刻をまとめて書き出す。
+     */
+    public void flushTouches() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+        Map<String, Touch> batch = new HashMap<>();
+        for (Map.Entry<String, Touch> entry : pendingTouches.entrySet()) {
+            if (pendingTouches.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeTouches(batch);
+        }
+    }
+
+    /**
+     * 期限切れのセッションを削除し、削除した件数を返す。
+     */
+    public int cleanUpExpiredSessions() {
+        flushTouches();
+        return deleteExpired(Instant.now().minus(touchFlushInterval));
+    }
+
+    int pendingTouchCount() {
+        return pendingTouches.size();
+    }
+
+    @Override
+    public void close() {
+        maintenance.shutdown();
+        try {
+            if (!maintenance.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("セッションの保守処理が終了しませんでした");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flushTouchesQuietly();
+    }
+
+    protected abstract StoredSession load(String id);
+
+    protected abstract void insert(StoredSession session);
+
+    protected abstract void update(StoredSession session);
+
+    protected abstract void delete(String id);
+
+    /**
+     * 期限が {@code cutoff} より前のセッションを削除する。
+     */
+    protected abstract int deleteExpired(Instant cutoff);
+
+    protected abstract void writeTouches(Map<String, Touch> touches);
+
+    /**
+     * 溜めている最終アクセス時刻を保存先で特定するためのキー。
+     */
+    protected abstract String touchKey(StoredSession session);
+
+    private void flushTouchesQuietly() {
+        try {
+            flushTouches();
+        } catch (RuntimeException ex) {
+            log.warn("セッションの最終アクセス時刻を書き出せませんでした", ex);
+        }
+    }
+
+    private void cleanUpQuietly() {
+        try {
+            int deleted = cleanUpExpiredSessions();
+            if (deleted > 0) {
+                log.debug("期限切れのセッションを {} 件削除しました", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("期限切れのセッションを削除できませんでした", ex);
+        }
+    }
+
+    protected static final class Touch {
+
+        private final Instant lastAccessedTime;
+        private final Instant expiryTime;
+
+        Touch(StoredSession session) {
+            this.lastAccessedTime = session.getLastAccessedTime();
+            this.expiryTime = session.getExpiryTime();
+        }
+
+        public Instant getLastAccessedTime() {
+            return lastAccessedTime;
+        }
+
+        public Instant getExpiryTime() {
+            return expiryTime;
+        }
+
+        private static Touch latest(Touch a, Touch b) {
+            return a.lastAccessedTime.isAfter(b.lastAccessedTime) ? a : b;
+        }
+    }
+}
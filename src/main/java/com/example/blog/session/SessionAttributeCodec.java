@@ -0,0 +1,81 @@
+package com.example.blog.session;
+
+import org.springframework.core.serializer.DefaultDeserializer;
+import org.springframework.core.serializer.DefaultSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * セッション属性の値を 1 つずつバイト列にする。先頭 1 バイトが形式で、
+ * Java シリアライズの結果が {@link #COMPRESS_THRESHOLD} バイトを超えるときだけ Deflate で圧縮する
+ * (SecurityContext は 1 KB 前後になるが、繰り返しの多いクラス名が大半なので半分以下に縮む)。
+ */
+public class SessionAttributeCodec {
+
+    static final int COMPRESS_THRESHOLD = 256;
+
+    static final byte PLAIN = 0;
+    static final byte DEFLATED = 1;
+
+    private final DefaultSerializer serializer = new DefaultSerializer();
+    private final DefaultDeserializer deserializer;
+
+    public SessionAttributeCodec(ClassLoader classLoader) {
+        this.deserializer = new DefaultDeserializer(classLoader);
+    }
+
+    public byte[] encode(Object value) {
+        try {
+            byte[] serialized = serializer.serializeToByteArray(value);
+            if (serialized.length <= COMPRESS_THRESHOLD) {
+                return prepend(PLAIN, serialized);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(serialized.length / 2);
+            out.write(DEFLATED);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+            try (DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater)) {
+                deflated.write(serialized);
+            } finally {
+                deflater.end();
+            }
+            return out.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("セッション属性をシリアライズできません: " + value.getClass().getName(), ex);
+        }
+    }
+
+    public Object decode(byte[] bytes) {
+        try {
+            if (bytes[0] == PLAIN) {
+                return deserializer.deserializeFromByteArray(Arrays.copyOfRange(bytes, 1, bytes.length));
+            }
+            if (bytes[0] != DEFLATED) {
+                throw new IOException("不明な形式です: " + bytes[0]);
+            }
+            ByteArrayInputStream in = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+            Inflater inflater = new Inflater(true);
+            try (InflaterInputStream inflated = new InflaterInputStream(in, inflater)) {
+                return deserializer.deserialize(inflated);
+            } finally {
+                inflater.end();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("セッション属性を復元できません", ex);
+        }
+    }
+
+    private static byte[] prepend(byte format, byte[] bytes) {
+        byte[] result = new byte[bytes.length + 1];
+        result[0] = format;
+        System.arraycopy(bytes, 0, result, 1, bytes.length);
+        return result;
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.blog.session;
+
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 外部ストアに保存するセッション。属性は最初に参照されたときにまとめて読み込み、値の復元は属性ごとに遅らせる。
+ * 保存時に書き込むのは変更された属性だけ。
+ */
+public class StoredSession implements Session {
+
+    static final Instant NEVER_EXPIRES = Instant.ofEpochMilli(Long.MAX_VALUE);
+
+    private final String primaryId;
+    private final Instant creationTime;
+    private boolean isNew;
+    private String id;
+    private String persistedId;
+    private Instant lastAccessedTime;
+    private Instant persistedLastAccessedTime;
+    private Duration maxInactiveInterval;
+    private boolean maxInactiveIntervalChanged;
+    private Supplier<Map<String, byte[]>> attributeLoader;
+    private final Function<byte[], Object> attributeDecoder;
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final Map<String, byte[]> encodedAttributes = new HashMap<>();
+    private final Set<String> changedAttributes = new HashSet<>();
+
+    static StoredSession create(Duration maxInactiveInterval) {
+        Instant now = Instant.now();
+        return new StoredSession(UUID.randomUUID().toString(), UUID.randomUUID().toString(), now, now,
+                maxInactiveInterval, true, null, bytes -> {
+                    throw new IllegalStateException("新しいセッションに保存済みの属性はありません");
+                });
+    }
+
+    StoredSession(String primaryId, String id, Instant creationTime, Instant lastAccessedTime,
+                  Duration maxInactiveInterval, Supplier<Map<String, byte[]>> attributeLoader,
+                  Function<byte[], Object> attributeDecoder) {
+        this(primaryId, id, creationTime, lastAccessedTime, maxInactiveInterval, false, attributeLoader,
+                attributeDecoder);
+    }
+
+    private StoredSession(String primaryId, String id, Instant creationTime, Instant lastAccessedTime,
+                          Duration maxInactiveInterval, boolean isNew, Supplier<Map<String, byte[]>> attributeLoader,
+                          Function<byte[], Object> attributeDecoder) {
+        this.primaryId = primaryId;
+        this.id = id;
+        this.persistedId = id;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.persistedLastAccessedTime = lastAccessedTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.isNew = isNew;
+        this.attributeLoader = attributeLoader;
+        this.attributeDecoder = attributeDecoder;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String changeSessionId() {
+        id = UUID.randomUUID().toString();
+        return id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String attributeName) {
+        loadAttributes();
+        Object value = attributes.get(attributeName);
+        if (value == null) {
+            byte[] encoded = encodedAttributes.remove(attributeName);
+            if (encoded != null) {
+                value = attributeDecoder.apply(encoded);
+                attributes.put(attributeName, value);
+            }
+        }
+        return (T) value;
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        loadAttributes();
+        Set<String> names = new HashSet<>(attributes.keySet());
+        names.addAll(encodedAttributes.keySet());
+        return names;
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        if (attributeValue == null) {
+            removeAttribute(attributeName);
+            return;
+        }
+        loadAttributes();
+        encodedAttributes.remove(attributeName);
+        attributes.put(attributeName, attributeValue);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        loadAttributes();
+        boolean removed = attributes.remove(attributeName) != null | encodedAttributes.remove(attributeName) != null;
+        if (removed) {
+            changedAttributes.add(attributeName);
+        }
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        this.lastAccessedTime = lastAccessedTime;
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        if (!interval.equals(maxInactiveInterval)) {
+            maxInactiveInterval = interval;
+            maxInactiveIntervalChanged = true;
+        }
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return isExpired(Instant.now());
+    }
+
+    boolean isExpired(Instant now) {
+        return !maxInactiveInterval.isNegative() && !now.isBefore(lastAccessedTime.plus(maxInactiveInterval));
+    }
+
+    Instant getExpiryTime() {
+        return maxInactiveInterval.isNegative() ? NEVER_EXPIRES : lastAccessedTime.plus(maxInactiveInterval);
+    }
+
+    String getPrimaryId() {
+        return primaryId;
+    }
+
+    String getPersistedId() {
+        return persistedId;
+    }
+
+    boolean isNew() {
+        return isNew;
+    }
+
+    boolean isIdChanged() {
+        return !id.equals(persistedId);
+    }
+
+    boolean isAttributesLoaded() {
+        return attributeLoader == null;
+    }
+
+    /**
+     * 最終アクセス時刻以外に書き込むべき変更があるか。
+     */
+    boolean hasChanges() {
+        return isNew || isIdChanged() || maxInactiveIntervalChanged || !changedAttributes.isEmpty();
+    }
+
+    boolean isTouched() {
+        return !lastAccessedTime.equals(persistedLastAccessedTime);
+    }
+
+    /**
+     * 変更された属性を符号化して返す。値が null の要素は削除された属性を表す。
+     */
+    Map<String, byte[]> encodeChangedAttributes(Function<Object, byte[]> encoder) {
+        Map<String, byte[]> changes = new HashMap<>();
+        for (String name : changedAttributes) {
+            Object value = attributes.get(name);
+            changes.put(name, value == null ? null : encoder.apply(value));
+        }
+        return changes;
+    }
+
+    /**
+     * すべての属性を符号化して返す。復元していない属性は読み込んだときのバイト列をそのまま使う。
+     */
+    Map<String, byte[]> encodeAllAttributes(Function<Object, byte[]> encoder) {
+        loadAttributes();
+        Map<String, byte[]> all = new HashMap<>(encodedAttributes);
+        attributes.forEach((name, value) -> all.put(name, encoder.apply(value)));
+        return all;
+    }
+
+    /**
+     * このノードでまだ書き出していない最終アクセス時刻を反映する。書き出し待ちなので変更としては扱わない。
+     */
+    void applyPendingTouch(Instant pendingLastAccessedTime) {
+        lastAccessedTime = pendingLastAccessedTime;
+        persistedLastAccessedTime = pendingLastAccessedTime;
+    }
+
+    void markPersisted() {
+        isNew = false;
+        persistedId = id;
+        persistedLastAccessedTime = lastAccessedTime;
+        maxInactiveIntervalChanged = false;
+        changedAttributes.clear();
+    }
+
+    private void loadAttributes() {
+        if (attributeLoader == null) {
+            return;
+        }
+        Supplier<Map<String, byte[]>> loader = attributeLoader;
+        attributeLoader = null;
+        encodedAttributes.putAll(loader.get());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.blog.view;
+
+import com.example.blog.cache.RenderedPageCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.View;
+
+import java.util.Map;
+
+public class CachingView implements View {
+
+    public static final String CACHE_KEY_ATTRIBUTE = "renderedPageKey";
+    public static final String CACHE_VERSION_ATTRIBUTE = "renderedPageVersion";
+
+    private final View delegate;
+    private final RenderedPageCache pageCache;
+
+    public CachingView(View delegate, RenderedPageCache pageCache) {
+        this.delegate = delegate;
+        this.pageCache = pageCache;
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    @Override
+    public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        Object key = model == null ? null : model.get(CACHE_KEY_ATTRIBUTE);
+        Object version = model == null ? null : model.get(CACHE_VERSION_ATTRIBUTE);
+        if (key == null || version == null) {
+            delegate.render(model, request, response);
+            return;
+        }
+        RenderedPage page = pageCache.get(key.toString(), version.toString());
+        if (page == null) {
+            long generation = pageCache.generation();
+            CapturingResponseWrapper capture = new CapturingResponseWrapper(response);
+            delegate.render(model, request, capture);
+            byte[] body = capture.toByteArray();
+            // 圧縮は版ごとに一度だけ行い、以降のリクエストでは圧縮済みのバイト列をそのまま返す
+            page = new RenderedPage(version.toString(), capture.getContentType(), body, ContentEncoding.gzip(body));
+            pageCache.put(key.toString(), page, generation);
+        }
+        byte[] body = page.getBody();
+        ContentEncoding.addVaryAcceptEncoding(response);
+        if (page.getGzipBody() != null && ContentEncoding.acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, ContentEncoding.GZIP);
+            body = page.getGzipBody();
+        }
+        response.setContentType(page.getContentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
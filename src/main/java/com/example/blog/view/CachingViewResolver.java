@@ -0,0 +1,41 @@
+package com.example.blog.view;
+
+import com.example.blog.cache.RenderedPageCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.util.Locale;
+import java.util.Set;
+
+@Component
+public class CachingViewResolver implements ViewResolver, Ordered {
+
+    private static final Set<String> CACHEABLE_VIEWS = Set.of("blog/article", "blog/index");
+
+    private final ViewResolver templateViewResolver;
+    private final RenderedPageCache pageCache;
+
+    // 描画時間を計測するため、キャッシュが外れたときの描画は TimedViewResolver のビューに任せる
+    public CachingViewResolver(@Qualifier("timedViewResolver") ViewResolver templateViewResolver,
+                               RenderedPageCache pageCache) {
+        this.templateViewResolver = templateViewResolver;
+        this.pageCache = pageCache;
+    }
+
+    @Override
+    public View resolveViewName(String viewName, Locale locale) throws Exception {
+        if (!CACHEABLE_VIEWS.contains(viewName)) {
+            return null;
+        }
+        View view = templateViewResolver.resolveViewName(viewName, locale);
+        return view == null ? null : new CachingView(view, pageCache);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+}
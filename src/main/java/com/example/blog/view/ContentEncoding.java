@@ -0,0 +1,97 @@
+package com.example.blog.view;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 描画済みページを一度だけ gzip 圧縮しておき、Accept-Encoding に応じて使い分けるための補助。
+ */
+public final class ContentEncoding {
+
+    public static final String GZIP = "gzip";
+
+    static final int MIN_COMPRESSIBLE_SIZE = 512;
+
+    private ContentEncoding() {
+    }
+
+    /**
+     * 最大圧縮率で gzip 圧縮する。小さすぎる、または圧縮しても小さくならない場合は {@code null}。
+     */
+    public static byte[] gzip(byte[] body) {
+        if (body.length < MIN_COMPRESSIBLE_SIZE) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 3);
+        try (OutputStream gzip = new BestCompressionGzipOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        byte[] compressed = buffer.toByteArray();
+        return compressed.length < body.length ? compressed : null;
+    }
+
+    public static boolean acceptsGzip(HttpServletRequest request) {
+        Double gzip = null;
+        Double wildcard = null;
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = quality(parts);
+                if (GZIP.equals(name) || "x-gzip".equals(name)) {
+                    gzip = quality;
+                } else if ("*".equals(name)) {
+                    wildcard = quality;
+                }
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    public static void addVaryAcceptEncoding(HttpServletResponse response) {
+        for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+            if (vary.toLowerCase(Locale.ROOT).contains("accept-encoding")) {
+                return;
+            }
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static final class BestCompressionGzipOutputStream extends GZIPOutputStream {
+
+        private BestCompressionGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.blog.view;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+/**
+ * 本文をそのまま元のレスポンスに流しながら、書き込まれたバイト数を数える。
+ */
+class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+    private long byteCount;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CountingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        return countingStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (outputStream != null && writer == null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(countingStream(), Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    long getByteCount() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return byteCount;
+    }
+
+    private ServletOutputStream countingStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+            outputStream = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return target.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    target.setWriteListener(listener);
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    byteCount++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    byteCount += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+            };
+        }
+        return outputStream;
+    }
+}
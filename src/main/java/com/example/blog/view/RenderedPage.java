@@ -0,0 +1,32 @@
+package com.example.blog.view;
+
+public class RenderedPage {
+
+    private final String version;
+    private final String contentType;
+    private final byte[] body;
+    private final byte[] gzipBody;
+
+    public RenderedPage(String version, String contentType, byte[] body, byte[] gzipBody) {
+        this.version = version;
+        this.contentType = contentType;
+        this.body = body;
+        this.gzipBody = gzipBody;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+}
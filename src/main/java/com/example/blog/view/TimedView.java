@@ -0,0 +1,49 @@
+package com.example.blog.view;
+
+import com.example.blog.jfr.TemplateRenderEvent;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.View;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class TimedView implements View {
+
+    private final String viewName;
+    private final View delegate;
+    private final Timer timer;
+
+    public TimedView(String viewName, View delegate, Timer timer) {
+        this.viewName = viewName;
+        this.delegate = delegate;
+        this.timer = timer;
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    @Override
+    public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        TemplateRenderEvent event = new TemplateRenderEvent();
+        // バイト数を数えるためのラップは JFR でイベントが有効なときだけ行う
+        CountingResponseWrapper counting = event.isEnabled() ? new CountingResponseWrapper(response) : null;
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            delegate.render(model, request, counting != null ? counting : response);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (counting != null && event.shouldCommit()) {
+                event.viewName = viewName;
+                event.bytes = counting.getByteCount();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.blog.view;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.view.AbstractCachingViewResolver;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.util.Locale;
+
+/**
+ * Thymeleaf テンプレートの描画時間をテンプレート名ごとのタイマー ({@value #METRIC_NAME}) で計測する。
+ * ラップしたビューはテンプレート名ごとにキャッシュされ、タイマーも解決時に一度だけ登録するので、
+ * 描画のたびに記録以外の処理は発生しない。リダイレクトとフォワードは対象外。
+ */
+@Component
+public class TimedViewResolver extends AbstractCachingViewResolver implements Ordered {
+
+    public static final String METRIC_NAME = "blog.view.render";
+
+    private final ThymeleafViewResolver thymeleafViewResolver;
+    private final MeterRegistry meterRegistry;
+
+    public TimedViewResolver(ThymeleafViewResolver thymeleafViewResolver, MeterRegistry meterRegistry) {
+        this.thymeleafViewResolver = thymeleafViewResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected View loadView(String viewName, Locale locale) throws Exception {
+        if (viewName.startsWith(UrlBasedViewResolver.REDIRECT_URL_PREFIX)
+                || viewName.startsWith(UrlBasedViewResolver.FORWARD_URL_PREFIX)) {
+            return null;
+        }
+        View view = thymeleafViewResolver.resolveViewName(viewName, locale);
+        if (view == null) {
+            return null;
+        }
+        Timer timer = Timer.builder(METRIC_NAME)
+                .description("Thymeleaf テンプレートの描画時間")
+                .tag("view", viewName)
+                .register(meterRegistry);
+        return new TimedView(viewName, view, timer);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 20;
+    }
+}
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS blog_sessions (
+    primary_id CHAR(36) NOT NULL,
+    session_id CHAR(36) NOT NULL,
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_seconds INT NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    CONSTRAINT pk_blog_sessions PRIMARY KEY (primary_id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ix_blog_sessions_session_id ON blog_sessions (session_id);
+CREATE INDEX IF NOT EXISTS ix_blog_sessions_expiry_time ON blog_sessions (expiry_time);
+
+CREATE TABLE IF NOT EXISTS blog_session_attributes (
+    session_primary_id CHAR(36) NOT NULL,
+    attribute_name VARCHAR(200) NOT NULL,
+    attribute_bytes BLOB NOT NULL,
+    CONSTRAINT pk_blog_session_attributes PRIMARY KEY (session_primary_id, attribute_name),
+    CONSTRAINT fk_blog_session_attributes FOREIGN KEY (session_primary_id)
+        REFERENCES blog_sessions (primary_id) ON DELETE CASCADE
+);
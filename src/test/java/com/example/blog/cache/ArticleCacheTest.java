@@ -0,0 +1,57 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.Article;
+import com.example.blog.service.ArticleChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleCacheTest {
+
+    @Test
+    void articleChangedEventInvalidatesEverySlug() {
+        ArticleCache cache = new ArticleCache(10);
+        Article renamed = new Article();
+        cache.put("old-slug", renamed, cache.generation());
+        cache.put("other", new Article(), cache.generation());
+
+        cache.onArticleChanged(new ArticleChangedEvent(1L, Set.of("old-slug", "new-slug")));
+
+        assertThat(cache.get("old-slug")).isNull();
+        assertThat(cache.get("other")).isNotNull();
+    }
+
+    @Test
+    void loadStartedBeforeInvalidationIsNotCached() {
+        ArticleCache cache = new ArticleCache(10);
+        long generation = cache.generation();
+
+        cache.onArticleChanged(new ArticleChangedEvent(1L, Set.of("slug")));
+        cache.put("slug", new Article(), generation);
+
+        assertThat(cache.get("slug")).isNull();
+        assertThat(cache.stats().getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsAndEvictionsAreExposedAsMetrics() {
+        ArticleCache cache = new ArticleCache(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put("first", new Article(), cache.generation());
+        cache.put("second", new Article(), cache.generation());
+
+        cache.get("first");
+        cache.get("second");
+
+        assertThat(registry.get("blog.cache.articles.requests").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("blog.cache.articles.requests").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("blog.cache.articles.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("blog.cache.articles.size").gauge().value()).isEqualTo(1);
+    }
+}
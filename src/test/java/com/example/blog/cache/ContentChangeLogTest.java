@@ -0,0 +1,156 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.ContentChange;
+import com.example.blog.repository.ContentChangeRepository;
+import com.example.blog.service.ArticleChangedEvent;
+import com.example.blog.service.ArticlesImportedEvent;
+import com.example.blog.service.UserAccountChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContentChangeLogTest {
+
+    private static final String NODE = "node-a";
+
+    @Mock
+    private ContentChangeRepository repository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ContentChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findMaxId()).thenReturn(10L);
+        when(repository.findIdsGreaterThan(0L)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L));
+        changeLog = new ContentChangeLog(repository, eventPublisher, transactionManager, NODE, Duration.ofHours(1));
+    }
+
+    @Test
+    void localEventsAreAppendedWithTheNodeId() {
+        changeLog.onArticleChanged(new ArticleChangedEvent(1L, Set.of("hello")));
+
+        ArgumentCaptor<ContentChange> saved = ArgumentCaptor.forClass(ContentChange.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getKind()).isEqualTo(ContentChange.Kind.ARTICLE);
+        assertThat(saved.getValue().getKeys()).containsExactly("hello");
+        assertThat(saved.getValue().getOrigin()).isEqualTo(NODE);
+    }
+
+    @Test
+    void replayedEventsAreNotAppendedAgain() {
+        changeLog.onArticleChanged(new ArticleChangedEvent(1L, Set.of("hello"), true));
+        changeLog.onUserAccountChanged(new UserAccountChangedEvent(1L, Set.of("alice"), true));
+        changeLog.onArticlesImported(new ArticlesImportedEvent(5L, 3, true));
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void remoteChangesAreMergedPerEntityAndOwnChangesSkipped() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                change(11L, ContentChange.Kind.ARTICLE, 1L, Set.of("old-slug"), "node-b"),
+                change(12L, ContentChange.Kind.ARTICLE, 1L, Set.of("new-slug"), "node-b"),
+                change(13L, ContentChange.Kind.USER_ACCOUNT, 2L, Set.of("alice"), NODE),
+                change(14L, ContentChange.Kind.ARTICLES_IMPORTED, 20L, Set.of("5"), "node-c"),
+                change(15L, ContentChange.Kind.ARTICLES_IMPORTED, 25L, Set.of("7"), "node-b")));
+
+        assertThat(changeLog.poll()).isEqualTo(4);
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        ArticleChangedEvent article = (ArticleChangedEvent) events.getAllValues().get(0);
+        assertThat(article.isRemote()).isTrue();
+        assertThat(article.getSlugs()).containsExactlyInAnyOrder("old-slug", "new-slug");
+        ArticlesImportedEvent imported = (ArticlesImportedEvent) events.getAllValues().get(1);
+        assertThat(imported.getAfterId()).isEqualTo(20L);
+        assertThat(imported.getCount()).isEqualTo(12);
+    }
+
+    @Test
+    void changesCommittedOutOfOrderAreNotMissed() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                change(12L, ContentChange.Kind.ARTICLE, 2L, Set.of("second"), "node-b")));
+        changeLog.poll();
+        assertThat(changeLog.gapCount()).isEqualTo(1);
+
+        when(repository.findByIdInOrderByIdAsc(anyCollection())).thenReturn(List.of(
+                change(11L, ContentChange.Kind.ARTICLE, 1L, Set.of("first"), "node-b")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(12L), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(changeLog.poll()).isEqualTo(1);
+        assertThat(changeLog.gapCount()).isZero();
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(((ArticleChangedEvent) events.getAllValues().get(1)).getSlugs()).containsExactly("first");
+    }
+
+    @Test
+    void changesNumberedBeforeStartupButCommittedAfterAreNotMissed() {
+        when(repository.findMaxId()).thenReturn(10L);
+        when(repository.findIdsGreaterThan(0L)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 9L, 10L));
+        ContentChangeLog restarted = new ContentChangeLog(repository, eventPublisher, transactionManager, NODE,
+                Duration.ofHours(1));
+        assertThat(restarted.gapCount()).isEqualTo(1);
+
+        when(repository.findByIdInOrderByIdAsc(List.of(8L))).thenReturn(List.of(
+                change(8L, ContentChange.Kind.ARTICLE, 1L, Set.of("late"), "node-b")));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(restarted.poll()).isEqualTo(1);
+        assertThat(restarted.gapCount()).isZero();
+        ArgumentCaptor<ArticleChangedEvent> event = ArgumentCaptor.forClass(ArticleChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getSlugs()).containsExactly("late");
+    }
+
+    @Test
+    void failingListenerDoesNotStopOtherInvalidations() {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                change(11L, ContentChange.Kind.ARTICLE, 1L, Set.of("a"), "node-b"),
+                change(12L, ContentChange.Kind.USER_ACCOUNT, 2L, Set.of("alice"), "node-b")));
+        doThrow(new IllegalStateException("boom"))
+                .when(eventPublisher).publishEvent(any(ArticleChangedEvent.class));
+
+        assertThat(changeLog.poll()).isEqualTo(2);
+
+        verify(eventPublisher).publishEvent(any(UserAccountChangedEvent.class));
+    }
+
+    private static ContentChange change(Long id, ContentChange.Kind kind, Long entityId, Set<String> keys,
+                                        String origin) {
+        ContentChange change = new ContentChange();
+        change.setId(id);
+        change.setKind(kind);
+        change.setEntityId(entityId);
+        change.setKeys(keys);
+        change.setOrigin(origin);
+        return change;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.blog.cache;
+
+import com.example.blog.dto.ArticleFeedVersion;
+import com.example.blog.service.ArticleChangedEvent;
+import com.example.blog.service.ArticlesImportedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedVersionCacheTest {
+
+    private final ArticleFeedVersion version = new ArticleFeedVersion(3L, LocalDateTime.of(2024, 3, 1, 9, 0));
+
+    @Test
+    void articleChangesAndImportsInvalidateTheVersion() {
+        FeedVersionCache cache = new FeedVersionCache();
+        cache.put(version, cache.generation());
+        assertThat(cache.get()).isSameAs(version);
+
+        cache.onArticleChanged(new ArticleChangedEvent(1L, Set.of("slug")));
+        assertThat(cache.get()).isNull();
+
+        cache.put(version, cache.generation());
+        cache.onArticlesImported(new ArticlesImportedEvent(10L, 5));
+        assertThat(cache.get()).isNull();
+    }
+
+    @Test
+    void versionCountedBeforeInvalidationIsNotCached() {
+        FeedVersionCache cache = new FeedVersionCache();
+        long generation = cache.generation();
+
+        cache.onArticleChanged(new ArticleChangedEvent(1L, Set.of("slug")));
+        cache.put(version, generation);
+
+        assertThat(cache.get()).isNull();
+    }
+}
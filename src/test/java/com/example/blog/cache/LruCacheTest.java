@@ -0,0 +1,96 @@
+package com.example.blog.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LruCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("C");
+        assertThat(cache.stats().getEvictionCount()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void statsCountHitsAndMisses() {
+        LruCache<String, String> cache = new LruCache<>(10);
+        cache.put("a", "A");
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("missing");
+
+        CacheStats stats = cache.stats();
+        assertThat(stats.getHitCount()).isEqualTo(2);
+        assertThat(stats.getMissCount()).isEqualTo(1);
+        assertThat(stats.getHitRate()).isEqualTo(2.0 / 3.0);
+    }
+
+    @Test
+    void putIsRejectedWhenInvalidatedSinceLoadStarted() {
+        LruCache<String, String> cache = new LruCache<>(10);
+        long generation = cache.generation();
+
+        cache.invalidate("a");
+
+        assertThat(cache.putIfNotInvalidated("a", "stale", generation)).isFalse();
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.putIfNotInvalidated("a", "fresh", cache.generation())).isTrue();
+        assertThat(cache.get("a")).isEqualTo("fresh");
+    }
+
+    @Test
+    void invalidateIfRemovesMatchingKeys() {
+        LruCache<String, String> cache = new LruCache<>(10);
+        cache.put("article:a", "A");
+        cache.put("article:b", "B");
+        cache.put("index", "I");
+
+        cache.invalidateIf(key -> key.startsWith("article:"));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("index")).isEqualTo("I");
+    }
+
+    @Test
+    void staysConsistentUnderConcurrentVirtualThreads() throws Exception {
+        LruCache<Integer, Integer> cache = new LruCache<>(100);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int task = 0; task < 1000; task++) {
+                int offset = task;
+                executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        int key = (offset + i) % 200;
+                        cache.put(key, key);
+                        cache.get(key);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(cache.size()).isEqualTo(100);
+        assertThat(cache.stats().getHitCount() + cache.stats().getMissCount()).isEqualTo(100_000);
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<String, String>(0));
+    }
+}
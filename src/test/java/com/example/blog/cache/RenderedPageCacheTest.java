@@ -0,0 +1,33 @@
+package com.example.blog.cache;
+
+import com.example.blog.view.RenderedPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RenderedPageCacheTest {
+
+    @Test
+    void requestsAndEvictionsAreExposedAsMetrics() {
+        RenderedPageCache cache = new RenderedPageCache(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put(RenderedPageCache.articleKey("first"), page("v1"), cache.generation());
+        cache.put(RenderedPageCache.articleKey("second"), page("v1"), cache.generation());
+
+        cache.get(RenderedPageCache.articleKey("first"), "v1");
+        cache.get(RenderedPageCache.articleKey("second"), "v1");
+
+        assertThat(registry.get("blog.cache.pages.requests").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("blog.cache.pages.requests").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("blog.cache.pages.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("blog.cache.pages.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    private static RenderedPage page(String version) {
+        return new RenderedPage(version, "text/html", new byte[0], null);
+    }
+}
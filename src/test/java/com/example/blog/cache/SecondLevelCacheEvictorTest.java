@@ -0,0 +1,188 @@
+package com.example.blog.cache;
+
+import com.example.blog.data.ArticleImporter;
+import com.example.blog.data.ImportFormat;
+import com.example.blog.dto.AccountForm;
+import com.example.blog.dto.ArticleForm;
+import com.example.blog.export.ArticleNdjsonExporter;
+import com.example.blog.model.Article;
+import com.example.blog.model.UserAccount;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.repository.UserAccountRepository;
+import com.example.blog.service.ArticleService;
+import com.example.blog.service.ArticlesImportedEvent;
+import com.example.blog.service.UserAccountService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SecondLevelCacheEvictorTest {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private ArticleImporter articleImporter;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ArticleNdjsonExporter articleNdjsonExporter;
+
+    @Autowired
+    private SecondLevelCacheEvictor cacheEvictor;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedLookupsAreServedWithoutSql() {
+        Article article = articleService.createArticle(form("L2 Cached Post", "l2-cached-post"));
+        articleRepository.findById(article.getId());
+        articleRepository.findBySlug("l2-cached-post");
+
+        long statements = statementsDuring(() -> {
+            assertThat(articleRepository.findById(article.getId())).isPresent();
+            return articleRepository.findBySlug("l2-cached-post");
+        });
+
+        assertThat(statements).isZero();
+    }
+
+    @Test
+    void bulkReadsBypassTheArticleRegion() throws Exception {
+        Article article = articleService.createArticle(form("L2 Bulk Read", "l2-bulk-read"));
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Article.class);
+
+        articleRepository.findByPublishedTrueAndIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(1000));
+        articleRepository.findByPublishedTrueAndUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                article.getUpdatedAt(), 0L, PageRequest.ofSize(1000));
+        articleRepository.findTop100ByRenderedHtmlIsNullOrderByIdAsc();
+        articleNdjsonExporter.writeTo(OutputStream.nullOutputStream());
+
+        assertThat(cache.contains(Article.class, article.getId())).isFalse();
+        articleRepository.findById(article.getId());
+        assertThat(cache.contains(Article.class, article.getId())).isTrue();
+    }
+
+    @Test
+    void articleWritesThroughTheServiceAreVisibleToCachedLookups() {
+        Article article = articleService.createArticle(form("Before Edit", "l2-edit-target"));
+        assertThat(articleRepository.findBySlug("l2-edit-target")).isPresent();
+        assertThat(articleRepository.findByPublishedTrueOrderByPublishedAtDesc())
+                .extracting(Article::getTitle).contains("Before Edit");
+
+        articleService.updateArticle(article.getId(), form("After Edit", "l2-edit-renamed"));
+
+        assertThat(articleRepository.findById(article.getId())).get()
+                .extracting(Article::getTitle).isEqualTo("After Edit");
+        assertThat(articleRepository.findBySlug("l2-edit-target")).isEmpty();
+        assertThat(articleRepository.findBySlug("l2-edit-renamed")).isPresent();
+        assertThat(articleRepository.findByPublishedTrueOrderByPublishedAtDesc())
+                .extracting(Article::getTitle).contains("After Edit").doesNotContain("Before Edit");
+
+        articleService.deleteArticle(article.getId());
+
+        assertThat(articleRepository.findById(article.getId())).isEmpty();
+        assertThat(articleRepository.findBySlug("l2-edit-renamed")).isEmpty();
+    }
+
+    @Test
+    void accountWritesThroughTheServiceReplaceCachedCredentials() {
+        AccountForm form = new AccountForm();
+        form.setUsername("l2-editor");
+        form.setPassword("first-password");
+        form.setRole(UserAccount.Role.EDITOR.name());
+        UserAccount account = userAccountService.createAccount(form);
+        assertThat(userAccountRepository.findByUsername("l2-editor")).isPresent();
+
+        form.setPassword("second-password");
+        userAccountService.updateAccount(account.getId(), form);
+
+        UserAccount cached = userAccountRepository.findByUsername("l2-editor").orElseThrow();
+        assertThat(passwordEncoder.matches("second-password", cached.getPassword())).isTrue();
+
+        userAccountService.deleteAccount(account.getId());
+
+        assertThat(userAccountRepository.findByUsername("l2-editor")).isEmpty();
+    }
+
+    @Test
+    void jdbcImportEvictsCachedArticleQueries() throws Exception {
+        assertThat(articleRepository.findBySlug("l2-imported-post")).isEmpty();
+        int publishedBefore = articleRepository.findByPublishedTrueOrderByPublishedAtDesc().size();
+
+        String ndjson = "{\"title\":\"L2 Imported Post\",\"slug\":\"l2-imported-post\",\"content\":\"本文\","
+                + "\"published\":true,\"publishedAt\":\"2019-05-01T10:00:00\"}\n";
+        articleImporter.importArticles(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                ImportFormat.NDJSON);
+
+        assertThat(articleRepository.findBySlug("l2-imported-post")).isPresent();
+        assertThat(articleRepository.findByPublishedTrueOrderByPublishedAtDesc()).hasSize(publishedBefore + 1);
+    }
+
+    @Test
+    void queryResultsReadWhileAnImportCommitsAreNotCached() {
+        articleService.createArticle(form("L2 Import Window", "l2-import-window"));
+        ArticlesImportedEvent event = new ArticlesImportedEvent(0L, 0);
+        cacheEvictor.beforeArticlesImportCommit(event);
+        try {
+            articleRepository.findBySlug("l2-import-window");
+
+            long statements = statementsDuring(() -> articleRepository.findBySlug("l2-import-window"));
+
+            assertThat(statements).isPositive();
+        } finally {
+            cacheEvictor.onArticlesImported(event);
+        }
+    }
+
+    private long statementsDuring(Supplier<?> action) {
+        long before = statistics.getPrepareStatementCount();
+        action.get();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private static ArticleForm form(String title, String slug) {
+        ArticleForm form = new ArticleForm();
+        form.setTitle(title);
+        form.setSlug(slug);
+        form.setSummary("要約");
+        form.setContent("本文");
+        form.setPublished(true);
+        return form;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.blog.cache;
+
+import com.example.blog.model.Article;
+import com.example.blog.model.UserAccount;
+import com.example.blog.repository.UserAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class SecondLevelCacheMetricsTest {
+
+    @Autowired
+    private SecondLevelCacheMetrics cacheMetrics;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void hitRatioIsReportedPerRegion() {
+        UserAccount admin = userAccountRepository.findByUsername("admin").orElseThrow();
+        for (int i = 0; i < 4; i++) {
+            userAccountRepository.findById(admin.getId());
+            userAccountRepository.findByUsername("admin");
+        }
+
+        CacheStats entities = cacheMetrics.stats(UserAccount.CACHE_REGION);
+        assertThat(entities.getHitCount()).isPositive();
+        assertThat(entities.getHitRate()).isGreaterThan(0.5);
+        assertThat(cacheMetrics.stats(UserAccount.QUERY_CACHE_REGION).getHitCount()).isPositive();
+        assertThat(meterRegistry.get("blog.hibernate.cache.hit.ratio")
+                .tag("region", UserAccount.CACHE_REGION).gauge().value())
+                .isEqualTo(cacheMetrics.stats(UserAccount.CACHE_REGION).getHitRate());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void regionsAreScrapedWithHibernateCounters() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "blog_hibernate_cache_hit_ratio{region=\"" + Article.CACHE_REGION + "\"")))
+                .andExpect(content().string(containsString(
+                        "blog_hibernate_cache_hit_ratio{region=\"" + Article.QUERY_CACHE_REGION + "\"")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{")));
+    }
+}
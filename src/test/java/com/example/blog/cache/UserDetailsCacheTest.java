@@ -0,0 +1,71 @@
+package com.example.blog.cache;
+
+import com.example.blog.service.UserAccountChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDetailsCacheTest {
+
+    @Test
+    void erasingCredentialsOfAReturnedUserDoesNotAffectTheCache() {
+        UserDetailsCache cache = new UserDetailsCache(10);
+        cache.put(user("alice", "encoded"), cache.generation());
+
+        ((User) cache.getUserFromCache("alice")).eraseCredentials();
+
+        assertThat(cache.getUserFromCache("alice").getPassword()).isEqualTo("encoded");
+    }
+
+    @Test
+    void accountChangedEventInvalidatesEveryUsername() {
+        UserDetailsCache cache = new UserDetailsCache(10);
+        cache.put(user("old-name", "encoded"), cache.generation());
+        cache.put(user("other", "encoded"), cache.generation());
+
+        cache.onUserAccountChanged(new UserAccountChangedEvent(1L, Set.of("old-name", "new-name")));
+
+        assertThat(cache.getUserFromCache("old-name")).isNull();
+        assertThat(cache.getUserFromCache("other")).isNotNull();
+    }
+
+    @Test
+    void lookupStartedBeforeInvalidationIsNotCached() {
+        UserDetailsCache cache = new UserDetailsCache(10);
+        long generation = cache.generation();
+
+        cache.onUserAccountChanged(new UserAccountChangedEvent(1L, Set.of("alice")));
+        cache.put(user("alice", "stale"), generation);
+
+        assertThat(cache.getUserFromCache("alice")).isNull();
+    }
+
+    @Test
+    void hitRateIsExposedAsMetrics() {
+        UserDetailsCache cache = new UserDetailsCache(10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put(user("alice", "encoded"), cache.generation());
+
+        cache.getUserFromCache("alice");
+        cache.getUserFromCache("alice");
+        cache.getUserFromCache("alice");
+        cache.getUserFromCache("bob");
+
+        assertThat(registry.get("blog.cache.users.requests").tag("result", "hit").functionCounter().count())
+                .isEqualTo(3);
+        assertThat(registry.get("blog.cache.users.requests").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("blog.cache.users.hit.ratio").gauge().value()).isEqualTo(0.75);
+        assertThat(registry.get("blog.cache.users.size").gauge().value()).isEqualTo(1);
+    }
+
+    private static UserDetails user(String username, String password) {
+        return User.withUsername(username).password(password).roles("EDITOR").build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.blog.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedBCryptPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 4, 5, registry);
+    private final BoundedBCryptPasswordEncoder encoder = new BoundedBCryptPasswordEncoder(5, executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void hashesWithTheConfiguredStrengthOnTheHashingExecutor() {
+        String encoded = encoder.encode("secret");
+
+        assertThat(encoded).startsWith("$2a$05$");
+        assertThat(encoder.matches("secret", encoded)).isTrue();
+        assertThat(encoder.matches("wrong", encoded)).isFalse();
+        assertThat(registry.get("blog.security.password.hashing").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void hashesWithAnotherStrengthAreUpgradedInEitherDirection() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding("{noop}secret")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    void measuresTheCostOfOneHash() {
+        assertThat(encoder.measureEncodeMillis()).isNotNegative();
+    }
+}
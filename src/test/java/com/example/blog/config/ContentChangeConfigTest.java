@@ -0,0 +1,119 @@
+package com.example.blog.config;
+
+import com.example.blog.cache.ContentChangeLog;
+import com.example.blog.dto.ArticleForm;
+import com.example.blog.model.Article;
+import com.example.blog.model.ContentChange;
+import com.example.blog.repository.ContentChangeRepository;
+import com.example.blog.service.ArticleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "blog.changes.enabled=true",
+        "blog.changes.poll-interval-millis=3600000",
+        "blog.changes.compact-interval-seconds=3600"
+})
+class ContentChangeConfigTest {
+
+    @Autowired
+    private ContentChangeLog changeLog;
+
+    @Autowired
+    private ContentChangeRepository changeRepository;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void drain() {
+        changeLog.poll();
+    }
+
+    @Test
+    void localChangesAreLoggedButNotReplayed() {
+        Article article = articleService.createArticle(form("Logged locally"));
+
+        List<ContentChange> changes = changesFor(article.getId());
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).getOrigin()).isEqualTo(changeLog.getNodeId());
+        assertThat(changes.get(0).getKeys()).containsExactly(article.getSlug());
+        assertThat(changeLog.poll()).isZero();
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoLogEntry() {
+        Article article = articleService.createArticle(form("Rolled back"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            articleService.deleteArticle(article.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(changesFor(article.getId())).hasSize(1);
+    }
+
+    @Test
+    void changesFromAnotherNodeInvalidateLocalCaches() {
+        Article article = articleService.createArticle(form("Original title"));
+        assertThat(articleService.findBySlug(article.getSlug()).orElseThrow().getTitle()).isEqualTo("Original title");
+
+        jdbcTemplate.update("update articles set title = ? where id = ?", "Edited elsewhere", article.getId());
+        assertThat(articleService.findBySlug(article.getSlug()).orElseThrow().getTitle()).isEqualTo("Original title");
+
+        ContentChange remote = new ContentChange();
+        remote.setKind(ContentChange.Kind.ARTICLE);
+        remote.setEntityId(article.getId());
+        remote.setKeys(Set.of(article.getSlug()));
+        remote.setOrigin("another-node");
+        changeRepository.save(remote);
+
+        assertThat(changeLog.poll()).isEqualTo(1);
+        assertThat(articleService.findBySlug(article.getSlug()).orElseThrow().getTitle())
+                .isEqualTo("Edited elsewhere");
+    }
+
+    @Test
+    void compactionDeletesEntriesPastRetention() {
+        Article article = articleService.createArticle(form("Compacted"));
+        jdbcTemplate.update("update content_changes set created_at = ? where entity_id = ? and kind = 'ARTICLE'",
+                LocalDateTime.now().minusDays(1), article.getId());
+
+        assertThat(changeLog.compact()).isPositive();
+
+        assertThat(changesFor(article.getId())).isEmpty();
+    }
+
+    private List<ContentChange> changesFor(Long articleId) {
+        return changeRepository.findAll().stream()
+                .filter(change -> change.getKind() == ContentChange.Kind.ARTICLE)
+                .filter(change -> change.getEntityId().equals(articleId))
+                .toList();
+    }
+
+    private static ArticleForm form(String title) {
+        ArticleForm form = new ArticleForm();
+        form.setTitle(title);
+        form.setSummary("Summary");
+        form.setContent("Content");
+        form.setPublished(true);
+        return form;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.blog.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 7, registry);
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void tasksRunOnHashingThreads() {
+        String thread = executor.execute(PasswordHashingExecutor.ENCODE, () -> Thread.currentThread().getName());
+
+        assertThat(thread).startsWith("password-hashing-");
+        assertThat(registry.get("blog.security.password.hashing").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void timersAreRegisteredOnceUpFront() {
+        assertThat(registry.get("blog.security.password.hashing").timers()).hasSize(2);
+
+        executor.execute(PasswordHashingExecutor.MATCHES, () -> true);
+        executor.execute(PasswordHashingExecutor.MATCHES, () -> true);
+
+        assertThat(registry.get("blog.security.password.hashing").timers()).hasSize(2);
+        assertThat(registry.get("blog.security.password.hashing").tag("operation", "matches").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void requestsBeyondTheQueueAreRejectedImmediately() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() ->
+                executor.execute(PasswordHashingExecutor.MATCHES, () -> {
+                    running.countDown();
+                    await(release);
+                    return true;
+                }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() ->
+                executor.execute(PasswordHashingExecutor.MATCHES, () -> true));
+        waitUntilQueued();
+
+        PasswordHashingRejectedException ex = assertThrows(PasswordHashingRejectedException.class,
+                () -> executor.execute(PasswordHashingExecutor.MATCHES, () -> true));
+
+        assertThat(ex.getRetryAfterSeconds()).isEqualTo(7);
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+        assertThat(registry.get("blog.security.password.hashing.rejected").functionCounter().count()).isEqualTo(1);
+        release.countDown();
+        assertThat(busy.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void exceptionsFromTheTaskReachTheCaller() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> executor.execute(PasswordHashingExecutor.ENCODE, () -> {
+                    throw new IllegalArgumentException("bad hash");
+                }));
+
+        assertThat(ex).hasMessage("bad hash");
+    }
+
+    private void waitUntilQueued() throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (registry.get("blog.security.password.hashing.queued").gauge().value() == 1) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("待ち行列に入りませんでした");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
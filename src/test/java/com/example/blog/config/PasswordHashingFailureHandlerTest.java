@@ -0,0 +1,34 @@
+package com.example.blog.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingFailureHandlerTest {
+
+    private final PasswordHashingFailureHandler handler = new PasswordHashingFailureHandler("/login?error");
+
+    @Test
+    void rejectedHashingReturnsServiceUnavailableWithRetryAfter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        handler.onAuthenticationFailure(new MockHttpServletRequest(), response,
+                new PasswordHashingRejectedException("混雑", 5));
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("5");
+    }
+
+    @Test
+    void badCredentialsStillRedirectToTheLoginPage() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        handler.onAuthenticationFailure(new MockHttpServletRequest(), response,
+                new BadCredentialsException("bad"));
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/login?error");
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.blog.config;
+
+import com.example.blog.dto.AccountForm;
+import com.example.blog.model.UserAccount;
+import com.example.blog.repository.UserAccountRepository;
+import com.example.blog.service.UserAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Test
+    void hotPathTimersAreScrapedWithBasicAuthAsHistograms() throws Exception {
+        if (!userAccountRepository.existsByUsername("metrics-admin")) {
+            AccountForm form = new AccountForm();
+            form.setUsername("metrics-admin");
+            form.setPassword("scrape-secret");
+            form.setRole(UserAccount.Role.ADMIN.name());
+            userAccountService.createAccount(form);
+        }
+        mockMvc.perform(get("/")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("metrics-admin", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(request().sessionAttributeDoesNotExist("SPRING_SECURITY_CONTEXT"))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("blog_view_render_seconds_bucket{")))
+                .andExpect(content().string(containsString("view=\"blog/index\"")))
+                .andExpect(content().string(containsString("spring_security_filterchains_seconds_bucket{")));
+    }
+
+    @Test
+    void metricsAreNotPublic() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists("WWW-Authenticate"));
+    }
+
+    @Test
+    @WithMockUser(roles = "EDITOR")
+    void metricsRequireAdminRole() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -1,15 +1,30 @@
 package com.example.blog.config;
 
+import com.example.blog.dto.AccountForm;
+import com.example.blog.model.UserAccount;
+import com.example.blog.repository.UserAccountRepository;
+import com.example.blog.service.UserAccountService;
+import jakarta.servlet.Filter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
+import org.springframework.security.web.csrf.CsrfFilter;
+import org.springframework.security.web.session.DisableEncodeUrlFilter;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -25,6 +40,15 @@ class SecurityConfigTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private UserAccountRepository userAccountRepository;
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
     @Test
     void passwordEncoderIsBCrypt() {
         assertThat(passwordEncoder).isInstanceOf(BCryptPasswordEncoder.class);
@@ -59,5 +83,88 @@ class SecurityConfigTest {
 
         mockMvc.perform(get("/login"))
                 .andExpect(status().isOk());
+
+        mockMvc.perform(get("/search").param("q", "検索"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void readApiIsAccessibleAnonymously() throws Exception {
+        mockMvc.perform(get("/api/articles"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/articles/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void publicReadsSkipSessionAndCsrfFilters() {
+        List<Class<?>> publicFilters = filterTypes("/posts/hello");
+
+        assertThat(publicFilters).doesNotContain(CsrfFilter.class, SecurityContextHolderFilter.class);
+        assertThat(publicFilters).hasSizeLessThan(filterTypes("/admin/articles").size());
+        assertThat(filterTypes("/error")).doesNotContain(CsrfFilter.class, SecurityContextHolderFilter.class);
+        assertThat(filterTypes("/admin/articles")).contains(CsrfFilter.class, SecurityContextHolderFilter.class);
+        assertThat(filterTypes("/login")).contains(CsrfFilter.class, DisableEncodeUrlFilter.class);
+    }
+
+    @Test
+    void publicReadsNeverCreateSessions() throws Exception {
+        for (String path : List.of("/", "/search", "/api/articles", "/posts/missing")) {
+            MvcResult result = mockMvc.perform(get(path).param("q", "検索")).andReturn();
+
+            assertThat(result.getRequest().getSession(false)).as(path).isNull();
+        }
+        MvcResult login = mockMvc.perform(get("/login")).andExpect(status().isOk()).andReturn();
+        assertThat(login.getRequest().getSession(false)).isNotNull();
+    }
+
+    @Test
+    void staleCachedCredentialsAreNeverAccepted() throws Exception {
+        AccountForm form = new AccountForm();
+        form.setUsername("cached-editor");
+        form.setPassword("first-password");
+        form.setRole(UserAccount.Role.EDITOR.name());
+        UserAccount account = userAccountService.createAccount(form);
+        mockMvc.perform(formLogin().user("cached-editor").password("first-password"))
+                .andExpect(authenticated().withRoles("EDITOR"));
+
+        form.setPassword("second-password");
+        form.setRole(UserAccount.Role.ADMIN.name());
+        userAccountService.updateAccount(account.getId(), form);
+
+        mockMvc.perform(formLogin().user("cached-editor").password("first-password"))
+                .andExpect(unauthenticated());
+        mockMvc.perform(formLogin().user("cached-editor").password("second-password"))
+                .andExpect(authenticated().withRoles("ADMIN"));
+
+        userAccountService.deleteAccount(account.getId());
+
+        mockMvc.perform(formLogin().user("cached-editor").password("second-password"))
+                .andExpect(unauthenticated());
+    }
+
+    @Test
+    void hashesWithAnotherStrengthAreRehashedOnLogin() throws Exception {
+        UserAccount account = new UserAccount();
+        account.setUsername("low-cost-editor");
+        account.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        account.setRole(UserAccount.Role.EDITOR);
+        userAccountRepository.save(account);
+
+        mockMvc.perform(formLogin().user("low-cost-editor").password("secret"))
+                .andExpect(authenticated());
+
+        String rehashed = userAccountRepository.findByUsername("low-cost-editor").orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches("secret", rehashed)).isTrue();
+        mockMvc.perform(formLogin().user("low-cost-editor").password("secret"))
+                .andExpect(authenticated());
+    }
+
+    private List<Class<?>> filterTypes(String url) {
+        return filterChainProxy.getFilters(url).stream()
+                .<Class<?>>map(Filter::getClass)
+                .toList();
     }
 }
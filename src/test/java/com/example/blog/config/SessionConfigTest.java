@@ -0,0 +1,65 @@
+package com.example.blog.config;
+
+import com.example.blog.dto.AccountForm;
+import com.example.blog.model.UserAccount;
+import com.example.blog.service.UserAccountService;
+import com.example.blog.session.JdbcSessionRepository;
+import com.example.blog.session.PersistentSessionRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "blog.session.store=jdbc")
+@AutoConfigureMockMvc
+class SessionConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersistentSessionRepository sessionRepository;
+
+    @Autowired
+    private UserAccountService userAccountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void loginIsKeptInTheJdbcSessionStore() throws Exception {
+        assertThat(sessionRepository).isInstanceOf(JdbcSessionRepository.class);
+        AccountForm form = new AccountForm();
+        form.setUsername("session-admin");
+        form.setPassword("secret");
+        form.setRole(UserAccount.Role.ADMIN.name());
+        userAccountService.createAccount(form);
+
+        Cookie sessionCookie = mockMvc.perform(formLogin().user("session-admin").password("secret"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn().getResponse().getCookie("SESSION");
+
+        assertThat(sessionCookie).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from blog_sessions", Integer.class)).isPositive();
+        mockMvc.perform(get("/admin/articles").cookie(sessionCookie))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void publicReadsDoNotCreateSessions() throws Exception {
+        Integer before = jdbcTemplate.queryForObject("select count(*) from blog_sessions", Integer.class);
+
+        mockMvc.perform(get("/")).andExpect(status().isOk());
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from blog_sessions", Integer.class))
+                .isEqualTo(before);
+    }
+}
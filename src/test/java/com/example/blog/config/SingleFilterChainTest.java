@@ -0,0 +1,33 @@
+package com.example.blog.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.csrf.CsrfFilter;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "blog.security.stateless-public-reads=false")
+@AutoConfigureMockMvc
+class SingleFilterChainTest {
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void publicReadsGoThroughTheStatefulChainWhenDisabled() throws Exception {
+        // メトリクス用のチェーンと、それ以外を扱うステートフルなチェーンだけになる
+        assertThat(filterChainProxy.getFilterChains()).hasSize(2);
+        assertThat(filterChainProxy.getFilters("/posts/hello")).hasAtLeastOneElementOfType(CsrfFilter.class);
+
+        mockMvc.perform(get("/")).andExpect(status().isOk());
+    }
+}
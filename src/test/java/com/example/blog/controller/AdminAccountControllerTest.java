@@ -1,5 +1,6 @@
 package com.example.blog.controller;
 
+import com.example.blog.config.PasswordHashingRejectedException;
 import com.example.blog.dto.AccountForm;
 import com.example.blog.model.UserAccount;
 import com.example.blog.service.UserAccountService;
@@ -29,6 +30,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -97,6 +99,19 @@ class AdminAccountControllerTest {
         assertThat(submitted.getRole()).isEqualTo("ADMIN");
     }
 
+    @Test
+    void createReturnsServiceUnavailableWhenHashingIsSaturated() throws Exception {
+        when(userAccountService.createAccount(any()))
+                .thenThrow(new PasswordHashingRejectedException("パスワードの処理が混み合っています", 5));
+
+        mockMvc.perform(post("/admin/accounts")
+                        .param("username", "newuser")
+                        .param("password", "secret")
+                        .param("role", "ADMIN"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
     @Test
     void createHandlesServiceError() throws Exception {
         when(userAccountService.createAccount(any(AccountForm.class)))
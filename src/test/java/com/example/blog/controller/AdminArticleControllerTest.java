@@ -1,6 +1,7 @@
 package com.example.blog.controller;
 
 import com.example.blog.dto.ArticleForm;
+import com.example.blog.dto.ArticleSummary;
 import com.example.blog.model.Article;
 import com.example.blog.service.ArticleService;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,9 +47,8 @@ class AdminArticleControllerTest {
 
     @Test
     void listDisplaysArticles() throws Exception {
-        Article article = new Article();
-        article.setId(1L);
-        article.setTitle("Sample");
+        ArticleSummary article = new ArticleSummary(1L, "Sample", "sample", null,
+                null, LocalDateTime.now(), false);
         when(articleService.findAllForAdmin()).thenReturn(List.of(article));
 
         mockMvc.perform(get("/admin/articles"))
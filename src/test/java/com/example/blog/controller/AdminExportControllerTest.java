@@ -0,0 +1,109 @@
+package com.example.blog.controller;
+
+import com.example.blog.export.ArticleNdjsonExporter;
+import com.example.blog.export.ExportResult;
+import com.example.blog.export.StaticSiteExporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AdminExportController.class, properties = {
+        "spring.mvc.async.request-timeout=100ms",
+        "blog.export.ndjson.timeout-minutes=90"
+})
+@AutoConfigureMockMvc(addFilters = false)
+class AdminExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StaticSiteExporter staticSiteExporter;
+
+    @MockBean
+    private ArticleNdjsonExporter articleNdjsonExporter;
+
+    @Test
+    void exportReportsCounts() throws Exception {
+        when(staticSiteExporter.export(any(), any())).thenReturn(new ExportResult(3, 5, 1));
+
+        mockMvc.perform(post("/admin/export"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/admin/articles"))
+                .andExpect(flash().attribute("message", "静的ファイルを書き出しました (更新 3 件, スキップ 5 件, 削除 1 件)"));
+    }
+
+    @Test
+    void exportAlreadyRunningIsReported() throws Exception {
+        when(staticSiteExporter.export(any(), any()))
+                .thenThrow(new IllegalStateException("静的ファイルの書き出しを実行中です"));
+
+        mockMvc.perform(post("/admin/export"))
+                .andExpect(redirectedUrl("/admin/articles"))
+                .andExpect(flash().attribute("error", "静的ファイルの書き出しを実行中です"));
+    }
+
+    @Test
+    void articlesAreStreamedAsNdjsonAttachment() throws Exception {
+        when(articleNdjsonExporter.writeTo(any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"slug\":\"a\"}\n{\"slug\":\"b\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult started = mockMvc.perform(get("/admin/export/articles.ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        matchesPattern("attachment; filename=\"articles-\\d{8}-\\d{6}\\.ndjson\"")))
+                .andExpect(content().string("{\"slug\":\"a\"}\n{\"slug\":\"b\"}\n"));
+    }
+
+    @Test
+    void articleExportIsNotBoundByTheDefaultAsyncTimeout() throws Exception {
+        when(articleNdjsonExporter.writeTo(any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"slug\":\"a\"}\n".getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(300);
+            out.write("{\"slug\":\"b\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult started = mockMvc.perform(get("/admin/export/articles.ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // 既定の 100ms が使われていれば、遅いクライアントへの書き出しは途中で打ち切られる
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(90).toMillis());
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"slug\":\"a\"}\n{\"slug\":\"b\"}\n"));
+    }
+}
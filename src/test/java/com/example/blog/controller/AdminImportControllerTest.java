@@ -0,0 +1,65 @@
+package com.example.blog.controller;
+
+import com.example.blog.data.ArticleImporter;
+import com.example.blog.data.ImportFormat;
+import com.example.blog.data.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+@WebMvcTest(AdminImportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class AdminImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ArticleImporter articleImporter;
+
+    @Test
+    void csvUploadReportsCounts() throws Exception {
+        when(articleImporter.importArticles(any(), eq(ImportFormat.CSV))).thenReturn(new ImportResult(1200, 3));
+        MockMultipartFile file = new MockMultipartFile("file", "legacy.csv", "text/csv",
+                "title,content\nタイトル,本文\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/admin/import").file(file))
+                .andExpect(redirectedUrl("/admin/articles"))
+                .andExpect(flash().attribute("message", "記事を取り込みました (取り込み 1200 件, スキップ 3 件)"));
+    }
+
+    @Test
+    void malformedFileIsReported() throws Exception {
+        when(articleImporter.importArticles(any(), eq(ImportFormat.NDJSON)))
+                .thenThrow(new IllegalArgumentException("取り込みファイルの 2 件目を読み込めません"));
+        MockMultipartFile file = new MockMultipartFile("file", "legacy.ndjson", "application/x-ndjson",
+                "{}\n{".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/admin/import").file(file))
+                .andExpect(redirectedUrl("/admin/articles"))
+                .andExpect(flash().attribute("error", "取り込みファイルの 2 件目を読み込めません"));
+    }
+
+    @Test
+    void emptyUploadIsRejected() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "empty.ndjson", "application/x-ndjson", new byte[0]);
+
+        mockMvc.perform(multipart("/admin/import").file(file))
+                .andExpect(flash().attribute("error", "取り込むファイルを選択してください"));
+        verifyNoInteractions(articleImporter);
+    }
+}
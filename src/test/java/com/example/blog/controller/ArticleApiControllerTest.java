@@ -0,0 +1,218 @@
+package com.example.blog.controller;
+
+import com.example.blog.config.ApiConfig;
+import com.example.blog.dto.ArticleCursor;
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.model.Article;
+import com.example.blog.service.ArticleService;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ArticleApiController.class, properties = {
+        "spring.mvc.async.request-timeout=100ms",
+        "blog.api.stream.threads=1",
+        "blog.api.stream.queue-capacity=1",
+        "blog.api.stream.timeout-minutes=15"})
+@AutoConfigureMockMvc(addFilters = false)
+@Import(ApiConfig.class)
+class ArticleApiControllerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ArticleService articleService;
+
+    @Test
+    void listReturnsPageWithCursorTokens() throws Exception {
+        ArticleCursor older = new ArticleCursor(BASE, 5L);
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(summary(6)), older, null));
+
+        mockMvc.perform(get("/api/articles").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.articles[0].slug").value("article-6"))
+                .andExpect(jsonPath("$.articles[0].publishedAt").value("2024-01-01T00:06:00"))
+                .andExpect(jsonPath("$.older").value(older.toString()))
+                .andExpect(jsonPath("$.newer").doesNotExist());
+    }
+
+    @Test
+    void listWithoutAcceptHeaderReturnsJson() throws Exception {
+        when(articleService.findPublishedPage(null, null)).thenReturn(new ArticlePage<>(List.of(), null, null));
+
+        mockMvc.perform(get("/api/articles"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void invalidCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/articles").param("older", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamWritesEveryArticleAsOneLineReadingBatchByBatch() throws Exception {
+        int total = ArticleApiController.STREAM_BATCH_SIZE + 3;
+        List<ArticleSummary> all = new ArrayList<>();
+        for (int i = total; i >= 1; i--) {
+            all.add(summary(i));
+        }
+        List<ArticleSummary> firstBatch = all.subList(0, ArticleApiController.STREAM_BATCH_SIZE);
+        ArticleSummary lastOfFirst = firstBatch.get(firstBatch.size() - 1);
+        when(articleService.findPublishedBatch(null, ArticleApiController.STREAM_BATCH_SIZE)).thenReturn(firstBatch);
+        when(articleService.findPublishedBatch(new ArticleCursor(lastOfFirst.getPublishedAt(), lastOfFirst.getId()),
+                ArticleApiController.STREAM_BATCH_SIZE))
+                .thenReturn(all.subList(ArticleApiController.STREAM_BATCH_SIZE, total));
+
+        MvcResult started = mockMvc.perform(get("/api/articles").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(total);
+        assertThat(lines[0]).startsWith("{").contains("\"slug\":\"article-" + total + "\"");
+        assertThat(lines[total - 1]).contains("\"slug\":\"article-1\"");
+    }
+
+    @Test
+    void streamUsesItsOwnTimeoutInsteadOfTheAsyncDefault() throws Exception {
+        when(articleService.findPublishedBatch(null, ArticleApiController.STREAM_BATCH_SIZE)).thenReturn(List.of());
+
+        MvcResult started = mockMvc.perform(get("/api/articles").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(started.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(Duration.ofMinutes(15).toMillis());
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    @Test
+    void streamIsRejectedWithServiceUnavailableWhenWritersAndQueueAreFull() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(articleService.findPublishedBatch(null, ArticleApiController.STREAM_BATCH_SIZE)).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        MvcResult running = mockMvc.perform(get("/api/articles").accept(MediaType.APPLICATION_NDJSON)).andReturn();
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        MvcResult queued = mockMvc.perform(get("/api/articles").accept(MediaType.APPLICATION_NDJSON)).andReturn();
+        MvcResult rejected = mockMvc.perform(get("/api/articles").accept(MediaType.APPLICATION_NDJSON)).andReturn();
+
+        assertThat(WebAsyncUtils.getAsyncManager(rejected.getRequest()).getConcurrentResult())
+                .isInstanceOf(TaskRejectedException.class);
+        // 実行されなかった非同期処理の結果は MvcResult に記録されないので、asyncDispatch と同じ再ディスパッチを自分で行う
+        mockMvc.perform(servletContext -> {
+                    MockHttpServletRequest request = rejected.getRequest();
+                    request.setDispatcherType(DispatcherType.ASYNC);
+                    request.setAsyncStarted(false);
+                    return request;
+                })
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER,
+                        Long.toString(ArticleApiController.STREAM_RETRY_AFTER_SECONDS)));
+        release.countDown();
+        mockMvc.perform(asyncDispatch(running)).andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(queued)).andExpect(status().isOk());
+    }
+
+    @Test
+    void showReturnsArticleWithEtag() throws Exception {
+        Article article = article("hello", true);
+        when(articleService.findBySlug("hello")).thenReturn(Optional.of(article));
+
+        mockMvc.perform(get("/api/articles/hello"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andExpect(jsonPath("$.title").value("こんにちは"))
+                .andExpect(jsonPath("$.contentHtml").value("<p>本文</p>\n"))
+                .andExpect(jsonPath("$.content").doesNotExist());
+    }
+
+    @Test
+    void showAnswersConditionalRequestWithNotModified() throws Exception {
+        when(articleService.findBySlug("hello")).thenReturn(Optional.of(article("hello", true)));
+        String etag = mockMvc.perform(get("/api/articles/hello"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/articles/hello").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void unpublishedOrMissingArticleIsNotFound() throws Exception {
+        when(articleService.findBySlug("draft")).thenReturn(Optional.of(article("draft", false)));
+        when(articleService.findBySlug("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/articles/draft")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/articles/missing")).andExpect(status().isNotFound());
+        verify(articleService, never()).findPublishedBatch(any(), eq(ArticleApiController.STREAM_BATCH_SIZE));
+    }
+
+    private static ArticleSummary summary(int i) {
+        LocalDateTime at = BASE.plusMinutes(i);
+        return new ArticleSummary((long) i, "記事 " + i, "article-" + i, "概要", at, at, true);
+    }
+
+    private static Article article(String slug, boolean published) {
+        Article article = new Article();
+        article.setId(1L);
+        article.setTitle("こんにちは");
+        article.setSlug(slug);
+        article.setContent("本文");
+        article.setRenderedHtml("<p>本文</p>\n");
+        article.setPublished(published);
+        article.setPublishedAt(BASE);
+        article.setUpdatedAt(BASE);
+        return article;
+    }
+}
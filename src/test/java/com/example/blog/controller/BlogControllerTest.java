@@ -1,20 +1,34 @@
 package com.example.blog.controller;
 
+import com.example.blog.dto.ArticleCursor;
+import com.example.blog.dto.ArticleFeedVersion;
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
 import com.example.blog.model.Article;
 import com.example.blog.service.ArticleService;
+import com.example.blog.view.CachingView;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
@@ -31,9 +45,10 @@ class BlogControllerTest {
 
     @Test
     void indexDisplaysPublishedArticles() throws Exception {
-        Article article = new Article();
-        article.setPublished(true);
-        when(articleService.findPublishedArticles()).thenReturn(List.of(article));
+        ArticleSummary article = new ArticleSummary(1L, "Title", "title", "Summary",
+                LocalDateTime.now(), LocalDateTime.now(), true);
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(article), null, null));
 
         mockMvc.perform(get("/"))
                 .andExpect(status().isOk())
@@ -41,6 +56,52 @@ class BlogControllerTest {
                 .andExpect(model().attribute("articles", hasSize(1)));
     }
 
+    @Test
+    void indexPassesCursorToService() throws Exception {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 1, 2, 3, 4, 5), 9L);
+        ArticlePage<ArticleSummary> page = new ArticlePage<>(List.of(), null, cursor);
+        when(articleService.findPublishedPage(cursor, null)).thenReturn(page);
+
+        mockMvc.perform(get("/").param("older", cursor.toString()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("page", page));
+    }
+
+    @Test
+    void latestIndexPageIsCachedAndVariesByEncoding() throws Exception {
+        when(articleService.findPublishedFeedVersion())
+                .thenReturn(new ArticleFeedVersion(3L, LocalDateTime.of(2024, 3, 1, 9, 0)));
+        when(articleService.findPublishedPage(null, null)).thenReturn(new ArticlePage<>(List.of(), null, null));
+
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andExpect(model().attribute(CachingView.CACHE_KEY_ATTRIBUTE, "index:latest"))
+                .andExpect(model().attributeExists(CachingView.CACHE_VERSION_ATTRIBUTE));
+    }
+
+    @Test
+    void indexPagesBehindACursorAreNotCached() throws Exception {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 1, 2, 3, 4, 5), 9L);
+        when(articleService.findPublishedFeedVersion())
+                .thenReturn(new ArticleFeedVersion(3L, LocalDateTime.of(2024, 3, 1, 9, 0)));
+        when(articleService.findPublishedPage(cursor, null)).thenReturn(new ArticlePage<>(List.of(), null, cursor));
+
+        mockMvc.perform(get("/").param("older", cursor.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+                .andExpect(model().attributeDoesNotExist(CachingView.CACHE_KEY_ATTRIBUTE));
+    }
+
+    @Test
+    void indexRejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/").param("older", "broken"))
+                .andExpect(status().isBadRequest());
+
+        verify(articleService, never()).findPublishedPage(any(), any());
+    }
+
     @Test
     void showDisplaysRequestedArticle() throws Exception {
         Article article = new Article();
@@ -52,7 +113,8 @@ class BlogControllerTest {
         mockMvc.perform(get("/posts/sample"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("blog/article"))
-                .andExpect(model().attribute("article", article));
+                .andExpect(model().attribute("article", article))
+                .andExpect(model().attribute(CachingView.CACHE_KEY_ATTRIBUTE, "article:sample"));
     }
 
     @Test
@@ -72,4 +134,71 @@ class BlogControllerTest {
         mockMvc.perform(get("/posts/draft"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void showAnswersConditionalRequestWithNotModified() throws Exception {
+        Article article = new Article();
+        article.setId(4L);
+        article.setTitle("Title");
+        article.setContent("Content");
+        article.setPublished(true);
+        article.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 9, 0, 0, 123_456_789));
+        when(articleService.findBySlug("cached")).thenReturn(Optional.of(article));
+
+        String etag = mockMvc.perform(get("/posts/cached"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/posts/cached").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        article.setUpdatedAt(article.getUpdatedAt().plusNanos(1000));
+        mockMvc.perform(get("/posts/cached").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void indexAnswersConditionalRequestBeforeLoadingArticles() throws Exception {
+        LocalDateTime lastUpdatedAt = LocalDateTime.of(2024, 3, 1, 9, 0);
+        when(articleService.findPublishedFeedVersion()).thenReturn(new ArticleFeedVersion(3L, lastUpdatedAt));
+        when(articleService.findPublishedPage(null, null)).thenReturn(new ArticlePage<>(List.of(), null, null));
+
+        String etag = mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(articleService, times(1)).findPublishedPage(null, null);
+    }
+
+    @Test
+    void indexHonoursIfModifiedSince() throws Exception {
+        LocalDateTime lastUpdatedAt = LocalDateTime.of(2024, 3, 1, 9, 0);
+        when(articleService.findPublishedFeedVersion()).thenReturn(new ArticleFeedVersion(3L, lastUpdatedAt));
+        when(articleService.findPublishedPage(null, null)).thenReturn(new ArticlePage<>(List.of(), null, null));
+
+        String lastModified = mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get("/").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void indexEtagChangesWhenArticleIsUnpublished() throws Exception {
+        LocalDateTime lastUpdatedAt = LocalDateTime.of(2024, 3, 1, 9, 0);
+        when(articleService.findPublishedPage(null, null)).thenReturn(new ArticlePage<>(List.of(), null, null));
+        when(articleService.findPublishedFeedVersion()).thenReturn(new ArticleFeedVersion(3L, lastUpdatedAt));
+        String before = mockMvc.perform(get("/")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        when(articleService.findPublishedFeedVersion()).thenReturn(new ArticleFeedVersion(2L, lastUpdatedAt));
+
+        mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.blog.controller;
+
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.search.SearchHit;
+import com.example.blog.service.ArticleSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@WebMvcTest(SearchController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ArticleSearchService articleSearchService;
+
+    @Test
+    void searchDisplaysHits() throws Exception {
+        ArticleSummary article = new ArticleSummary(1L, "全文検索の仕組み", "full-text", null,
+                LocalDateTime.now(), LocalDateTime.now(), true);
+        when(articleSearchService.search("検索")).thenReturn(List.of(new SearchHit(article, 1.5)));
+
+        mockMvc.perform(get("/search").param("q", " 検索 "))
+                .andExpect(status().isOk())
+                .andExpect(view().name("blog/search"))
+                .andExpect(model().attribute("query", "検索"))
+                .andExpect(model().attribute("results", hasSize(1)))
+                .andExpect(content().string(containsString("/posts/full-text")));
+    }
+
+    @Test
+    void searchWithoutQueryShowsEmptyForm() throws Exception {
+        when(articleSearchService.search("")).thenReturn(List.of());
+
+        mockMvc.perform(get("/search"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("query", ""))
+                .andExpect(content().string(containsString("name=\"q\"")));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.blog.data;
+
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.service.ArticleContentRenderer;
+import com.example.blog.service.ArticlesImportedEvent;
+import com.example.blog.service.SlugAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+
+@DataJpaTest(properties = {
+        "blog.import.batch-size=100",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, JdbcTemplateAutoConfiguration.class})
+@Import({ArticleImporter.class, SlugAllocator.class, ArticleContentRenderer.class})
+@RecordApplicationEvents
+class ArticleImporterTest {
+
+    @Autowired
+    private ArticleImporter articleImporter;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @SpyBean
+    private SlugAllocator slugAllocator;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // トランザクションの外で動くテストもあるため、TestEntityManager を通さずに取得する
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void ndjsonIsInsertedInJdbcBatchesWithoutThePersistenceContext() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            ndjson.append("{\"id\":").append(i).append(",\"title\":\"Legacy Post ").append(i)
+                    .append("\",\"content\":\"本文 ").append(i).append("\",\"published\":true,")
+                    .append("\"publishedAt\":\"2019-05-01T10:00:00\",\"createdAt\":\"2019-04-30T09:00:00\"}\n");
+        }
+
+        ImportResult result = articleImporter.importArticles(stream(ndjson.toString()), ImportFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(250);
+        assertThat(result.getSkipped()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(events.stream(ArticlesImportedEvent.class))
+                .extracting(ArticlesImportedEvent::getCount)
+                .containsExactly(100, 100, 50);
+        Article imported = articleRepository.findBySlug("legacy-post-7").orElseThrow();
+        assertThat(imported.getRenderedHtml()).isEqualTo("<p>本文 7</p>\n");
+        assertThat(imported.getPublishedAt()).isEqualTo(LocalDateTime.of(2019, 5, 1, 10, 0));
+        assertThat(imported.getCreatedAt()).isEqualTo(LocalDateTime.of(2019, 4, 30, 9, 0));
+        assertThat(imported.getUpdatedAt()).isEqualTo(imported.getCreatedAt());
+    }
+
+    @Test
+    void duplicateSlugsAreNumberedAcrossExistingRowsAndBatches() throws Exception {
+        Article existing = new Article();
+        existing.setTitle("News");
+        existing.setSlug("news");
+        existing.setContent("既存");
+        entityManager.persistAndFlush(existing);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 150; i++) {
+            ndjson.append("{\"title\":\"News\",\"content\":\"本文\"}\n");
+        }
+
+        articleImporter.importArticles(stream(ndjson.toString()), ImportFormat.NDJSON);
+
+        List<String> slugs = articleRepository.findSlugFamily("news", "news-%");
+        assertThat(slugs).hasSize(151).contains("news", "news-1", "news-100", "news-150");
+    }
+
+    @Test
+    void csvAcceptsQuotedMultilineFieldsAndEmptyColumns() throws Exception {
+        String csv = "title,slug,summary,content,published,publishedAt\n"
+                + "\"Hello, CSV\",hello-csv,,\"一行目\n\"\"二行目\"\"\",true,2020-01-02T03:04:05\n"
+                + "下書き,draft-post,概要,本文,false,\n";
+
+        ImportResult result = articleImporter.importArticles(stream(csv), ImportFormat.CSV);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        Article hello = articleRepository.findBySlug("hello-csv").orElseThrow();
+        assertThat(hello.getTitle()).isEqualTo("Hello, CSV");
+        assertThat(hello.getContent()).isEqualTo("一行目\n\"二行目\"");
+        assertThat(hello.getSummary()).isNull();
+        assertThat(hello.getPublishedAt()).isEqualTo(LocalDateTime.of(2020, 1, 2, 3, 4, 5));
+        Article draft = articleRepository.findBySlug("draft-post").orElseThrow();
+        assertThat(draft.isPublished()).isFalse();
+        assertThat(draft.getPublishedAt()).isNull();
+    }
+
+    @Test
+    void recordsWithoutRequiredFieldsAreSkipped() throws Exception {
+        String ndjson = "{\"title\":\"\",\"content\":\"本文\"}\n"
+                + "{\"title\":\"本文なし\"}\n"
+                + "{\"title\":\"" + "長".repeat(256) + "\",\"content\":\"本文\"}\n"
+                + "{\"title\":\"Valid\",\"content\":\"本文\"}\n";
+
+        ImportResult result = articleImporter.importArticles(stream(ndjson), ImportFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(3);
+        assertThat(articleRepository.findBySlug("valid")).isPresent();
+    }
+
+    @Test
+    void malformedRecordStopsTheImportAfterCommittedBatches() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            ndjson.append("{\"title\":\"Broken ").append(i).append("\",\"content\":\"本文\"}\n");
+        }
+        ndjson.append("{\"title\": oops}\n");
+
+        assertThatThrownBy(() -> articleImporter.importArticles(stream(ndjson.toString()), ImportFormat.NDJSON))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("121 件目")
+                .hasMessageContaining("100 件は取り込み済み");
+        assertThat(articleRepository.findBySlug("broken-99")).isPresent();
+        assertThat(articleRepository.findBySlug("broken-100")).isEmpty();
+    }
+
+    // 失敗したバッチがロールバックされることを確かめるため、テストのトランザクションに参加させない
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void batchIsReallocatedWhenAConcurrentSaveTakesItsSlug() throws Exception {
+        Article concurrent = new Article();
+        concurrent.setTitle("Taken");
+        concurrent.setSlug("taken");
+        concurrent.setContent("同時に保存された記事");
+        articleRepository.save(concurrent);
+        // 割り当て直後に同じスラッグが保存された状況を再現する
+        doReturn(List.of("fresh", "taken")).doCallRealMethod().when(slugAllocator).allocateAll(any());
+        try {
+            ImportResult result = articleImporter.importArticles(stream(
+                    "{\"title\":\"Fresh\",\"content\":\"本文\"}\n"
+                            + "{\"title\":\"Taken\",\"content\":\"本文\"}\n"), ImportFormat.NDJSON);
+
+            assertThat(result.getImported()).isEqualTo(2);
+            assertThat(articleRepository.findSlugFamily("fresh", "fresh-%")).containsExactly("fresh");
+            assertThat(articleRepository.findSlugFamily("taken", "taken-%")).containsExactlyInAnyOrder("taken", "taken-1");
+        } finally {
+            articleRepository.deleteAll();
+        }
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
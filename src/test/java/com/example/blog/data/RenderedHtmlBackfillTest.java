@@ -0,0 +1,68 @@
+package com.example.blog.data;
+
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.service.ArticleContentRenderer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RenderedHtmlBackfillTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RenderedHtmlBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new RenderedHtmlBackfill(articleRepository, new ArticleContentRenderer(), transactionManager);
+    }
+
+    @Test
+    void runRendersArticlesUntilNoneRemain() {
+        Article first = article(1L, "一行目\n二行目");
+        Article second = article(2L, "<script>");
+        when(articleRepository.findTop100ByRenderedHtmlIsNullOrderByIdAsc())
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of());
+
+        backfill.run();
+
+        verify(articleRepository).updateRenderedHtml(1L, "<p>一行目<br/>\n二行目</p>\n");
+        verify(articleRepository).updateRenderedHtml(2L, "<p>&lt;script&gt;</p>\n");
+        verify(articleRepository, times(2)).findTop100ByRenderedHtmlIsNullOrderByIdAsc();
+    }
+
+    @Test
+    void runDoesNothingWhenEverythingIsRendered() {
+        when(articleRepository.findTop100ByRenderedHtmlIsNullOrderByIdAsc()).thenReturn(List.of());
+
+        backfill.run();
+
+        verify(articleRepository, never()).updateRenderedHtml(anyLong(), anyString());
+    }
+
+    private Article article(Long id, String content) {
+        Article article = new Article();
+        article.setId(id);
+        article.setContent(content);
+        return article;
+    }
+}
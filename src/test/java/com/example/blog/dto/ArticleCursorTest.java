@@ -0,0 +1,35 @@
+package com.example.blog.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArticleCursorTest {
+
+    @Test
+    void tokenRoundTripsThroughParse() {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000), 42L);
+
+        ArticleCursor parsed = ArticleCursor.parse(cursor.toString());
+
+        assertThat(parsed).isEqualTo(cursor);
+        assertThat(parsed.getPublishedAt()).isEqualTo(cursor.getPublishedAt());
+        assertThat(parsed.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void blankTokenMeansNoCursor() {
+        assertThat(ArticleCursor.parse(null)).isNull();
+        assertThat(ArticleCursor.parse("")).isNull();
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursor.parse("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursor.parse("2024-05-01T10:30_abc"));
+        assertThrows(IllegalArgumentException.class, () -> ArticleCursor.parse("2024-05-01T10:30_"));
+    }
+}
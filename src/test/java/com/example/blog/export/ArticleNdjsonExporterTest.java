@@ -0,0 +1,98 @@
+package com.example.blog.export;
+
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ArticleNdjsonExporterTest {
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ArticleNdjsonExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new ArticleNdjsonExporter(articleRepository, entityManager.getEntityManager(),
+                objectMapper, transactionManager);
+    }
+
+    @Test
+    void writesEveryArticleAsOneJsonLineInIdOrder() throws Exception {
+        for (int i = 0; i < 250; i++) {
+            persist("article-" + i, i % 2 == 0);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exporter.writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(250);
+        assertThat(lines).hasSize(250);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("slug").asText()).isEqualTo("article-0");
+        assertThat(first.get("title").asText()).isEqualTo("タイトル article-0");
+        assertThat(first.get("content").asText()).isEqualTo("本文\n\"引用\"");
+        assertThat(first.get("published").asBoolean()).isTrue();
+        assertThat(first.get("publishedAt").asText()).isEqualTo("2024-01-01T09:30:00");
+        assertThat(objectMapper.readTree(lines[1]).get("published").asBoolean()).isFalse();
+        assertThat(objectMapper.readTree(lines[249]).get("slug").asText()).isEqualTo("article-249");
+    }
+
+    @Test
+    void exportedArticlesAreDetachedFromThePersistenceContext() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            persist("detached-" + i, true);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        exporter.writeTo(new ByteArrayOutputStream());
+
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertThat(session.getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void emptyTableWritesNothing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exporter.writeTo(out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    private void persist(String slug, boolean published) {
+        Article article = new Article();
+        article.setTitle("タイトル " + slug);
+        article.setSlug(slug);
+        article.setContent("本文\n\"引用\"");
+        article.setPublished(published);
+        article.setPublishedAt(published ? LocalDateTime.of(2024, 1, 1, 9, 30) : null);
+        entityManager.persist(article);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.blog.export;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StaticPageFilterTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Mock
+    private StaticSiteExporter exporter;
+
+    private StaticPageFilter filter;
+    private Path page;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        filter = new StaticPageFilter(exporter);
+        page = outputDir.resolve("first.html");
+        Files.writeString(page, "<html>記事</html>");
+    }
+
+    @Test
+    void exportedPageIsServedWithoutCallingTheChain() throws Exception {
+        when(exporter.findExportedPage("/posts/first")).thenReturn(page);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/posts/first"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("<html>記事</html>");
+        assertThat(response.getContentType()).isEqualTo("text/html;charset=UTF-8");
+        assertThat(response.getContentLengthLong()).isEqualTo(Files.size(page));
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache, public");
+        assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+    }
+
+    @Test
+    void gzipVariantIsServedWhenAccepted() throws Exception {
+        Path gzip = StaticSiteExporter.gzipVariant(page);
+        Files.write(gzip, new byte[]{0x1f, (byte) 0x8b, 8, 0});
+        when(exporter.findExportedPage("/")).thenReturn(page);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Files.readAllBytes(gzip));
+        assertThat(response.getContentLengthLong()).isEqualTo(Files.size(gzip));
+    }
+
+    @Test
+    void plainFileIsServedWhenGzipVariantIsMissing() throws Exception {
+        when(exporter.findExportedPage("/")).thenReturn(page);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getContentAsString()).isEqualTo("<html>記事</html>");
+    }
+
+    @Test
+    void sendfileIsDelegatedToTheConnectorWhenSupported() throws Exception {
+        when(exporter.findExportedPage("/")).thenReturn(page);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute(StaticPageFilter.SENDFILE_SUPPORTED_ATTRIBUTE, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(request.getAttribute(StaticPageFilter.SENDFILE_FILENAME_ATTRIBUTE)).isEqualTo(page.toString());
+        assertThat(request.getAttribute(StaticPageFilter.SENDFILE_START_ATTRIBUTE)).isEqualTo(0L);
+        assertThat(request.getAttribute(StaticPageFilter.SENDFILE_END_ATTRIBUTE)).isEqualTo(Files.size(page));
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void unmodifiedPageAnswers304() throws Exception {
+        when(exporter.findExportedPage("/")).thenReturn(page);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, Files.getLastModifiedTime(page).toMillis() + 1000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void missingPageFallsThroughToTheApplication() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/posts/unknown"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    void authenticatedAndQueryRequestsAreNotServedFromFiles() throws Exception {
+        MockHttpServletRequest authenticated = new MockHttpServletRequest("GET", "/");
+        authenticated.setUserPrincipal(() -> "admin");
+        MockHttpServletRequest withCursor = new MockHttpServletRequest("GET", "/");
+        withCursor.setQueryString("older=2024-01-01T00:00_1");
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/");
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{authenticated, withCursor, post}) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            assertThat(chain.getRequest()).isNotNull();
+        }
+        verifyNoInteractions(exporter);
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.blog.export;
+
+import com.example.blog.dto.ArticleCursor;
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.service.ArticleChangedEvent;
+import com.example.blog.service.ArticleService;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StaticSiteExporterTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    @Mock
+    private ArticleService articleService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> rendered = new ArrayList<>();
+
+    private StaticSiteExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        ViewResolver viewResolver = (viewName, locale) -> new RecordingView(viewName);
+        exporter = new StaticSiteExporter(articleRepository, articleService, entityManager, transactionManager,
+                viewResolver, outputDir.toString());
+    }
+
+    @Test
+    void firstExportWritesArticlesAndNumberedIndexPages() throws Exception {
+        Article article = article(1L, "first", LocalDateTime.of(2024, 1, 1, 0, 0));
+        stubArticles(article);
+        ArticleSummary summary = summary(article);
+        ArticleCursor cursor = new ArticleCursor(article.getPublishedAt(), 1L);
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(summary), cursor, null));
+        when(articleService.findPublishedPage(cursor, null))
+                .thenReturn(new ArticlePage<>(List.of(summary), null, cursor));
+
+        ExportResult result = export();
+
+        assertThat(result.getWritten()).isEqualTo(3);
+        assertThat(Files.readString(outputDir.resolve("posts/first.html"))).isEqualTo("blog/article first");
+        assertThat(Files.readString(outputDir.resolve("index.html"))).isEqualTo("blog/index older=/page/2");
+        assertThat(Files.readString(outputDir.resolve("page/2.html"))).isEqualTo("blog/index newer=/");
+        assertThat(outputDir.resolve(StaticSiteExporter.MANIFEST_FILE)).exists();
+    }
+
+    @Test
+    void secondExportOnlyRewritesChangedPages() throws Exception {
+        Article first = article(1L, "first", LocalDateTime.of(2024, 1, 1, 0, 0));
+        Article second = article(2L, "second", LocalDateTime.of(2024, 1, 2, 0, 0));
+        stubArticles(first, second);
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(summary(second), summary(first)), null, null));
+        export();
+        rendered.clear();
+
+        second.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 0, 0));
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(summary(second), summary(first)), null, null));
+        ExportResult result = export();
+
+        assertThat(result.getWritten()).isEqualTo(2);
+        assertThat(result.getSkipped()).isEqualTo(1);
+        assertThat(rendered).containsExactlyInAnyOrder("blog/article second", "blog/index");
+    }
+
+    @Test
+    void articlesAreReadInReadOnlyTransactionAndDetachedOnceRendered() throws Exception {
+        Article first = article(1L, "first", LocalDateTime.of(2024, 1, 1, 0, 0));
+        Article second = article(2L, "second", LocalDateTime.of(2024, 1, 2, 0, 0));
+        stubArticles(first, second);
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(summary(second), summary(first)), null, null));
+
+        export();
+
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    void unpublishedArticlesAreDeletedOnNextExport() throws Exception {
+        Article first = article(1L, "first", LocalDateTime.of(2024, 1, 1, 0, 0));
+        stubArticles(first);
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(summary(first)), null, null));
+        export();
+
+        stubArticles();
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(), null, null));
+        ExportResult result = export();
+
+        assertThat(result.getDeleted()).isEqualTo(1);
+        assertThat(outputDir.resolve("posts/first.html")).doesNotExist();
+    }
+
+    @Test
+    void articleChangeDeletesArticleAndIndexFiles() throws Exception {
+        Files.createDirectories(outputDir.resolve("posts"));
+        Files.createDirectories(outputDir.resolve("page"));
+        Files.writeString(outputDir.resolve("posts/first.html"), "old");
+        Files.writeString(outputDir.resolve("posts/other.html"), "other");
+        Files.writeString(outputDir.resolve("index.html"), "index");
+        Files.writeString(outputDir.resolve("page/2.html"), "page");
+        Files.writeString(outputDir.resolve("posts/first.html.gz"), "old");
+        Files.writeString(outputDir.resolve("page/2.html.gz"), "page");
+
+        exporter.onArticleChanged(new ArticleChangedEvent(1L, Set.of("first")));
+
+        assertThat(outputDir.resolve("posts/first.html")).doesNotExist();
+        assertThat(outputDir.resolve("posts/first.html.gz")).doesNotExist();
+        assertThat(outputDir.resolve("page/2.html.gz")).doesNotExist();
+        assertThat(outputDir.resolve("index.html")).doesNotExist();
+        assertThat(outputDir.resolve("page/2.html")).doesNotExist();
+        assertThat(outputDir.resolve("posts/other.html")).exists();
+    }
+
+    @Test
+    void findExportedPageMapsPublicUrlsToFiles() throws Exception {
+        Files.createDirectories(outputDir.resolve("posts"));
+        Files.createDirectories(outputDir.resolve("page"));
+        Files.writeString(outputDir.resolve("posts/first.html"), "post");
+        Files.writeString(outputDir.resolve("index.html"), "index");
+        Files.writeString(outputDir.resolve("page/2.html"), "page");
+
+        assertThat(exporter.findExportedPage("/")).isEqualTo(outputDir.resolve("index.html"));
+        assertThat(exporter.findExportedPage("/posts/first")).isEqualTo(outputDir.resolve("posts/first.html"));
+        assertThat(exporter.findExportedPage("/page/2")).isEqualTo(outputDir.resolve("page/2.html"));
+        assertThat(exporter.findExportedPage("/posts/missing")).isNull();
+        assertThat(exporter.findExportedPage("/posts/../index")).isNull();
+        assertThat(exporter.findExportedPage("/admin/articles")).isNull();
+    }
+
+    @Test
+    void compressiblePagesAreWrittenWithGzipVariant() throws Exception {
+        Article article = article(1L, "long", LocalDateTime.of(2024, 1, 1, 0, 0));
+        article.setContent("圧縮される本文 ".repeat(100));
+        stubArticles(article);
+        when(articleService.findPublishedPage(null, null))
+                .thenReturn(new ArticlePage<>(List.of(summary(article)), null, null));
+
+        export();
+
+        Path page = outputDir.resolve("posts/long.html");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(StaticSiteExporter.gzipVariant(page)))) {
+            assertThat(in.readAllBytes()).isEqualTo(Files.readAllBytes(page));
+        }
+        assertThat(StaticSiteExporter.gzipVariant(outputDir.resolve("index.html"))).doesNotExist();
+    }
+
+    @Test
+    void missingTemplateFailsExport() {
+        exporter = new StaticSiteExporter(articleRepository, articleService, entityManager, transactionManager,
+                (viewName, locale) -> null, outputDir.toString());
+
+        assertThatThrownBy(this::export).isInstanceOf(IllegalStateException.class);
+    }
+
+    private ExportResult export() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/admin/export");
+        request.addPreferredLocale(Locale.JAPAN);
+        return exporter.export(request, new MockHttpServletResponse());
+    }
+
+    private void stubArticles(Article... articles) {
+        when(articleRepository.findByPublishedTrueAndIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(articles));
+    }
+
+    private Article article(Long id, String slug, LocalDateTime updatedAt) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle(slug);
+        article.setSlug(slug);
+        article.setPublished(true);
+        article.setPublishedAt(updatedAt);
+        article.setUpdatedAt(updatedAt);
+        return article;
+    }
+
+    private ArticleSummary summary(Article article) {
+        return new ArticleSummary(article.getId(), article.getTitle(), article.getSlug(), null,
+                article.getPublishedAt(), article.getUpdatedAt(), true);
+    }
+
+    private final class RecordingView implements View {
+
+        private final String name;
+
+        private RecordingView(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest request,
+                           HttpServletResponse response) throws Exception {
+            StringBuilder body = new StringBuilder(name);
+            if (model.get("article") instanceof Article article) {
+                body.append(' ').append(article.getSlug());
+                if (article.getContent() != null) {
+                    body.append(' ').append(article.getContent());
+                }
+            }
+            if (model.containsKey("newerPageUrl")) {
+                body.append(" newer=").append(model.get("newerPageUrl"));
+            }
+            if (model.containsKey("olderPageUrl")) {
+                body.append(" older=").append(model.get("olderPageUrl"));
+            }
+            rendered.add(body.toString());
+            response.setContentType("text/html;charset=UTF-8");
+            response.getWriter().write(body.toString());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.blog.jfr;
+
+import com.example.blog.dto.ArticleForm;
+import com.example.blog.service.ArticleService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BlogJfrEventsTest {
+
+    private static final List<String> EVENT_NAMES = List.of(
+            ArticleFetchEvent.NAME, TemplateRenderEvent.NAME, SlugAllocationEvent.NAME, AuthenticationEvent.NAME);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @TempDir
+    private Path tempDir;
+
+    private Recording recording;
+
+    @BeforeEach
+    void startRecording() {
+        recording = new Recording();
+        EVENT_NAMES.forEach(name -> recording.enable(name).withThreshold(Duration.ZERO));
+        recording.start();
+    }
+
+    @AfterEach
+    void closeRecording() {
+        recording.close();
+    }
+
+    @Test
+    void articlePathEmitsSlugFetchAndRenderEvents() throws Exception {
+        String slug = "jfr-" + UUID.randomUUID();
+        articleService.createArticle(form(slug));
+        mockMvc.perform(get("/posts/{slug}", slug)).andExpect(status().isOk());
+
+        List<RecordedEvent> events = stopAndRead();
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo(SlugAllocationEvent.NAME);
+            assertThat(event.getString("slug")).isEqualTo(slug);
+            assertThat(event.getInt("attempts")).isEqualTo(1);
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo(ArticleFetchEvent.NAME);
+            assertThat(event.getString("operation")).isEqualTo("slug");
+            assertThat(event.getString("slug")).isEqualTo(slug);
+            assertThat(event.getInt("rowCount")).isEqualTo(1);
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getEventType().getName()).isEqualTo(TemplateRenderEvent.NAME);
+            assertThat(event.getString("viewName")).isEqualTo("blog/article");
+            assertThat(event.getLong("bytes")).isPositive();
+        });
+    }
+
+    @Test
+    void loginEmitsLookupAndVerifyPhases() throws Exception {
+        mockMvc.perform(formLogin().user("admin").password("wrong"));
+
+        List<RecordedEvent> events = stopAndRead().stream()
+                .filter(event -> event.getEventType().getName().equals(AuthenticationEvent.NAME))
+                .toList();
+
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getString("phase")).isEqualTo(AuthenticationEvent.LOOKUP);
+            assertThat(event.getString("username")).isEqualTo("admin");
+            assertThat(event.getBoolean("success")).isTrue();
+        });
+        assertThat(events).anySatisfy(event -> {
+            assertThat(event.getString("phase")).isEqualTo(AuthenticationEvent.VERIFY);
+            assertThat(event.getBoolean("success")).isFalse();
+        });
+    }
+
+    @Test
+    void bundledSettingsEnableAllBlogEvents() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource("jfr/blog.jfc").getInputStream(), StandardCharsets.UTF_8)) {
+            Configuration configuration = Configuration.create(reader);
+
+            EVENT_NAMES.forEach(name ->
+                    assertThat(configuration.getSettings()).containsEntry(name + "#enabled", "true"));
+        }
+    }
+
+    private List<RecordedEvent> stopAndRead() throws Exception {
+        recording.stop();
+        Path file = tempDir.resolve("blog.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static ArticleForm form(String slug) {
+        ArticleForm form = new ArticleForm();
+        form.setTitle("JFR テスト");
+        form.setSummary("要約");
+        form.setSlug(slug);
+        form.setContent("本文です。");
+        form.setPublished(true);
+        return form;
+    }
+}
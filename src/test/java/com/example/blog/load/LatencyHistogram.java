@@ -0,0 +1,74 @@
+package com.example.blog.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HdrHistogram と同じ考え方の対数線形バケットでレイテンシ (マイクロ秒) を記録するヒストグラム。
+ * 256 未満はそのまま、それ以上は 2 の冪ごとに 128 分割するので、どの値も相対誤差 1% 未満で記録できる。
+ * 多数の仮想スレッドから同時に {@link #record(long)} されることを前提にロックを使わない。
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF << 1;
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_TRACKABLE_MICROS) + 1);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_TRACKABLE_MICROS);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    long getTotalCount() {
+        return totalCount.get();
+    }
+
+    long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * 指定したパーセンタイル (0〜100) 以下に収まる最大の値を返す。バケットの上端を返すため実測値以上になる。
+     */
+    long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int index = 0; index < counts.length(); index++) {
+            seen += counts.get(index);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(index), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
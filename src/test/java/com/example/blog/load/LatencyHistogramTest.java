@@ -0,0 +1,69 @@
+package com.example.blog.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesOfUniformValuesStayWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(100_000);
+        assertThat(histogram.getValueAtPercentile(50)).isCloseTo(50_000, within(500L));
+        assertThat(histogram.getValueAtPercentile(99)).isCloseTo(99_000, within(990L));
+        assertThat(histogram.getValueAtPercentile(99.9)).isCloseTo(99_900, within(999L));
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100_000);
+        assertThat(histogram.getMaxValue()).isEqualTo(100_000);
+    }
+
+    @Test
+    void smallValuesAreRecordedExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(200);
+
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(3);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(200);
+    }
+
+    @Test
+    void bucketBoundariesAreContiguous() {
+        for (int index = 1; index < LatencyHistogram.indexOf(TimeUnit.HOURS.toMicros(1)); index++) {
+            long lowest = LatencyHistogram.highestEquivalentValue(index - 1) + 1;
+            assertThat(LatencyHistogram.indexOf(lowest)).isEqualTo(index);
+            assertThat(LatencyHistogram.indexOf(LatencyHistogram.highestEquivalentValue(index))).isEqualTo(index);
+        }
+    }
+
+    @Test
+    void concurrentRecordingLosesNoSamples() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int thread = 0; thread < 100; thread++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        histogram.record(i);
+                    }
+                });
+            }
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(100_000);
+        assertThat(histogram.getMaxValue()).isEqualTo(999);
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        assertThat(new LatencyHistogram().getValueAtPercentile(99)).isZero();
+    }
+}
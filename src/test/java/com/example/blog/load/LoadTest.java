@@ -0,0 +1,367 @@
+package com.example.blog.load;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 実際のポートで起動したアプリケーションに、仮想スレッドのクライアントから読者・管理者・ログインの混在した負荷をかけ、
+ * シナリオごとのレイテンシ (p50/p99/p99.9) とスループットが {@code load-test.properties} の予算内か検証する。
+ * 時間がかかるため通常のテストからは除外しており、{@code ./mvnw test -Pload-test} で実行する。
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "logging.level.root=WARN",
+        "logging.level.com.example.blog.load=INFO"
+})
+class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+    private static final Pattern SESSION_COOKIE = Pattern.compile("JSESSIONID=([^;]+)");
+    private static final int EDITED_ARTICLES = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LoadTestSettings settings = new LoadTestSettings();
+    private final Map<Scenario, LatencyHistogram> histograms = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, AtomicLong> errors = new EnumMap<>(Scenario.class);
+    private HttpClient client;
+    private List<Long> articleIds;
+    private volatile boolean recording;
+
+    @BeforeEach
+    void setUp() {
+        for (Scenario scenario : Scenario.values()) {
+            histograms.put(scenario, new LatencyHistogram());
+            errors.put(scenario, new AtomicLong());
+        }
+        client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        seedArticles(settings.getInt("load.articles"));
+        articleIds = jdbcTemplate.queryForList("select id from articles where slug like 'load-%' order by id", Long.class);
+    }
+
+    @Test
+    void mixedTrafficStaysWithinBudgets() throws Exception {
+        int concurrency = settings.getInt("load.concurrency");
+        long warmupNanos = TimeUnit.SECONDS.toNanos(settings.getInt("load.warmup-seconds"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(settings.getInt("load.duration-seconds"));
+
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + warmupNanos;
+        long deadline = measureFrom + durationNanos;
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                users.submit(() -> runUser(deadline));
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+            recording = true;
+        }
+        recording = false;
+        double elapsedSeconds = (System.nanoTime() - measureFrom) / 1_000_000_000.0;
+
+        String report = report(elapsedSeconds);
+        log.info("負荷テストの結果 ({} ユーザー, {} 秒):{}", concurrency, String.format("%.1f", elapsedSeconds), report);
+        assertThat(checkBudgets(elapsedSeconds)).as(report).isEmpty();
+    }
+
+    private void runUser(long deadline) {
+        UserSession admin = null;
+        while (System.nanoTime() < deadline) {
+            Scenario scenario = pickScenario();
+            try {
+                if (scenario.isAdmin() && admin == null) {
+                    admin = new UserSession();
+                    admin.login();
+                }
+                switch (scenario) {
+                    case INDEX -> timed(scenario, () -> new UserSession().get("/", 200));
+                    case ARTICLE -> timed(scenario, () -> new UserSession().get("/posts/load-" + randomArticle(), 200));
+                    case ADMIN_LIST -> {
+                        UserSession session = admin;
+                        timed(scenario, () -> session.get("/admin/articles", 200));
+                    }
+                    case ADMIN_EDIT -> {
+                        UserSession session = admin;
+                        timed(scenario, () -> editArticle(session));
+                    }
+                    case LOGIN -> loginBurst();
+                }
+            } catch (Exception ex) {
+                countError(scenario);
+                admin = null;
+            }
+        }
+    }
+
+    private void loginBurst() throws InterruptedException {
+        try (ExecutorService burst = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.getInt("load.login-burst-size"); i++) {
+                burst.submit(() -> {
+                    try {
+                        timed(Scenario.LOGIN, () -> new UserSession().login());
+                    } catch (Exception ex) {
+                        countError(Scenario.LOGIN);
+                    }
+                });
+            }
+        }
+    }
+
+    private void editArticle(UserSession session) throws IOException, InterruptedException {
+        int index = ThreadLocalRandom.current().nextInt(Math.min(EDITED_ARTICLES, articleIds.size()));
+        Long id = articleIds.get(index);
+        String form = session.get("/admin/articles/" + id + "/edit", 200);
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("title", "負荷テストの記事 " + (index + 1) + " (" + System.nanoTime() + ")");
+        fields.put("summary", "概要");
+        fields.put("slug", "load-" + (index + 1));
+        fields.put("content", "更新された本文です。\n\n".repeat(20));
+        fields.put("published", "true");
+        fields.put("_csrf", csrfToken(form));
+        session.post("/admin/articles/" + id, fields, 302);
+    }
+
+    private Scenario pickScenario() {
+        int total = 0;
+        for (Scenario scenario : Scenario.values()) {
+            total += weight(scenario);
+        }
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Scenario scenario : Scenario.values()) {
+            pick -= weight(scenario);
+            if (pick < 0) {
+                return scenario;
+            }
+        }
+        return Scenario.INDEX;
+    }
+
+    private int weight(Scenario scenario) {
+        return settings.getInt("load.weight." + scenario.key);
+    }
+
+    private int randomArticle() {
+        return ThreadLocalRandom.current().nextInt(articleIds.size()) + 1;
+    }
+
+    private void timed(Scenario scenario, Action action) throws Exception {
+        long start = System.nanoTime();
+        action.run();
+        if (recording) {
+            histograms.get(scenario).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    private void countError(Scenario scenario) {
+        if (recording) {
+            errors.get(scenario).incrementAndGet();
+        }
+    }
+
+    private List<String> checkBudgets(double elapsedSeconds) {
+        List<String> violations = new ArrayList<>();
+        long requests = 0;
+        long failed = 0;
+        for (Scenario scenario : Scenario.values()) {
+            LatencyHistogram histogram = histograms.get(scenario);
+            requests += histogram.getTotalCount();
+            failed += errors.get(scenario).get();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            checkLatency(violations, scenario, "p99", histogram.getValueAtPercentile(99));
+            checkLatency(violations, scenario, "p999", histogram.getValueAtPercentile(99.9));
+        }
+        double throughput = requests / elapsedSeconds;
+        double minThroughput = settings.getDouble("load.budget.min-throughput");
+        if (throughput < minThroughput) {
+            violations.add(String.format("スループット %.1f req/s が下限 %.1f req/s を下回りました", throughput, minThroughput));
+        }
+        double errorRate = requests + failed == 0 ? 0 : (double) failed / (requests + failed);
+        double maxErrorRate = settings.getDouble("load.budget.max-error-rate");
+        if (errorRate > maxErrorRate) {
+            violations.add(String.format("エラー率 %.4f が上限 %.4f を超えました", errorRate, maxErrorRate));
+        }
+        return violations;
+    }
+
+    private void checkLatency(List<String> violations, Scenario scenario, String percentile, long micros) {
+        double budgetMillis = settings.getDouble("load.budget." + scenario.key + "." + percentile + "-ms");
+        if (micros / 1000.0 > budgetMillis) {
+            violations.add(String.format("%s の %s %.1f ms が予算 %.1f ms を超えました",
+                    scenario.key, percentile, micros / 1000.0, budgetMillis));
+        }
+    }
+
+    private String report(double elapsedSeconds) {
+        StringBuilder report = new StringBuilder(String.format("%n%-12s %8s %9s %9s %9s %9s %9s %7s%n",
+                "scenario", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+        for (Scenario scenario : Scenario.values()) {
+            LatencyHistogram histogram = histograms.get(scenario);
+            report.append(String.format("%-12s %8d %9.1f %9.1f %9.1f %9.1f %9.1f %7d%n",
+                    scenario.key,
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / elapsedSeconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    errors.get(scenario).get()));
+        }
+        return report.toString();
+    }
+
+    private void seedArticles(int count) {
+        jdbcTemplate.update("delete from articles where slug like 'load-%'");
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Timestamp publishedAt = Timestamp.valueOf(base.plusMinutes(i));
+            String content = ("負荷テストの本文 " + i + " です。\n\n").repeat(20);
+            rows.add(new Object[]{"負荷テストの記事 " + i, "load-" + i, "概要 " + i, content,
+                    "<p>" + content.strip().replace("\n\n", "</p>\n<p>") + "</p>\n",
+                    true, publishedAt, publishedAt, publishedAt});
+        }
+        jdbcTemplate.batchUpdate("insert into articles (title, slug, summary, content, rendered_html,"
+                + " published, published_at, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static String csrfToken(String html) {
+        Matcher matcher = CSRF_TOKEN.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("CSRF トークンが見つかりません");
+        }
+        return matcher.group(1);
+    }
+
+    private enum Scenario {
+        INDEX("index"),
+        ARTICLE("article"),
+        ADMIN_LIST("admin-list"),
+        ADMIN_EDIT("admin-edit"),
+        LOGIN("login");
+
+        private final String key;
+
+        Scenario(String key) {
+            this.key = key;
+        }
+
+        boolean isAdmin() {
+            return this == ADMIN_LIST || this == ADMIN_EDIT;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * セッション Cookie だけを保持する軽量なクライアント。HttpClient は全ユーザーで共有する。
+     */
+    private final class UserSession {
+
+        private String sessionId;
+
+        void login() throws IOException, InterruptedException {
+            String page = get("/login", 200);
+            Map<String, String> fields = new LinkedHashMap<>();
+            fields.put("username", "admin");
+            fields.put("password", "admin");
+            fields.put("_csrf", csrfToken(page));
+            HttpResponse<String> response = post("/login", fields, 302);
+            String location = response.headers().firstValue("Location").orElse("");
+            if (!location.endsWith("/admin/articles")) {
+                throw new IllegalStateException("ログインに失敗しました: " + location);
+            }
+        }
+
+        String get(String path, int expectedStatus) throws IOException, InterruptedException {
+            return send(request(path).GET().build(), expectedStatus).body();
+        }
+
+        HttpResponse<String> post(String path, Map<String, String> fields, int expectedStatus)
+                throws IOException, InterruptedException {
+            StringBuilder body = new StringBuilder();
+            fields.forEach((name, value) -> {
+                if (!body.isEmpty()) {
+                    body.append('&');
+                }
+                body.append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                        .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            });
+            HttpRequest request = request(path)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            return send(request, expectedStatus);
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(30));
+            if (sessionId != null) {
+                builder.header("Cookie", "JSESSIONID=" + sessionId);
+            }
+            return builder;
+        }
+
+        private HttpResponse<String> send(HttpRequest request, int expectedStatus)
+                throws IOException, InterruptedException {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            for (String cookie : response.headers().allValues("Set-Cookie")) {
+                Matcher matcher = SESSION_COOKIE.matcher(cookie);
+                if (matcher.find()) {
+                    sessionId = matcher.group(1);
+                }
+            }
+            if (response.statusCode() != expectedStatus) {
+                throw new IllegalStateException(request.method() + " " + request.uri().getPath()
+                        + " が " + response.statusCode() + " を返しました");
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.blog.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * {@code load-test.properties} の値をシステムプロパティで上書きして読む。
+ */
+class LoadTestSettings {
+
+    private static final String RESOURCE = "/load-test.properties";
+
+    private final Properties properties = new Properties();
+
+    LoadTestSettings() {
+        try (InputStream in = LoadTestSettings.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        System.getProperties().forEach((key, value) -> {
+            if (key.toString().startsWith("load.")) {
+                properties.setProperty(key.toString(), value.toString());
+            }
+        });
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(require(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(require(key));
+    }
+
+    private String require(String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("負荷テストの設定がありません: " + key);
+        }
+        return value.trim();
+    }
+}
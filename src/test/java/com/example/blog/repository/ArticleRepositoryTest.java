@@ -1,16 +1,21 @@
 package com.example.blog.repository;
 
+import com.example.blog.dto.ArticleFeedVersion;
+import com.example.blog.dto.ArticleSummary;
 import com.example.blog.model.Article;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 class ArticleRepositoryTest {
@@ -61,6 +66,100 @@ class ArticleRepositoryTest {
                 .containsExactly(second.getSlug(), first.getSlug());
     }
 
+    @Test
+    void keysetQueriesPageThroughPublishedArticlesWithTieBreakOnId() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Article newest = createArticle("Newest", "newest", true, now);
+        Article tieLow = createArticle("Tie low", "tie-low", true, now.minusDays(1));
+        Article tieHigh = createArticle("Tie high", "tie-high", true, now.minusDays(1));
+        Article oldest = createArticle("Oldest", "oldest", true, now.minusDays(2));
+        createArticle("Draft", "draft", false, null);
+
+        List<ArticleSummary> firstPage = articleRepository.findLatestPublished(PageRequest.ofSize(2));
+        assertThat(firstPage).extracting(ArticleSummary::getSlug)
+                .containsExactly(newest.getSlug(), tieHigh.getSlug());
+
+        ArticleSummary last = firstPage.get(1);
+        List<ArticleSummary> olderPage = articleRepository.findPublishedOlderThan(
+                last.getPublishedAt(), last.getId(), PageRequest.ofSize(2));
+        assertThat(olderPage).extracting(ArticleSummary::getSlug)
+                .containsExactly(tieLow.getSlug(), oldest.getSlug());
+
+        ArticleSummary first = olderPage.get(0);
+        List<ArticleSummary> newerPage = articleRepository.findPublishedNewerThan(
+                first.getPublishedAt(), first.getId(), PageRequest.ofSize(2));
+        assertThat(newerPage).extracting(ArticleSummary::getSlug)
+                .containsExactly(tieHigh.getSlug(), newest.getSlug());
+    }
+
+    @Test
+    void summaryQueriesProjectListingColumns() {
+        LocalDateTime now = LocalDateTime.now();
+        Article published = createArticle("Published", "published", true, now);
+        Article draft = createArticle("Draft", "draft", false, null);
+        setUpdatedAt(published.getId(), now.minusHours(1));
+        entityManager.clear();
+
+        List<ArticleSummary> publishedSummaries = articleRepository.findLatestPublished(PageRequest.ofSize(10));
+        assertThat(publishedSummaries).singleElement().satisfies(summary -> {
+            assertThat(summary.getId()).isEqualTo(published.getId());
+            assertThat(summary.getTitle()).isEqualTo("Published");
+            assertThat(summary.getSummary()).isEqualTo("Summary");
+            assertThat(summary.isPublished()).isTrue();
+        });
+
+        assertThat(articleRepository.findAllSummaries()).extracting(ArticleSummary::getSlug)
+                .containsExactly(draft.getSlug(), published.getSlug());
+    }
+
+    @Test
+    void findPublishedFeedVersionReportsCountAndNewestUpdate() {
+        assertThat(articleRepository.findPublishedFeedVersion().getLastUpdatedAt()).isNull();
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Article first = createArticle("First", "first", true, now);
+        Article second = createArticle("Second", "second", true, now);
+        Article draft = createArticle("Draft", "draft", false, null);
+        setUpdatedAt(first.getId(), now.minusDays(1));
+        setUpdatedAt(second.getId(), now.minusHours(1));
+        setUpdatedAt(draft.getId(), now);
+        entityManager.clear();
+
+        ArticleFeedVersion version = articleRepository.findPublishedFeedVersion();
+
+        assertThat(version.getPublishedCount()).isEqualTo(2);
+        assertThat(version.getLastUpdatedAt()).isEqualTo(now.minusHours(1));
+    }
+
+    @Test
+    void updateRenderedHtmlFillsRowsMissingHtml() {
+        Article article = createArticle("Legacy", "legacy", true, LocalDateTime.now());
+
+        assertThat(articleRepository.findTop100ByRenderedHtmlIsNullOrderByIdAsc())
+                .extracting(Article::getSlug).containsExactly("legacy");
+
+        articleRepository.updateRenderedHtml(article.getId(), "<p>Content</p>");
+        entityManager.clear();
+
+        assertThat(articleRepository.findTop100ByRenderedHtmlIsNullOrderByIdAsc()).isEmpty();
+        assertThat(articleRepository.findById(article.getId())).get()
+                .extracting(Article::getRenderedHtml).isEqualTo("<p>Content</p>");
+    }
+
+    @Test
+    void duplicateSlugViolatesNamedConstraint() {
+        createArticle("First", "same", true, LocalDateTime.now());
+        Article duplicate = new Article();
+        duplicate.setTitle("Second");
+        duplicate.setSlug("same");
+        duplicate.setContent("Content");
+
+        assertThatThrownBy(() -> articleRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(ex -> assertThat(((DataIntegrityViolationException) ex).getMostSpecificCause().getMessage())
+                        .containsIgnoringCase(Article.SLUG_CONSTRAINT));
+    }
+
     private Article createArticle(String title, String slug, boolean published, LocalDateTime publishedAt) {
         Article article = new Article();
         article.setTitle(title);
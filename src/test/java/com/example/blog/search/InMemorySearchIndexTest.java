@@ -0,0 +1,100 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemorySearchIndexTest {
+
+    private final InMemorySearchIndex index = new InMemorySearchIndex(new SearchTokenizer());
+
+    @Test
+    void searchRanksTitleMatchesAboveContentMatches() {
+        index.index(summary(1L, "料理のメモ", null), "今日は全文検索について少し触れます。");
+        index.index(summary(2L, "全文検索の仕組み", null), "転置インデックスを使います。");
+        index.index(summary(3L, "旅行記", null), "京都に行きました。");
+
+        assertThat(index.search("全文検索", 10))
+                .extracting(hit -> hit.getArticle().getId())
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void searchMatchesLatinWordsCaseInsensitively() {
+        index.index(summary(1L, "Spring Boot tips", "Using JPA"), "");
+        index.index(summary(2L, "Other", null), "nothing here");
+
+        assertThat(index.search("jpa", 10))
+                .extracting(hit -> hit.getArticle().getId())
+                .containsExactly(1L);
+    }
+
+    @Test
+    void reindexingReplacesPreviousTerms() {
+        index.index(summary(1L, "古いタイトル", null), "");
+        index.index(summary(1L, "新しい見出し", null), "");
+
+        assertThat(index.search("古い", 10)).isEmpty();
+        assertThat(index.search("見出し", 10)).hasSize(1);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removedArticlesAreNoLongerFound() {
+        index.index(summary(1L, "検索対象", null), "");
+        index.index(summary(2L, "検索対象", null), "");
+
+        index.remove(1L);
+
+        assertThat(index.search("検索", 10))
+                .extracting(hit -> hit.getArticle().getId())
+                .containsExactly(2L);
+    }
+
+    @Test
+    void retainAllDropsArticlesNotInTheGivenIds() {
+        index.index(summary(1L, "検索対象", null), "");
+        index.index(summary(2L, "検索対象", null), "");
+
+        index.retainAll(List.of(2L));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("検索", 10))
+                .extracting(hit -> hit.getArticle().getId())
+                .containsExactly(2L);
+    }
+
+    @Test
+    void searchHonoursLimit() {
+        for (long id = 1; id <= 30; id++) {
+            index.index(summary(id, "記事 " + id, null), "共通の本文");
+        }
+
+        assertThat(index.search("本文", 5)).hasSize(5);
+    }
+
+    @Test
+    void compactionKeepsLiveDocumentsSearchable() {
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= 100; id++) {
+                index.index(summary(id, "round " + round, null), "word" + id + " 共通 本文 データ " + round);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(100);
+        assertThat(index.search("word42", 10))
+                .extracting(hit -> hit.getArticle().getId())
+                .containsExactly(42L);
+        assertThat(index.search("round 3", 10)).allSatisfy(hit ->
+                assertThat(hit.getArticle().getTitle()).isEqualTo("round 19"));
+    }
+
+    private ArticleSummary summary(Long id, String title, String summary) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ArticleSummary(id, title, "slug-" + id, summary, now, now, true);
+    }
+}
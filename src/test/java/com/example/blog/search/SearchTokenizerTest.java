@@ -0,0 +1,47 @@
+package com.example.blog.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTest {
+
+    private final SearchTokenizer tokenizer = new SearchTokenizer();
+
+    @Test
+    void latinTextIsSplitIntoLowercaseWords() {
+        assertThat(tokenizer.tokenize("Spring Boot 3.2, JPA!"))
+                .containsExactly("spring", "boot", "3", "2", "jpa");
+    }
+
+    @Test
+    void japaneseTextIsSplitIntoBigrams() {
+        assertThat(tokenizer.tokenize("全文検索"))
+                .containsExactly("全文", "文検", "検索");
+    }
+
+    @Test
+    void mixedScriptsAreSeparatedAndWidthIsNormalized() {
+        assertThat(tokenizer.tokenize("ＪＡＶＡ入門とｻｰﾊﾞｰ"))
+                .containsExactly("java", "入門", "門と", "とサ", "サー", "ーバ", "バー");
+    }
+
+    @Test
+    void singleCjkCharacterIsKeptAsUnigram() {
+        assertThat(tokenizer.tokenize("猫 cat")).containsExactly("猫", "cat");
+    }
+
+    @Test
+    void overlongWordsAreDropped() {
+        String longWord = "a".repeat(SearchTokenizer.MAX_TOKEN_LENGTH + 1);
+
+        assertThat(tokenizer.tokenize("before " + longWord + " after")).containsExactly("before", "after");
+        assertThat(tokenizer.tokenize("a".repeat(SearchTokenizer.MAX_TOKEN_LENGTH))).hasSize(1);
+    }
+
+    @Test
+    void blankTextHasNoTokens() {
+        assertThat(tokenizer.tokenize(null)).isEmpty();
+        assertThat(tokenizer.tokenize(" 、。 ")).isEmpty();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.blog.search;
+
+import com.example.blog.dto.ArticleSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SegmentedSearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private SegmentedSearchIndex index;
+
+    @AfterEach
+    void tearDown() {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    void liveAndFlushedDocumentsAreSearchable() throws IOException {
+        index = open();
+        index.index(summary(1L, "全文検索の仕組み"), "転置インデックスを使います。");
+        index.flush();
+        index.index(summary(2L, "料理のメモ"), "今日は全文検索について少し触れます。");
+
+        assertThat(index.segmentCount()).isEqualTo(1);
+        assertThat(index.search("全文検索", 10))
+                .extracting(hit -> hit.getArticle().getId())
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void reopenedIndexServesFlushedSegmentsWithSummaries() throws IOException {
+        LocalDateTime publishedAt = LocalDateTime.of(2024, 4, 1, 9, 30, 15, 123_000_000);
+        index = open();
+        index.index(new ArticleSummary(7L, "永続化された記事", "persisted", "概要", publishedAt, publishedAt, true),
+                "本文です");
+        index.close();
+
+        index = open();
+
+        List<SearchHit> hits = index.search("永続", 10);
+        assertThat(hits).hasSize(1);
+        ArticleSummary article = hits.get(0).getArticle();
+        assertThat(article.getId()).isEqualTo(7L);
+        assertThat(article.getSlug()).isEqualTo("persisted");
+        assertThat(article.getSummary()).isEqualTo("概要");
+        assertThat(article.getPublishedAt()).isEqualTo(publishedAt);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void updatesAndDeletesSurviveReopenThroughSequencesAndTombstones() throws IOException {
+        index = open();
+        index.index(summary(1L, "古いタイトル"), "");
+        index.index(summary(2L, "削除される記事"), "");
+        index.flush();
+        index.index(summary(1L, "新しい見出し"), "");
+        index.remove(2L);
+        index.close();
+
+        index = open();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("古い", 10)).isEmpty();
+        assertThat(index.search("削除", 10)).isEmpty();
+        assertThat(index.search("見出し", 10))
+                .extracting(hit -> hit.getArticle().getId())
+                .containsExactly(1L);
+    }
+
+    @Test
+    void mergeCombinesSegmentsAndDropsSupersededVersions() throws IOException {
+        index = SegmentedSearchIndex.open(directory, new SearchTokenizer(), 10_000, 2, 0);
+        for (long round = 0; round < 5; round++) {
+            index.index(summary(1L, "版 " + round + " 共通"), "");
+            index.index(summary(10L + round, "記事 " + round + " 共通"), "");
+            index.flush();
+        }
+
+        while (index.mergeIfNeeded()) {
+            // 上限まで続ける
+        }
+
+        assertThat(index.segmentCount()).isLessThanOrEqualTo(2);
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.search("共通", 10)).hasSize(6);
+        assertThat(segmentFiles()).hasSize(index.segmentCount());
+        index.close();
+
+        index = open();
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.search("版", 10))
+                .extracting(hit -> hit.getArticle().getTitle())
+                .containsExactly("版 4 共通");
+    }
+
+    @Test
+    void watermarkIsPersistedOnlyAfterResume() throws IOException {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        index = open();
+        index.index(new ArticleSummary(1L, "記事", "a", null, updatedAt, updatedAt, true), "");
+        index.close();
+
+        index = open();
+        assertThat(index.watermark()).isNull();
+
+        index.resumeWatermark(updatedAt);
+        index.index(new ArticleSummary(2L, "記事", "b", null, updatedAt, updatedAt.plusDays(1), true), "");
+        index.close();
+
+        index = open();
+        assertThat(index.watermark()).isEqualTo(updatedAt.plusDays(1));
+    }
+
+    @Test
+    void retainAllAndClearRemoveDocuments() throws IOException {
+        index = open();
+        index.index(summary(1L, "記事"), "");
+        index.index(summary(2L, "記事"), "");
+        index.flush();
+
+        index.retainAll(List.of(2L));
+        assertThat(index.search("記事", 10))
+                .extracting(hit -> hit.getArticle().getId())
+                .containsExactly(2L);
+
+        index.clear();
+        assertThat(index.size()).isZero();
+        assertThat(segmentFiles()).isEmpty();
+    }
+
+    @Test
+    void unreadableSegmentResetsIndex() throws IOException {
+        index = open();
+        index.index(summary(1L, "記事"), "");
+        index.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().startsWith("seg-")).toList()) {
+                Files.write(file, new byte[]{1, 2, 3});
+            }
+        }
+
+        index = open();
+
+        assertThat(index.size()).isZero();
+        assertThat(index.watermark()).isNull();
+    }
+
+    @Test
+    void veryLongTokensDoNotCorruptFlushedSegments() throws IOException {
+        index = open();
+        index.index(summary(1L, "長い語を含む記事"), "x".repeat(70_000) + " zebra " + "長".repeat(70_000));
+        index.index(summary(2L, "別の記事"), "yak");
+        index.close();
+
+        index = open();
+
+        assertThat(index.search("zebra", 10)).extracting(hit -> hit.getArticle().getId()).containsExactly(1L);
+        assertThat(index.search("yak", 10)).extracting(hit -> hit.getArticle().getId()).containsExactly(2L);
+        assertThat(index.search("記事", 10)).hasSize(2);
+    }
+
+    @Test
+    void writerRejectsTermsThatDoNotFitTheLengthField() {
+        SegmentWriter writer = new SegmentWriter();
+        writer.addPosting("x".repeat(SegmentWriter.MAX_TERM_BYTES + 1), 0, 1);
+
+        assertThatThrownBy(() -> writer.write(directory.resolve("too-long.seg")))
+                .isInstanceOf(IOException.class);
+    }
+
+    private SegmentedSearchIndex open() throws IOException {
+        return SegmentedSearchIndex.open(directory, new SearchTokenizer(), 10_000, 8, 0);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("seg-")).toList();
+        }
+    }
+
+    private ArticleSummary summary(Long id, String title) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ArticleSummary(id, title, "slug-" + id, null, now, now, true);
+    }
+}
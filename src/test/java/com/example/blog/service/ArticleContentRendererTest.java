@@ -0,0 +1,31 @@
+package com.example.blog.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleContentRendererTest {
+
+    private final ArticleContentRenderer renderer = new ArticleContentRenderer();
+
+    @Test
+    void blankLinesSeparateParagraphsAndNewlinesBecomeLineBreaks() {
+        String html = renderer.render("一行目\r\n二行目\n\n\n次の段落");
+
+        assertThat(html).isEqualTo("<p>一行目<br/>\n二行目</p>\n<p>次の段落</p>\n");
+    }
+
+    @Test
+    void markupInContentIsEscaped() {
+        String html = renderer.render("<img src=x onerror=\"alert(1)\"> & <b>bold</b>");
+
+        assertThat(html).doesNotContain("<img", "<b>")
+                .contains("&lt;img src=x onerror=&quot;alert(1)&quot;&gt; &amp; &lt;b&gt;bold&lt;/b&gt;");
+    }
+
+    @Test
+    void emptyContentRendersNothing() {
+        assertThat(renderer.render(null)).isEmpty();
+        assertThat(renderer.render("  \n ")).isEmpty();
+    }
+}
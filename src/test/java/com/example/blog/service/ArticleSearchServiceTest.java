@@ -0,0 +1,134 @@
+package com.example.blog.service;
+
+import com.example.blog.model.Article;
+import com.example.blog.repository.ArticleRepository;
+import com.example.blog.search.InMemorySearchIndex;
+import com.example.blog.search.SearchHit;
+import com.example.blog.search.SearchIndex;
+import com.example.blog.search.SearchTokenizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleSearchServiceTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    private ArticleSearchService articleSearchService;
+
+    @BeforeEach
+    void setUp() {
+        articleSearchService = new ArticleSearchService(articleRepository,
+                new InMemorySearchIndex(new SearchTokenizer()));
+    }
+
+    @Test
+    void rebuildIndexesPublishedArticlesInBatches() {
+        when(articleRepository.findByPublishedTrueAndIdGreaterThanOrderByIdAsc(eq(0L), any(PageRequest.class)))
+                .thenReturn(List.of(article(1L, "全文検索", true), article(2L, "旅行記", true)));
+
+        articleSearchService.initialize();
+
+        assertThat(articleSearchService.indexedCount()).isEqualTo(2);
+        assertThat(articleSearchService.search("検索"))
+                .extracting(hit -> hit.getArticle().getSlug())
+                .containsExactly("slug-1");
+    }
+
+    @Test
+    void articleChangeIndexesPublishedArticle() {
+        when(articleRepository.findById(5L)).thenReturn(Optional.of(article(5L, "新しい記事", true)));
+
+        articleSearchService.onArticleChanged(new ArticleChangedEvent(5L, Set.of("slug-5")));
+
+        assertThat(articleSearchService.search("記事")).hasSize(1);
+    }
+
+    @Test
+    void importedArticlesAreIndexedFromTheirFirstId() {
+        when(articleRepository.findByPublishedTrueAndIdGreaterThanOrderByIdAsc(eq(40L), any(PageRequest.class)))
+                .thenReturn(List.of(article(41L, "取り込んだ記事", true), article(42L, "移行した記事", true)));
+
+        articleSearchService.onArticlesImported(new ArticlesImportedEvent(40L, 2));
+
+        assertThat(articleSearchService.indexedCount()).isEqualTo(2);
+        assertThat(articleSearchService.search("記事")).hasSize(2);
+    }
+
+    @Test
+    void articleChangeRemovesUnpublishedOrDeletedArticle() {
+        when(articleRepository.findById(5L))
+                .thenReturn(Optional.of(article(5L, "新しい記事", true)))
+                .thenReturn(Optional.of(article(5L, "新しい記事", false)));
+        when(articleRepository.findById(6L))
+                .thenReturn(Optional.of(article(6L, "別の記事", true)))
+                .thenReturn(Optional.empty());
+        articleSearchService.onArticleChanged(new ArticleChangedEvent(5L, Set.of("slug-5")));
+        articleSearchService.onArticleChanged(new ArticleChangedEvent(6L, Set.of("slug-6")));
+
+        articleSearchService.onArticleChanged(new ArticleChangedEvent(5L, Set.of("slug-5")));
+        articleSearchService.onArticleChanged(new ArticleChangedEvent(6L, Set.of("slug-6")));
+
+        assertThat(articleSearchService.search("記事")).isEmpty();
+        assertThat(articleSearchService.indexedCount()).isZero();
+    }
+
+    @Test
+    void initializeReconcilesPersistedIndexFromWatermark() {
+        SearchIndex index = mock(SearchIndex.class);
+        LocalDateTime watermark = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Article changed = article(3L, "更新された記事", true);
+        changed.setUpdatedAt(watermark.plusHours(1));
+        when(index.watermark()).thenReturn(watermark);
+        when(articleRepository.findPublishedIds()).thenReturn(List.of(1L, 3L));
+        when(articleRepository.findByPublishedTrueAndUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(
+                eq(watermark.minusMinutes(5)), eq(0L), any(PageRequest.class)))
+                .thenReturn(List.of(changed));
+
+        new ArticleSearchService(articleRepository, index).initialize();
+
+        verify(index, never()).clear();
+        verify(index).retainAll(List.of(1L, 3L));
+        verify(index).index(argThat(summary -> summary.getId().equals(3L)), eq("本文"));
+        verify(index).resumeWatermark(watermark.plusHours(1));
+    }
+
+    @Test
+    void blankQueryReturnsNothingWithoutTouchingRepository() {
+        List<SearchHit> hits = articleSearchService.search("  ");
+
+        assertThat(hits).isEmpty();
+        verifyNoInteractions(articleRepository);
+    }
+
+    private Article article(Long id, String title, boolean published) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle(title);
+        article.setSlug("slug-" + id);
+        article.setContent("本文");
+        article.setPublished(published);
+        article.setPublishedAt(published ? LocalDateTime.now() : null);
+        return article;
+    }
+}
@@ -1,18 +1,34 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.ArticleCache;
+import com.example.blog.cache.FeedVersionCache;
+import com.example.blog.dto.ArticleCursor;
+import com.example.blog.dto.ArticleFeedVersion;
 import com.example.blog.dto.ArticleForm;
+import com.example.blog.dto.ArticlePage;
+import com.example.blog.dto.ArticleSummary;
 import com.example.blog.model.Article;
 import com.example.blog.repository.ArticleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,6 +37,9 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,13 +49,29 @@ class ArticleServiceTest {
     @Mock
     private ArticleRepository articleRepository;
 
-    @InjectMocks
+    @Spy
+    private ArticleCache articleCache = new ArticleCache(10);
+
+    @Spy
+    private FeedVersionCache feedVersionCache = new FeedVersionCache();
+
+    @Spy
+    private ArticleContentRenderer contentRenderer = new ArticleContentRenderer();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private ArticleService articleService;
 
     private ArticleForm baseForm;
 
     @BeforeEach
     void setUp() {
+        articleService = new ArticleService(articleRepository, articleCache, feedVersionCache, contentRenderer,
+                eventPublisher, new SlugAllocator(articleRepository), transactionManager);
         baseForm = new ArticleForm();
         baseForm.setTitle("Café au Lait");
         baseForm.setSummary("Summary");
@@ -46,14 +81,15 @@ class ArticleServiceTest {
     @Test
     void createArticleSetsNormalizedSlugAndPublishedAt() {
         baseForm.setPublished(true);
-        when(articleRepository.findBySlug("cafe-au-lait")).thenReturn(Optional.empty());
-        when(articleRepository.save(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(articleRepository.findSlugFamily("cafe-au-lait", "cafe-au-lait-%")).thenReturn(List.of());
+        when(articleRepository.saveAndFlush(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Article result = articleService.createArticle(baseForm);
 
         assertEquals("Café au Lait", result.getTitle());
         assertEquals("Summary", result.getSummary());
         assertEquals("Content", result.getContent());
+        assertEquals("<p>Content</p>\n", result.getRenderedHtml());
         assertEquals("cafe-au-lait", result.getSlug());
         assertNotNull(result.getPublishedAt(), "Published article should have publishedAt set");
         assertThat(result.getPublishedAt()).isAfter(LocalDateTime.now().minusMinutes(1));
@@ -63,18 +99,54 @@ class ArticleServiceTest {
     void createArticleGeneratesUniqueSlugWhenDuplicateExists() {
         baseForm.setSlug("duplicate");
         baseForm.setPublished(false);
-        Article existing = new Article();
-        existing.setId(100L);
-
-        when(articleRepository.findBySlug("duplicate")).thenReturn(Optional.of(existing));
-        when(articleRepository.findBySlug("duplicate-1")).thenReturn(Optional.empty());
-        when(articleRepository.save(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(articleRepository.findSlugFamily("duplicate", "duplicate-%")).thenReturn(List.of("duplicate"));
+        when(articleRepository.saveAndFlush(any(Article.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Article result = articleService.createArticle(baseForm);
 
         assertEquals("duplicate-1", result.getSlug());
         assertNull(result.getPublishedAt());
-        verify(articleRepository).save(result);
+        verify(articleRepository).saveAndFlush(result);
+    }
+
+    @Test
+    void createArticleRetriesWhenConcurrentSaveTakesTheSlug() {
+        baseForm.setSlug("news");
+        when(articleRepository.findSlugFamily("news", "news-%"))
+                .thenReturn(List.of("news"))
+                .thenReturn(List.of("news", "news-1"));
+        when(articleRepository.saveAndFlush(any(Article.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate",
+                        new SQLException("Unique index or primary key violation: \"PUBLIC.UK_ARTICLES_SLUG_INDEX_B\"")))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Article result = articleService.createArticle(baseForm);
+
+        assertEquals("news-2", result.getSlug());
+        verify(transactionManager).rollback(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ArticleChangedEvent.class));
+    }
+
+    @Test
+    void createArticleDoesNotRetryOtherConstraintViolations() {
+        when(articleRepository.findSlugFamily("cafe-au-lait", "cafe-au-lait-%")).thenReturn(List.of());
+        when(articleRepository.saveAndFlush(any(Article.class)))
+                .thenThrow(new DataIntegrityViolationException("null", new SQLException("NULL not allowed for column")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> articleService.createArticle(baseForm));
+
+        verify(articleRepository, times(1)).saveAndFlush(any(Article.class));
+    }
+
+    @Test
+    void createArticleGivesUpAfterRepeatedSlugConflicts() {
+        when(articleRepository.findSlugFamily("cafe-au-lait", "cafe-au-lait-%")).thenReturn(List.of());
+        when(articleRepository.saveAndFlush(any(Article.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate", new SQLException("uk_articles_slug")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> articleService.createArticle(baseForm));
+
+        verify(articleRepository, times(ArticleService.MAX_SLUG_ATTEMPTS)).saveAndFlush(any(Article.class));
     }
 
     @Test
@@ -96,7 +168,6 @@ class ArticleServiceTest {
         form.setPublished(true);
 
         when(articleRepository.findById(5L)).thenReturn(Optional.of(existing));
-        when(articleRepository.findBySlug("existing-slug")).thenReturn(Optional.of(existing));
 
         Article updated = articleService.updateArticle(5L, form);
 
@@ -104,8 +175,11 @@ class ArticleServiceTest {
         assertEquals("Updated Title", existing.getTitle());
         assertEquals("Updated Summary", existing.getSummary());
         assertEquals("Updated Content", existing.getContent());
+        assertEquals("<p>Updated Content</p>\n", existing.getRenderedHtml());
         assertEquals("existing-slug", existing.getSlug());
         assertNotNull(existing.getPublishedAt());
+        verify(articleRepository, never()).findSlugFamily(any(), any());
+        verify(articleRepository).flush();
     }
 
     @Test
@@ -128,7 +202,6 @@ class ArticleServiceTest {
         form.setPublished(false);
 
         when(articleRepository.findById(10L)).thenReturn(Optional.of(existing));
-        when(articleRepository.findBySlug("keep-slug")).thenReturn(Optional.of(existing));
 
         articleService.updateArticle(10L, form);
 
@@ -138,6 +211,84 @@ class ArticleServiceTest {
         assertEquals("New content", existing.getContent());
     }
 
+    @Test
+    void updateArticlePublishesEventWithOldAndNewSlug() {
+        Article existing = new Article();
+        existing.setId(3L);
+        existing.setSlug("old-slug");
+
+        ArticleForm form = new ArticleForm();
+        form.setTitle("Title");
+        form.setContent("Content");
+        form.setSlug("new-slug");
+
+        when(articleRepository.findById(3L)).thenReturn(Optional.of(existing));
+        when(articleRepository.findSlugFamily("new-slug", "new-slug-%")).thenReturn(List.of());
+
+        articleService.updateArticle(3L, form);
+
+        ArgumentCaptor<ArticleChangedEvent> captor = ArgumentCaptor.forClass(ArticleChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(3L, captor.getValue().getArticleId());
+        assertThat(captor.getValue().getSlugs()).containsExactlyInAnyOrder("old-slug", "new-slug");
+    }
+
+    @Test
+    void deleteArticlePublishesEventForDeletedSlug() {
+        Article existing = new Article();
+        existing.setId(8L);
+        existing.setSlug("gone");
+        when(articleRepository.findById(8L)).thenReturn(Optional.of(existing));
+
+        articleService.deleteArticle(8L);
+
+        ArgumentCaptor<ArticleChangedEvent> captor = ArgumentCaptor.forClass(ArticleChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getSlugs()).containsExactly("gone");
+        verify(articleRepository).deleteById(8L);
+    }
+
+    @Test
+    void findBySlugCachesPublishedArticles() {
+        Article article = new Article();
+        article.setSlug("hot");
+        article.setPublished(true);
+        when(articleRepository.findBySlug("hot")).thenReturn(Optional.of(article));
+
+        assertThat(articleService.findBySlug("hot")).containsSame(article);
+        assertThat(articleService.findBySlug("hot")).containsSame(article);
+
+        verify(articleRepository, times(1)).findBySlug("hot");
+        assertThat(articleCache.stats().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findBySlugDoesNotCacheDrafts() {
+        Article draft = new Article();
+        draft.setSlug("draft");
+        draft.setPublished(false);
+        when(articleRepository.findBySlug("draft")).thenReturn(Optional.of(draft));
+
+        articleService.findBySlug("draft");
+        articleService.findBySlug("draft");
+
+        verify(articleRepository, times(2)).findBySlug("draft");
+    }
+
+    @Test
+    void findPublishedFeedVersionIsOnlyRecountedAfterArticleChanges() {
+        ArticleFeedVersion first = new ArticleFeedVersion(3L, LocalDateTime.of(2024, 3, 1, 9, 0));
+        ArticleFeedVersion second = new ArticleFeedVersion(4L, LocalDateTime.of(2024, 3, 2, 9, 0));
+        when(articleRepository.findPublishedFeedVersion()).thenReturn(first, second);
+
+        assertSame(first, articleService.findPublishedFeedVersion());
+        assertSame(first, articleService.findPublishedFeedVersion());
+        feedVersionCache.onArticleChanged(new ArticleChangedEvent(1L, Set.of("new-post")));
+        assertSame(second, articleService.findPublishedFeedVersion());
+
+        verify(articleRepository, times(2)).findPublishedFeedVersion();
+    }
+
     @Test
     void deleteArticleDelegatesToRepository() {
         articleService.deleteArticle(42L);
@@ -146,16 +297,14 @@ class ArticleServiceTest {
 
     @Test
     void findersDelegateToRepository() {
-        List<Article> articles = List.of(new Article());
+        List<ArticleSummary> articles = List.of(summary(1L, LocalDateTime.now()));
         Optional<Article> optional = Optional.of(new Article());
 
-        when(articleRepository.findAllByOrderByUpdatedAtDesc()).thenReturn(articles);
-        when(articleRepository.findByPublishedTrueOrderByPublishedAtDesc()).thenReturn(articles);
+        when(articleRepository.findAllSummaries()).thenReturn(articles);
         when(articleRepository.findById(7L)).thenReturn(optional);
         when(articleRepository.findBySlug("slug")).thenReturn(optional);
 
         assertSame(articles, articleService.findAllForAdmin());
-        assertSame(articles, articleService.findPublishedArticles());
         assertSame(optional, articleService.findById(7L));
         assertSame(optional, articleService.findBySlug("slug"));
     }
@@ -171,4 +320,83 @@ class ArticleServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> articleService.updateArticle(1L, form));
     }
+
+    @Test
+    void findPublishedPageReturnsLatestArticlesWithOlderCursor() {
+        List<ArticleSummary> latest = publishedArticles(ArticleService.PAGE_SIZE + 1, 100);
+        when(articleRepository.findLatestPublished(any())).thenReturn(latest);
+
+        ArticlePage<ArticleSummary> page = articleService.findPublishedPage(null, null);
+
+        assertThat(page.getArticles()).hasSize(ArticleService.PAGE_SIZE);
+        ArticleSummary last = page.getArticles().get(ArticleService.PAGE_SIZE - 1);
+        assertEquals(new ArticleCursor(last.getPublishedAt(), last.getId()), page.getOlderCursor());
+        assertNull(page.getNewerCursor());
+    }
+
+    @Test
+    void findPublishedPageOlderThanCursorLinksBothDirections() {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 50L);
+        List<ArticleSummary> older = publishedArticles(3, 49);
+        when(articleRepository.findPublishedOlderThan(eq(cursor.getPublishedAt()), eq(50L), any())).thenReturn(older);
+
+        ArticlePage<ArticleSummary> page = articleService.findPublishedPage(cursor, null);
+
+        assertThat(page.getArticles()).containsExactlyElementsOf(older);
+        assertNull(page.getOlderCursor(), "Last page should not link further back");
+        assertEquals(new ArticleCursor(older.get(0).getPublishedAt(), older.get(0).getId()), page.getNewerCursor());
+    }
+
+    @Test
+    void findPublishedPageNewerThanCursorRestoresDescendingOrder() {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 10L);
+        List<ArticleSummary> descending = publishedArticles(ArticleService.PAGE_SIZE + 1, 30);
+        List<ArticleSummary> ascending = new ArrayList<>(descending);
+        Collections.reverse(ascending);
+        when(articleRepository.findPublishedNewerThan(eq(cursor.getPublishedAt()), eq(10L), any())).thenReturn(ascending);
+
+        ArticlePage<ArticleSummary> page = articleService.findPublishedPage(null, cursor);
+
+        assertThat(page.getArticles()).containsExactlyElementsOf(descending.subList(1, ArticleService.PAGE_SIZE + 1));
+        assertNotNull(page.getOlderCursor());
+        assertNotNull(page.getNewerCursor());
+    }
+
+    @Test
+    void findPublishedBatchUsesKeysetAfterCursor() {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 50L);
+        List<ArticleSummary> older = publishedArticles(3, 49);
+        when(articleRepository.findPublishedOlderThan(eq(cursor.getPublishedAt()), eq(50L), any())).thenReturn(older);
+        when(articleRepository.findLatestPublished(any())).thenReturn(List.of());
+
+        assertThat(articleService.findPublishedBatch(cursor, 100)).containsExactlyElementsOf(older);
+        assertThat(articleService.findPublishedBatch(null, 100)).isEmpty();
+        verify(articleRepository).findLatestPublished(PageRequest.ofSize(100));
+    }
+
+    @Test
+    void findPublishedPageNewerThanCursorFallsBackToLatestAtTop() {
+        ArticleCursor cursor = new ArticleCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 10L);
+        List<ArticleSummary> latest = publishedArticles(4, 20);
+        when(articleRepository.findPublishedNewerThan(eq(cursor.getPublishedAt()), eq(10L), any()))
+                .thenReturn(latest.subList(0, 2));
+        when(articleRepository.findLatestPublished(any())).thenReturn(latest);
+
+        ArticlePage<ArticleSummary> page = articleService.findPublishedPage(null, cursor);
+
+        assertThat(page.getArticles()).containsExactlyElementsOf(latest);
+        assertNull(page.getNewerCursor());
+        assertNull(page.getOlderCursor());
+    }
+
+    private List<ArticleSummary> publishedArticles(int count, long firstId) {
+        LocalDateTime base = LocalDateTime.of(2024, 6, 1, 12, 0);
+        return LongStream.range(0, count)
+                .mapToObj(offset -> summary(firstId - offset, base.minusHours(offset)))
+                .toList();
+    }
+
+    private ArticleSummary summary(Long id, LocalDateTime publishedAt) {
+        return new ArticleSummary(id, "Title " + id, "slug-" + id, "Summary", publishedAt, publishedAt, true);
+    }
 }
@@ -1,20 +1,26 @@
 package com.example.blog.service;
 
+import com.example.blog.cache.UserDetailsCache;
 import com.example.blog.model.UserAccount;
 import com.example.blog.repository.UserAccountRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +29,12 @@ class BlogUserDetailsServiceTest {
     @Mock
     private UserAccountRepository userAccountRepository;
 
+    @Mock
+    private UserAccountService userAccountService;
+
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(10);
+
     @InjectMocks
     private BlogUserDetailsService blogUserDetailsService;
 
@@ -48,4 +60,58 @@ class BlogUserDetailsServiceTest {
 
         assertThrows(UsernameNotFoundException.class, () -> blogUserDetailsService.loadUserByUsername("missing"));
     }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        when(userAccountRepository.findByUsername("alice")).thenReturn(Optional.of(account("alice", "encoded")));
+
+        blogUserDetailsService.loadUserByUsername("alice");
+        UserDetails details = blogUserDetailsService.loadUserByUsername("alice");
+
+        assertEquals("encoded", details.getPassword());
+        verify(userAccountRepository, times(1)).findByUsername("alice");
+        assertThat(userDetailsCache.stats().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void changedAccountIsReloadedInsteadOfServingStaleCredentials() {
+        when(userAccountRepository.findByUsername("alice"))
+                .thenReturn(Optional.of(account("alice", "old-hash")))
+                .thenReturn(Optional.of(account("alice", "new-hash")));
+        blogUserDetailsService.loadUserByUsername("alice");
+
+        userDetailsCache.onUserAccountChanged(new UserAccountChangedEvent(1L, Set.of("alice")));
+        UserDetails details = blogUserDetailsService.loadUserByUsername("alice");
+
+        assertEquals("new-hash", details.getPassword());
+        verify(userAccountRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void missingUsersAreNotCached() {
+        when(userAccountRepository.findByUsername("missing")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> blogUserDetailsService.loadUserByUsername("missing"));
+        assertThrows(UsernameNotFoundException.class, () -> blogUserDetailsService.loadUserByUsername("missing"));
+
+        verify(userAccountRepository, times(2)).findByUsername("missing");
+    }
+
+    @Test
+    void updatePasswordStoresTheRehashedPassword() {
+        UserDetails details = blogUserDetailsService.updatePassword(
+                User.withUsername("alice").password("old-hash").roles("EDITOR").build(), "new-hash");
+
+        verify(userAccountService).updateEncodedPassword("alice", "new-hash");
+        assertEquals("new-hash", details.getPassword());
+        assertThat(details.getAuthorities()).extracting("authority").containsExactly("ROLE_EDITOR");
+    }
+
+    private static UserAccount account(String username, String password) {
+        UserAccount account = new UserAccount();
+        account.setUsername(username);
+        account.setPassword(password);
+        account.setRole(UserAccount.Role.EDITOR);
+        return account;
+    }
 }
@@ -0,0 +1,147 @@
+package com.example.blog.service;
+
+import com.example.blog.model.Article;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(SlugAllocator.class)
+class SlugAllocatorTest {
+
+    @Autowired
+    private SlugAllocator slugAllocator;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void normalizeStripsAccentsAndFallsBackToUuid() {
+        assertThat(SlugAllocator.normalize("Café au Lait!")).isEqualTo("cafe-au-lait");
+        assertThat(SlugAllocator.normalize("日本語のタイトル")).hasSize(36);
+        assertThat(SlugAllocator.normalize(" ")).hasSize(36);
+    }
+
+    @Test
+    void freeBaseIsUsedAsIs() {
+        persist("other");
+
+        assertThat(slugAllocator.allocate("news", null)).isEqualTo("news");
+    }
+
+    @Test
+    void nextSuffixFollowsTheHighestNumberedSlug() {
+        persist("news");
+        persist("news-1");
+        persist("news-7");
+        persist("news-flash");
+        persist("news-2024-review");
+        persist("newsletter");
+
+        assertThat(slugAllocator.allocate("news", null)).isEqualTo("news-8");
+        assertThat(slugAllocator.allocate("news-flash", null)).isEqualTo("news-flash-1");
+    }
+
+    @Test
+    void currentSlugEqualToTheBaseIsKeptWithoutQueries() {
+        persist("news");
+
+        statistics.clear();
+        assertThat(slugAllocator.allocate("news", "news")).isEqualTo("news");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void currentSlugInTheSameFamilyIsKeptWhileTheBaseIsTaken() {
+        persist("news");
+        persist("news-3");
+
+        statistics.clear();
+        assertThat(slugAllocator.allocate("news", "news-3")).isEqualTo("news-3");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void suffixedSlugReturnsToTheBaseOnceItIsFree() {
+        persist("news-3");
+
+        assertThat(slugAllocator.allocate("news", "news-3")).isEqualTo("news");
+    }
+
+    @Test
+    void thousandsOfCollisionsCostASingleQuery() {
+        persist("news");
+        for (int i = 1; i <= 2000; i++) {
+            entityManager.getEntityManager().persist(article("news-" + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics.clear();
+        String slug = slugAllocator.allocate("news", null);
+
+        assertThat(slug).isEqualTo("news-2001");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void allocateAllChecksFreshSlugsWithOneQuery() {
+        persist("other");
+        List<String> bases = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            bases.add("post-" + i + "-title");
+        }
+
+        statistics.clear();
+        List<String> slugs = slugAllocator.allocateAll(bases);
+
+        assertThat(slugs).containsExactlyElementsOf(bases);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void allocateAllNumbersCollisionsWithDatabaseAndWithinTheBatch() {
+        persist("news");
+        persist("news-4");
+        persist("tips");
+
+        statistics.clear();
+        List<String> slugs = slugAllocator.allocateAll(List.of("news", "fresh", "news", "fresh", "tips", "news-5"));
+
+        assertThat(slugs).containsExactly("news-5", "fresh", "news-6", "fresh-1", "tips-1", "news-5-1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    private void persist(String slug) {
+        entityManager.persistAndFlush(article(slug));
+    }
+
+    private Article article(String slug) {
+        Article article = new Article();
+        article.setTitle(slug);
+        article.setSlug(slug);
+        article.setContent("content");
+        article.setPublished(true);
+        article.setPublishedAt(LocalDateTime.now());
+        return article;
+    }
+}
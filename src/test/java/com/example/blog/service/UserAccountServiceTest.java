@@ -6,13 +6,16 @@ import com.example.blog.repository.UserAccountRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -31,6 +34,9 @@ class UserAccountServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserAccountService userAccountService;
 
@@ -89,6 +95,7 @@ class UserAccountServiceTest {
         assertEquals("encoded", account.getPassword());
         assertEquals(UserAccount.Role.ADMIN, account.getRole());
         verify(userAccountRepository).save(account);
+        assertEquals(Set.of("user"), publishedEvent().getUsernames());
     }
 
     @Test
@@ -153,6 +160,42 @@ class UserAccountServiceTest {
 
         assertEquals("encoded-new", existing.getPassword());
         assertEquals(UserAccount.Role.ADMIN, existing.getRole());
+        assertEquals(Set.of("user"), publishedEvent().getUsernames());
+    }
+
+    @Test
+    void updateAccountInvalidatesPreviousAndNewUsernames() {
+        UserAccount existing = new UserAccount();
+        existing.setId(1L);
+        existing.setUsername("original");
+        existing.setPassword("encoded");
+        existing.setRole(UserAccount.Role.EDITOR);
+
+        when(userAccountRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(userAccountRepository.existsByUsername("user")).thenReturn(false);
+        form.setPassword("");
+
+        userAccountService.updateAccount(1L, form);
+
+        UserAccountChangedEvent event = publishedEvent();
+        assertEquals(1L, event.getAccountId());
+        assertEquals(Set.of("original", "user"), event.getUsernames());
+    }
+
+    @Test
+    void updateEncodedPasswordReplacesHashAndInvalidatesUsername() {
+        UserAccount existing = new UserAccount();
+        existing.setId(5L);
+        existing.setUsername("user");
+        existing.setPassword("old-cost");
+
+        when(userAccountRepository.findByUsername("user")).thenReturn(Optional.of(existing));
+
+        userAccountService.updateEncodedPassword("user", "new-cost");
+
+        assertEquals("new-cost", existing.getPassword());
+        assertEquals(Set.of("user"), publishedEvent().getUsernames());
+        verify(passwordEncoder, never()).encode(any());
     }
 
     @Test
@@ -186,6 +229,7 @@ class UserAccountServiceTest {
     void deleteAccountDeletesNonAdmin() {
         UserAccount existing = new UserAccount();
         existing.setId(4L);
+        existing.setUsername("editor");
         existing.setRole(UserAccount.Role.EDITOR);
 
         when(userAccountRepository.findById(4L)).thenReturn(Optional.of(existing));
@@ -193,6 +237,7 @@ class UserAccountServiceTest {
         userAccountService.deleteAccount(4L);
 
         verify(userAccountRepository).delete(existing);
+        assertEquals(Set.of("editor"), publishedEvent().getUsernames());
     }
 
     @Test
@@ -202,4 +247,10 @@ class UserAccountServiceTest {
 
         assertSame(optional, userAccountService.findById(9L));
     }
+
+    private UserAccountChangedEvent publishedEvent() {
+        ArgumentCaptor<UserAccountChangedEvent> captor = ArgumentCaptor.forClass(UserAccountChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        return captor.getValue();
+    }
 }
@@ -0,0 +1,111 @@
+package com.example.blog.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileSessionRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    private FileSessionRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = newRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void sessionSurvivesRestart() {
+        StoredSession session = repository.createSession();
+        session.setAttribute("user", "admin");
+        repository.save(session);
+        repository.close();
+
+        repository = newRepository();
+
+        StoredSession found = repository.findById(session.getId());
+        assertThat(found.isAttributesLoaded()).isFalse();
+        assertThat((String) found.getAttribute("user")).isEqualTo("admin");
+    }
+
+    @Test
+    void touchesOverwriteOnlyTheHeader() throws IOException {
+        StoredSession session = repository.createSession();
+        session.setAttribute("user", "admin");
+        repository.save(session);
+        Path file = dir.resolve(session.getId() + ".session");
+        long size = Files.size(file);
+
+        StoredSession found = repository.findById(session.getId());
+        Instant later = found.getLastAccessedTime().plusSeconds(5);
+        found.setLastAccessedTime(later);
+        repository.save(found);
+        repository.flushTouches();
+
+        assertThat(Files.size(file)).isEqualTo(size);
+        FileSessionRepository otherInstance = newRepository();
+        try {
+            StoredSession reloaded = otherInstance.findById(session.getId());
+            assertThat(reloaded.getLastAccessedTime()).isEqualTo(later);
+            assertThat((String) reloaded.getAttribute("user")).isEqualTo("admin");
+        } finally {
+            otherInstance.close();
+        }
+    }
+
+    @Test
+    void changedIdMovesTheFile() {
+        StoredSession session = repository.createSession();
+        repository.save(session);
+        String oldId = session.getId();
+
+        StoredSession found = repository.findById(oldId);
+        found.changeSessionId();
+        repository.save(found);
+
+        assertThat(dir.resolve(oldId + ".session")).doesNotExist();
+        assertThat(repository.findById(oldId)).isNull();
+        assertThat(repository.findById(found.getId())).isNotNull();
+    }
+
+    @Test
+    void expiredSessionsAreSwept() {
+        StoredSession expired = repository.createSession();
+        expired.setLastAccessedTime(Instant.now().minus(Duration.ofHours(1)));
+        repository.save(expired);
+        StoredSession live = repository.createSession();
+        repository.save(live);
+
+        assertThat(repository.cleanUpExpiredSessions()).isEqualTo(1);
+
+        assertThat(dir.resolve(expired.getId() + ".session")).doesNotExist();
+        assertThat(repository.findById(live.getId())).isNotNull();
+    }
+
+    @Test
+    void idsThatAreNotUuidsAreIgnored() {
+        assertThat(repository.findById("../application")).isNull();
+        repository.deleteById("../application");
+    }
+
+    private FileSessionRepository newRepository() {
+        return new FileSessionRepository(dir, new SessionAttributeCodec(getClass().getClassLoader()),
+                Duration.ofMinutes(30), Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.blog.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcSessionRepositoryTest {
+
+    private EmbeddedDatabase database;
+    private JdbcSessionRepository repository;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("sessions-" + UUID.randomUUID())
+                .build();
+        repository = newRepository();
+        repository.initializeSchema();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+        database.shutdown();
+    }
+
+    @Test
+    void savedSessionIsVisibleFromAnotherNode() {
+        StoredSession session = repository.createSession();
+        session.setAttribute("user", "admin");
+        repository.save(session);
+
+        JdbcSessionRepository otherNode = newRepository();
+        try {
+            StoredSession found = otherNode.findById(session.getId());
+            assertThat((String) found.getAttribute("user")).isEqualTo("admin");
+            assertThat(found.getCreationTime().toEpochMilli()).isEqualTo(session.getCreationTime().toEpochMilli());
+        } finally {
+            otherNode.close();
+        }
+    }
+
+    @Test
+    void onlyChangedAttributesAreRewritten() {
+        StoredSession session = repository.createSession();
+        session.setAttribute("a", "1");
+        session.setAttribute("b", "2");
+        repository.save(session);
+
+        StoredSession found = repository.findById(session.getId());
+        found.setAttribute("b", "3");
+        found.removeAttribute("a");
+        found.setAttribute("c", "4");
+        repository.save(found);
+
+        StoredSession reloaded = repository.findById(session.getId());
+        assertThat(reloaded.getAttributeNames()).containsExactlyInAnyOrder("b", "c");
+        assertThat((String) reloaded.getAttribute("b")).isEqualTo("3");
+    }
+
+    @Test
+    void touchesAreBatchedUntilFlushed() {
+        StoredSession session = repository.createSession();
+        repository.save(session);
+        long saved = lastAccessTime(session.getId());
+
+        StoredSession found = repository.findById(session.getId());
+        Instant later = found.getLastAccessedTime().plusSeconds(5);
+        found.setLastAccessedTime(later);
+        repository.save(found);
+
+        assertThat(lastAccessTime(session.getId())).isEqualTo(saved);
+        assertThat(repository.pendingTouchCount()).isEqualTo(1);
+        assertThat(repository.findById(session.getId()).getLastAccessedTime()).isEqualTo(later);
+
+        repository.flushTouches();
+
+        assertThat(repository.pendingTouchCount()).isZero();
+        assertThat(lastAccessTime(session.getId())).isEqualTo(later.toEpochMilli());
+    }
+
+    @Test
+    void changedIdKeepsAttributes() {
+        StoredSession session = repository.createSession();
+        session.setAttribute("user", "admin");
+        repository.save(session);
+        String oldId = session.getId();
+
+        StoredSession found = repository.findById(oldId);
+        found.changeSessionId();
+        repository.save(found);
+
+        assertThat(repository.findById(oldId)).isNull();
+        assertThat((String) repository.findById(found.getId()).getAttribute("user")).isEqualTo("admin");
+    }
+
+    @Test
+    void expiredSessionsAreSweptWithTheirAttributes() {
+        StoredSession expired = repository.createSession();
+        expired.setAttribute("user", "admin");
+        expired.setLastAccessedTime(Instant.now().minus(Duration.ofHours(1)));
+        repository.save(expired);
+        StoredSession live = repository.createSession();
+        repository.save(live);
+
+        assertThat(repository.cleanUpExpiredSessions()).isEqualTo(1);
+
+        assertThat(repository.findById(expired.getId())).isNull();
+        assertThat(repository.findById(live.getId())).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from blog_session_attributes", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void changesToASessionDeletedElsewhereAreDropped() {
+        StoredSession session = repository.createSession();
+        session.setAttribute("user", "admin");
+        repository.save(session);
+        StoredSession found = repository.findById(session.getId());
+
+        repository.deleteById(session.getId());
+        found.setAttribute("flash", "saved");
+        repository.save(found);
+
+        assertThat(repository.findById(session.getId())).isNull();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from blog_session_attributes", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void deletedSessionIsGone() {
+        StoredSession session = repository.createSession();
+        repository.save(session);
+
+        repository.deleteById(session.getId());
+
+        assertThat(repository.findById(session.getId())).isNull();
+    }
+
+    private JdbcSessionRepository newRepository() {
+        return new JdbcSessionRepository(database, new DataSourceTransactionManager(database),
+                new SessionAttributeCodec(getClass().getClassLoader()), Duration.ofMinutes(30),
+                Duration.ofSeconds(10));
+    }
+
+    private long lastAccessTime(String id) {
+        return jdbcTemplate.queryForObject("select last_access_time from blog_sessions where session_id = ?",
+                Long.class, id);
+    }
+}
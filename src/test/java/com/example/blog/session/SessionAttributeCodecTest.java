@@ -0,0 +1,35 @@
+package com.example.blog.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionAttributeCodecTest {
+
+    private final SessionAttributeCodec codec = new SessionAttributeCodec(getClass().getClassLoader());
+
+    @Test
+    void smallValuesAreStoredUncompressed() {
+        byte[] encoded = codec.encode("admin");
+
+        assertThat(encoded[0]).isEqualTo(SessionAttributeCodec.PLAIN);
+        assertThat((String) codec.decode(encoded)).isEqualTo("admin");
+    }
+
+    @Test
+    void largeValuesAreCompressed() {
+        List<String> value = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            value.add("flash-message-" + i);
+        }
+
+        byte[] encoded = codec.encode(value);
+
+        assertThat(encoded[0]).isEqualTo(SessionAttributeCodec.DEFLATED);
+        assertThat(encoded.length).isLessThan(value.size() * 16);
+        assertThat(codec.decode(encoded)).isEqualTo(value);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.blog.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StoredSessionTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    @Test
+    void attributesAreLoadedOnFirstAccessAndDecodedOneByOne() {
+        StoredSession session = stored(Map.of("a", bytes("1"), "b", bytes("2")));
+        assertThat(loads).hasValue(0);
+
+        assertThat((String) session.getAttribute("a")).isEqualTo("1");
+        assertThat(session.getAttributeNames()).containsExactlyInAnyOrder("a", "b");
+
+        assertThat(loads).hasValue(1);
+        assertThat(decodes).hasValue(1);
+    }
+
+    @Test
+    void lastAccessOnlyIsATouchNotAChange() {
+        StoredSession session = stored(Map.of());
+
+        session.setLastAccessedTime(Instant.now());
+
+        assertThat(session.isTouched()).isTrue();
+        assertThat(session.hasChanges()).isFalse();
+        assertThat(session.isAttributesLoaded()).isFalse();
+    }
+
+    @Test
+    void onlyChangedAttributesAreEncoded() {
+        StoredSession session = stored(Map.of("a", bytes("1"), "b", bytes("2")));
+
+        session.setAttribute("c", "3");
+        session.removeAttribute("a");
+
+        Map<String, byte[]> changes = session.encodeChangedAttributes(value -> bytes((String) value));
+        assertThat(changes).containsOnlyKeys("a", "c");
+        assertThat(changes.get("a")).isNull();
+        assertThat(changes.get("c")).isEqualTo(bytes("3"));
+        assertThat(decodes).hasValue(0);
+
+        session.markPersisted();
+        assertThat(session.hasChanges()).isFalse();
+    }
+
+    @Test
+    void changedIdIsTrackedUntilPersisted() {
+        StoredSession session = stored(Map.of());
+        String original = session.getId();
+
+        session.changeSessionId();
+
+        assertThat(session.isIdChanged()).isTrue();
+        assertThat(session.getPersistedId()).isEqualTo(original);
+        session.markPersisted();
+        assertThat(session.getPersistedId()).isEqualTo(session.getId());
+    }
+
+    @Test
+    void negativeIntervalNeverExpires() {
+        StoredSession session = StoredSession.create(Duration.ofSeconds(-1));
+
+        assertThat(session.isExpired(Instant.now().plus(Duration.ofDays(365)))).isFalse();
+        assertThat(session.getExpiryTime()).isEqualTo(StoredSession.NEVER_EXPIRES);
+    }
+
+    private StoredSession stored(Map<String, byte[]> attributes) {
+        Instant created = Instant.now().minusSeconds(60);
+        return new StoredSession("primary", "00000000-0000-0000-0000-000000000001", created, created,
+                Duration.ofMinutes(30), () -> {
+                    loads.incrementAndGet();
+                    return new HashMap<>(attributes);
+                }, encoded -> {
+                    decodes.incrementAndGet();
+                    return new String(encoded, StandardCharsets.UTF_8);
+                });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.blog.view;
+
+import com.example.blog.cache.RenderedPageCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingViewResolverTest {
+
+    @Mock
+    private ThymeleafViewResolver thymeleafViewResolver;
+
+    @Test
+    void wrapsArticleView() throws Exception {
+        View articleView = mock(View.class);
+        when(thymeleafViewResolver.resolveViewName("blog/article", Locale.JAPAN)).thenReturn(articleView);
+        CachingViewResolver resolver = new CachingViewResolver(thymeleafViewResolver, new RenderedPageCache(10));
+
+        assertThat(resolver.resolveViewName("blog/article", Locale.JAPAN)).isInstanceOf(CachingView.class);
+    }
+
+    @Test
+    void leavesOtherViewsToRegularResolvers() throws Exception {
+        CachingViewResolver resolver = new CachingViewResolver(thymeleafViewResolver, new RenderedPageCache(10));
+
+        assertThat(resolver.resolveViewName("admin/articles/list", Locale.JAPAN)).isNull();
+        assertThat(resolver.resolveViewName("redirect:/admin/articles", Locale.JAPAN)).isNull();
+        assertThat(resolver.resolveViewName("error", Locale.JAPAN)).isNull();
+        verifyNoInteractions(thymeleafViewResolver);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.blog.view;
+
+import com.example.blog.cache.RenderedPageCache;
+import com.example.blog.service.ArticleChangedEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingViewTest {
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private RenderedPageCache pageCache;
+    private CachingView view;
+
+    @BeforeEach
+    void setUp() {
+        pageCache = new RenderedPageCache(10);
+        view = new CachingView(new CountingView(), pageCache);
+    }
+
+    @Test
+    void secondRenderOfSameVersionIsServedFromCache() throws Exception {
+        MockHttpServletResponse first = render(Map.of(
+                CachingView.CACHE_KEY_ATTRIBUTE, RenderedPageCache.articleKey("hello"),
+                CachingView.CACHE_VERSION_ATTRIBUTE, "v1"));
+        MockHttpServletResponse second = render(Map.of(
+                CachingView.CACHE_KEY_ATTRIBUTE, RenderedPageCache.articleKey("hello"),
+                CachingView.CACHE_VERSION_ATTRIBUTE, "v1"));
+
+        assertThat(renders).hasValue(1);
+        assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString()).contains("こんにちは 1");
+        assertThat(second.getContentType()).isEqualTo("text/html;charset=UTF-8");
+        assertThat(second.getContentLength()).isEqualTo(first.getContentAsByteArray().length);
+    }
+
+    @Test
+    void newVersionIsRenderedAgain() throws Exception {
+        render(Map.of(CachingView.CACHE_KEY_ATTRIBUTE, "article:hello", CachingView.CACHE_VERSION_ATTRIBUTE, "v1"));
+        MockHttpServletResponse updated = render(Map.of(
+                CachingView.CACHE_KEY_ATTRIBUTE, "article:hello", CachingView.CACHE_VERSION_ATTRIBUTE, "v2"));
+
+        assertThat(renders).hasValue(2);
+        assertThat(updated.getContentAsString()).contains("こんにちは 2");
+    }
+
+    @Test
+    void articleChangeEvictsRenderedPage() throws Exception {
+        Map<String, String> model = Map.of(
+                CachingView.CACHE_KEY_ATTRIBUTE, RenderedPageCache.articleKey("hello"),
+                CachingView.CACHE_VERSION_ATTRIBUTE, "v1");
+        render(model);
+
+        pageCache.onArticleChanged(new ArticleChangedEvent(1L, Set.of("hello")));
+        render(model);
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void anyArticleChangeEvictsIndexPages() throws Exception {
+        Map<String, String> model = Map.of(
+                CachingView.CACHE_KEY_ATTRIBUTE, RenderedPageCache.indexKey(),
+                CachingView.CACHE_VERSION_ATTRIBUTE, "v1");
+        render(model);
+
+        pageCache.onArticleChanged(new ArticleChangedEvent(1L, Set.of("unrelated")));
+        render(model);
+
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void gzipVariantIsServedToClientsThatAcceptIt() throws Exception {
+        view = new CachingView(new CountingView("<p>" + "圧縮される本文 ".repeat(100) + "</p>"), pageCache);
+        Map<String, String> model = Map.of(
+                CachingView.CACHE_KEY_ATTRIBUTE, RenderedPageCache.articleKey("long"),
+                CachingView.CACHE_VERSION_ATTRIBUTE, "v1");
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.8");
+
+        MockHttpServletResponse identity = render(model);
+        MockHttpServletResponse gzip = render(model, gzipRequest);
+
+        assertThat(renders).hasValue(1);
+        assertThat(identity.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(identity.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzip.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzip.getContentLength()).isEqualTo(gzip.getContentAsByteArray().length)
+                .isLessThan(identity.getContentLength());
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(identity.getContentAsByteArray());
+        }
+    }
+
+    @Test
+    void smallPagesAreAlwaysSentUncompressed() throws Exception {
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        MockHttpServletResponse response = render(Map.of(
+                CachingView.CACHE_KEY_ATTRIBUTE, "article:hello", CachingView.CACHE_VERSION_ATTRIBUTE, "v1"),
+                gzipRequest);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).contains("こんにちは 1");
+    }
+
+    @Test
+    void viewsWithoutCacheKeyAreAlwaysRendered() throws Exception {
+        render(Map.of());
+        render(Map.of());
+
+        assertThat(renders).hasValue(2);
+        assertThat(pageCache.stats().getSize()).isZero();
+    }
+
+    private MockHttpServletResponse render(Map<String, ?> model) throws Exception {
+        return render(model, new MockHttpServletRequest());
+    }
+
+    private MockHttpServletResponse render(Map<String, ?> model, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, request, response);
+        return response;
+    }
+
+    private class CountingView implements View {
+
+        private final String body;
+
+        CountingView() {
+            this(null);
+        }
+
+        CountingView(String body) {
+            this.body = body;
+        }
+
+        @Override
+        public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+                throws Exception {
+            response.setContentType("text/html;charset=UTF-8");
+            int count = renders.incrementAndGet();
+            response.getWriter().write(body != null ? body : "<p>こんにちは " + count + "</p>");
+            response.getWriter().flush();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.blog.view;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentEncodingTest {
+
+    @Test
+    void gzipRoundTripsCompressibleBody() throws Exception {
+        byte[] body = "<p>繰り返しの多い本文</p>".repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        byte[] compressed = ContentEncoding.gzip(body);
+
+        assertThat(compressed).isNotNull();
+        assertThat(compressed.length).isLessThan(body.length);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(in.readAllBytes()).isEqualTo(body);
+        }
+    }
+
+    @Test
+    void smallBodiesAreNotCompressed() {
+        assertThat(ContentEncoding.gzip("<p>短い</p>".getBytes(StandardCharsets.UTF_8))).isNull();
+    }
+
+    @Test
+    void acceptsGzipHonoursQualityValues() {
+        assertThat(ContentEncoding.acceptsGzip(request("gzip, deflate, br"))).isTrue();
+        assertThat(ContentEncoding.acceptsGzip(request("br;q=1.0, GZIP;q=0.5"))).isTrue();
+        assertThat(ContentEncoding.acceptsGzip(request("x-gzip"))).isTrue();
+        assertThat(ContentEncoding.acceptsGzip(request("*"))).isTrue();
+        assertThat(ContentEncoding.acceptsGzip(request("gzip;q=0, *"))).isFalse();
+        assertThat(ContentEncoding.acceptsGzip(request("identity"))).isFalse();
+        assertThat(ContentEncoding.acceptsGzip(new MockHttpServletRequest())).isFalse();
+    }
+
+    @Test
+    void varyIsAddedOnlyOnce() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ContentEncoding.addVaryAcceptEncoding(response);
+        ContentEncoding.addVaryAcceptEncoding(response);
+
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.blog.view;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TimedViewResolverTest {
+
+    @Mock
+    private ThymeleafViewResolver thymeleafViewResolver;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedViewResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        resolver = new TimedViewResolver(thymeleafViewResolver, meterRegistry);
+    }
+
+    @Test
+    void renderingIsRecordedPerTemplate() throws Exception {
+        View template = mock(View.class);
+        when(thymeleafViewResolver.resolveViewName("admin/articles/list", Locale.JAPAN)).thenReturn(template);
+
+        View view = resolver.resolveViewName("admin/articles/list", Locale.JAPAN);
+        view.render(Map.of(), new MockHttpServletRequest(), new MockHttpServletResponse());
+        view.render(Map.of(), new MockHttpServletRequest(), new MockHttpServletResponse());
+
+        Timer timer = meterRegistry.get(TimedViewResolver.METRIC_NAME).tag("view", "admin/articles/list").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        verify(template, times(2)).render(any(), any(), any());
+    }
+
+    @Test
+    void failedRenderingIsStillRecorded() throws Exception {
+        View template = mock(View.class);
+        doThrow(new IllegalStateException("broken")).when(template).render(any(), any(), any());
+        when(thymeleafViewResolver.resolveViewName("login", Locale.JAPAN)).thenReturn(template);
+        View view = resolver.resolveViewName("login", Locale.JAPAN);
+
+        assertThatThrownBy(() -> view.render(Map.of(), new MockHttpServletRequest(), new MockHttpServletResponse()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get(TimedViewResolver.METRIC_NAME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void resolvedViewsAreCached() throws Exception {
+        when(thymeleafViewResolver.resolveViewName("blog/index", Locale.JAPAN)).thenReturn(mock(View.class));
+
+        View first = resolver.resolveViewName("blog/index", Locale.JAPAN);
+        View second = resolver.resolveViewName("blog/index", Locale.JAPAN);
+
+        assertThat(first).isInstanceOf(TimedView.class).isSameAs(second);
+        verify(thymeleafViewResolver, times(1)).resolveViewName("blog/index", Locale.JAPAN);
+    }
+
+    @Test
+    void redirectsAndForwardsAreLeftToRegularResolvers() throws Exception {
+        assertThat(resolver.resolveViewName("redirect:/admin/articles", Locale.JAPAN)).isNull();
+        assertThat(resolver.resolveViewName("forward:/login", Locale.JAPAN)).isNull();
+        verifyNoInteractions(thymeleafViewResolver);
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+}